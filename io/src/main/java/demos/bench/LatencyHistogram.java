@@ -0,0 +1,158 @@
+package demos.bench;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A log-linear histogram of latencies in nanoseconds, after the layout of HdrHistogram.
+ *
+ * <p>Values are grouped in power-of-two ranges, each split into 64 linear sub-buckets, so every
+ * recorded value is kept with a relative error below 1.6% while the whole {@code long} range fits
+ * in about 3800 counters. Recording is a couple of shifts and an array increment, it never
+ * allocates.
+ *
+ * <p>Not thread-safe, give every recording thread its own histogram and {@link #add} them up.
+ *
+ * @author https://github.com/gukt
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 2) * SUB_BUCKET_HALF;
+
+  private final long[] counts = new long[BUCKETS];
+  private long totalCount;
+  private long min = Long.MAX_VALUE;
+  private long max;
+  private double sum;
+
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    counts[indexOf(value)]++;
+    totalCount++;
+    sum += value;
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Records {@code value} and, if it exceeds {@code expectedInterval}, the samples a closed-loop
+   * tester would have taken had it not been stalled: {@code value - interval}, {@code value - 2 *
+   * interval} and so on. Use this when latencies are measured from the actual send time; when they
+   * are measured from the intended send time (as {@link LoadGenerator} does in fixed-rate mode) the
+   * stall is already part of each sample and {@link #record(long)} is enough.
+   */
+  public void recordWithExpectedInterval(long value, long expectedInterval) {
+    record(value);
+    if (expectedInterval <= 0) {
+      return;
+    }
+    for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+      record(missing);
+    }
+  }
+
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    sum += other.sum;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public long count() {
+    return totalCount;
+  }
+
+  public long min() {
+    return totalCount == 0 ? 0 : min;
+  }
+
+  public long max() {
+    return max;
+  }
+
+  public double mean() {
+    return totalCount == 0 ? 0 : sum / totalCount;
+  }
+
+  /** The value at or below which {@code percentile} percent of the recorded values fall. */
+  public long valueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  /** Prints count, mean and the usual percentiles in the given unit. */
+  public void print(PrintStream out, TimeUnit unit) {
+    String u = unitName(unit);
+    double scale = unit.toNanos(1);
+    out.printf(
+        "  count=%d  mean=%.1f%s  min=%.1f%s%n", count(), mean() / scale, u, min() / scale, u);
+    double[] percentiles = {50, 90, 99, 99.9, 99.99};
+    for (double p : percentiles) {
+      out.printf("  p%-6s %10.1f%s%n", format(p), valueAtPercentile(p) / scale, u);
+    }
+    out.printf("  max     %10.1f%s%n", max() / scale, u);
+  }
+
+  static int indexOf(long value) {
+    int msb = 63 - Long.numberOfLeadingZeros(value | (SUB_BUCKET_HALF * 2 - 1));
+    int shift = msb - (SUB_BUCKET_BITS - 1);
+    return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+  }
+
+  static long lowestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_HALF * 2) {
+      return index;
+    }
+    int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+    long subBucket = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+    return subBucket << shift;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_HALF * 2) {
+      return index;
+    }
+    int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+    return lowestEquivalentValue(index) + (1L << shift) - 1;
+  }
+
+  private static String format(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? String.valueOf((long) percentile)
+        : String.valueOf(percentile);
+  }
+
+  private static String unitName(TimeUnit unit) {
+    switch (unit) {
+      case NANOSECONDS:
+        return "ns";
+      case MICROSECONDS:
+        return "us";
+      case MILLISECONDS:
+        return "ms";
+      default:
+        return "s";
+    }
+  }
+}
@@ -0,0 +1,355 @@
+package demos.bench;
+
+import demos.nio.codec.FrameCodec;
+import demos.nio.codec.FrameDecoder;
+import demos.nio.codec.LengthFieldFrameDecoder;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives an echo server with length-prefixed messages and reports throughput and latency.
+ *
+ * <p>The target has to echo length-prefixed frames verbatim, e.g. {@code demos.socket.TcpServer
+ * 8000 4 length}. Every message carries the time it was meant to be sent and the latency of its
+ * echo is measured from that time.
+ *
+ * <ul>
+ *   <li>With a {@link #rate(int)} the generator is open-loop: messages are due at fixed intervals
+ *       whether or not earlier ones have been answered. When the server stalls, the messages that
+ *       pile up behind the stall still count from their intended send time, so the histogram is
+ *       free of coordinated omission.
+ *   <li>With rate {@code 0} every connection keeps {@link #pipeline(int)} messages in flight and
+ *       sends the next one as soon as an echo arrives, which measures peak throughput.
+ * </ul>
+ *
+ * <pre>
+ *   java demos.bench.LoadGenerator [host] [port] [connections] [size] [rate] [seconds] [threads]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class LoadGenerator {
+
+  private static final int HEADER_LENGTH = 4;
+  private static final int TIMESTAMP_LENGTH = 8;
+
+  private String host = "localhost";
+  private int port = 8000;
+  private int connections = 64;
+  private int messageSize = 128;
+  private int rate;
+  private int pipeline = 1;
+  private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+  private long warmupNanos = TimeUnit.SECONDS.toNanos(2);
+  private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  public LoadGenerator host(String host) {
+    this.host = host;
+    return this;
+  }
+
+  public LoadGenerator port(int port) {
+    this.port = port;
+    return this;
+  }
+
+  public LoadGenerator connections(int connections) {
+    this.connections = connections;
+    return this;
+  }
+
+  /** Payload size of every message, at least the 8 byte timestamp. */
+  public LoadGenerator messageSize(int messageSize) {
+    this.messageSize = Math.max(TIMESTAMP_LENGTH, messageSize);
+    return this;
+  }
+
+  /** Total messages per second over all connections, {@code 0} for closed-loop (max) load. */
+  public LoadGenerator rate(int rate) {
+    this.rate = rate;
+    return this;
+  }
+
+  /** Messages each connection keeps in flight in closed-loop mode. */
+  public LoadGenerator pipeline(int pipeline) {
+    this.pipeline = Math.max(1, pipeline);
+    return this;
+  }
+
+  public LoadGenerator duration(long duration, TimeUnit unit) {
+    this.durationNanos = unit.toNanos(duration);
+    return this;
+  }
+
+  /** Time spent loading the server before samples are recorded. */
+  public LoadGenerator warmup(long warmup, TimeUnit unit) {
+    this.warmupNanos = unit.toNanos(warmup);
+    return this;
+  }
+
+  public LoadGenerator threads(int threads) {
+    this.threads = Math.max(1, threads);
+    return this;
+  }
+
+  /** Outcome of one run. */
+  public static class Result {
+    private final long messages;
+    private final long bytes;
+    private final long nanos;
+    private final LatencyHistogram histogram;
+
+    Result(long messages, long bytes, long nanos, LatencyHistogram histogram) {
+      this.messages = messages;
+      this.bytes = bytes;
+      this.nanos = nanos;
+      this.histogram = histogram;
+    }
+
+    /** Echoes received during the measured period. */
+    public long messages() {
+      return messages;
+    }
+
+    public double messagesPerSecond() {
+      return messages * 1e9 / nanos;
+    }
+
+    /** Payload megabytes per second, both directions. */
+    public double megabytesPerSecond() {
+      return bytes * 2 * 1e9 / nanos / (1024 * 1024);
+    }
+
+    public LatencyHistogram histogram() {
+      return histogram;
+    }
+
+    public void print() {
+      System.out.printf(
+          "throughput: %.0f msgs/s, %.1f MB/s%n", messagesPerSecond(), megabytesPerSecond());
+      System.out.println("latency:");
+      histogram.print(System.out, TimeUnit.MICROSECONDS);
+    }
+  }
+
+  public Result run() throws IOException, InterruptedException {
+    Driver[] drivers = new Driver[Math.min(threads, connections)];
+    for (int t = 0; t < drivers.length; t++) {
+      int share = connections / drivers.length + (t < connections % drivers.length ? 1 : 0);
+      drivers[t] = new Driver(share);
+    }
+
+    // The clock starts once every connection is established.
+    long measureFrom = System.nanoTime() + warmupNanos;
+    long end = measureFrom + durationNanos;
+    List<Thread> running = new ArrayList<>();
+    for (int t = 0; t < drivers.length; t++) {
+      drivers[t].measureFrom = measureFrom;
+      drivers[t].end = end;
+      Thread thread = new Thread(drivers[t], "load-" + t);
+      thread.start();
+      running.add(thread);
+    }
+    for (Thread thread : running) {
+      thread.join();
+    }
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    long messages = 0;
+    for (Driver driver : drivers) {
+      if (driver.failure != null) {
+        throw driver.failure;
+      }
+      histogram.add(driver.histogram);
+      messages += driver.histogram.count();
+    }
+    return new Result(messages, messages * messageSize, durationNanos, histogram);
+  }
+
+  /** One thread with its own selector serving a share of the connections. */
+  private class Driver implements Runnable {
+    private final Selector selector;
+    private final Client[] clients;
+    private final long intervalNanos;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long measureFrom;
+    private long end;
+    private long outstanding;
+    private IOException failure;
+
+    Driver(int share) throws IOException {
+      this.selector = Selector.open();
+      this.clients = new Client[share];
+      // Every connection sends at rate / connections, staggered so the load is smooth.
+      this.intervalNanos = rate > 0 ? (long) (1e9 * connections / rate) : 0;
+      for (int i = 0; i < share; i++) {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        clients[i] = new Client(channel, (intervalNanos * i) / Math.max(1, share));
+        channel.register(selector, SelectionKey.OP_READ, clients[i]);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        drive();
+      } catch (IOException e) {
+        failure = e;
+      } finally {
+        for (Client client : clients) {
+          try {
+            client.channel.close();
+          } catch (IOException ignored) {
+          }
+        }
+        try {
+          selector.close();
+        } catch (IOException ignored) {
+        }
+      }
+    }
+
+    private void drive() throws IOException {
+      long now = System.nanoTime();
+      for (Client client : clients) {
+        if (intervalNanos > 0) {
+          client.nextSendTime += now;
+        } else {
+          for (int i = 0; i < pipeline; i++) {
+            client.send(now);
+          }
+          client.flush();
+        }
+      }
+      // Stop sending at the end, then give the echoes still in flight a moment to arrive.
+      long drainUntil = end + TimeUnit.SECONDS.toNanos(2);
+      while (now < end || (outstanding > 0 && now < drainUntil)) {
+        long nextDue = now < end ? end : drainUntil;
+        if (intervalNanos > 0 && now < end) {
+          for (Client client : clients) {
+            // Catch up on every slot that passed, each message keeps its own intended time.
+            while (client.nextSendTime <= now) {
+              client.send(client.nextSendTime);
+              client.nextSendTime += intervalNanos;
+            }
+            client.flush();
+            nextDue = Math.min(nextDue, client.nextSendTime);
+          }
+        }
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(nextDue - now);
+        if (waitMillis > 0) {
+          selector.select(waitMillis);
+        } else {
+          selector.selectNow();
+        }
+        now = System.nanoTime();
+        for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+          SelectionKey key = it.next();
+          it.remove();
+          Client client = (Client) key.attachment();
+          if (key.isReadable()) {
+            client.read(now);
+          }
+          if (key.isValid() && key.isWritable()) {
+            client.flush();
+          }
+        }
+      }
+    }
+
+    /** One connection: an outbound buffer of due messages and a frame decoder for echoes. */
+    private class Client {
+      private final SocketChannel channel;
+      private final FrameDecoder decoder =
+          new LengthFieldFrameDecoder(FrameCodec.DEFAULT_MAX_FRAME_LENGTH);
+      private final FrameDecoder.FrameHandler onEcho = this::onEcho;
+      private ByteBuffer outbound = ByteBuffer.allocateDirect(64 * 1024);
+      private long nextSendTime;
+      private long readTime;
+      private int echoes;
+
+      Client(SocketChannel channel, long sendOffset) {
+        this.channel = channel;
+        this.nextSendTime = sendOffset;
+      }
+
+      void send(long intendedTime) {
+        int frameLength = HEADER_LENGTH + messageSize;
+        if (outbound.remaining() < frameLength) {
+          // The server is falling behind, keep queueing: those messages are part of the latency.
+          ByteBuffer bigger =
+              ByteBuffer.allocateDirect(Math.max(outbound.capacity() * 2, frameLength));
+          outbound.flip();
+          bigger.put(outbound);
+          outbound = bigger;
+        }
+        outstanding++;
+        outbound.putInt(messageSize).putLong(intendedTime);
+        outbound.position(outbound.position() + messageSize - TIMESTAMP_LENGTH);
+      }
+
+      void flush() throws IOException {
+        outbound.flip();
+        channel.write(outbound);
+        outbound.compact();
+        SelectionKey key = channel.keyFor(selector);
+        int ops = outbound.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (key.interestOps() != ops) {
+          key.interestOps(ops);
+        }
+      }
+
+      void read(long now) throws IOException {
+        readBuffer.clear();
+        if (channel.read(readBuffer) < 0) {
+          throw new IOException("Connection closed by server");
+        }
+        readBuffer.flip();
+        readTime = now;
+        echoes = 0;
+        decoder.decode(readBuffer, onEcho);
+        outstanding -= echoes;
+        if (intervalNanos == 0 && now < end) {
+          for (int i = 0; i < echoes; i++) {
+            send(now);
+          }
+          flush();
+        }
+      }
+
+      private void onEcho(ByteBuffer frame) {
+        long intendedTime = frame.getLong(frame.position());
+        if (intendedTime >= measureFrom && intendedTime < end) {
+          histogram.record(readTime - intendedTime);
+        }
+        echoes++;
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadGenerator generator =
+        new LoadGenerator()
+            .host(args.length > 0 ? args[0] : "localhost")
+            .port(args.length > 1 ? Integer.parseInt(args[1]) : 8000)
+            .connections(args.length > 2 ? Integer.parseInt(args[2]) : 64)
+            .messageSize(args.length > 3 ? Integer.parseInt(args[3]) : 128)
+            .rate(args.length > 4 ? Integer.parseInt(args[4]) : 0)
+            .duration(args.length > 5 ? Integer.parseInt(args[5]) : 10, TimeUnit.SECONDS);
+    if (args.length > 6) {
+      generator.threads(Integer.parseInt(args[6]));
+    }
+    generator.run().print();
+  }
+}
@@ -0,0 +1,128 @@
+package demos.nio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size-classed pool of direct {@link ByteBuffer}s.
+ *
+ * <p>Buffers are carved out of large direct chunks, one chunk per size class at a time, so the
+ * number of {@code allocateDirect} calls grows with the peak number of buffers in use rather than
+ * with the number of reads. Every thread keeps a small cache per size class; a buffer released by
+ * a full cache goes to the shared free list of its class, where any thread can pick it up.
+ *
+ * <p>Requests larger than the biggest size class are served with unpooled heap buffers and
+ * ignored on release.
+ *
+ * @author https://github.com/gukt
+ */
+public final class ByteBufferPool {
+
+    public static final ByteBufferPool DEFAULT = new ByteBufferPool();
+
+    private static final int MIN_SHIFT = 8;     // 256 bytes
+    private static final int MAX_SHIFT = 16;    // 64 KiB
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int THREAD_CACHE_SIZE = 64;
+
+    private final Queue<ByteBuffer>[] shared;
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> caches;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool() {
+        int classes = MAX_SHIFT - MIN_SHIFT + 1;
+        shared = new Queue[classes];
+        for (int i = 0; i < classes; i++) {
+            shared[i] = new ConcurrentLinkedQueue<>();
+        }
+        caches = ThreadLocal.withInitial(() -> {
+            ArrayDeque<ByteBuffer>[] cache = new ArrayDeque[classes];
+            for (int i = 0; i < classes; i++) {
+                cache[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+            }
+            return cache;
+        });
+    }
+
+    /** Smallest size class, buffers returned by {@link #acquire(int)} are never smaller. */
+    public static int minCapacity() {
+        return 1 << MIN_SHIFT;
+    }
+
+    /** Biggest size class, larger requests fall back to unpooled heap buffers. */
+    public static int maxCapacity() {
+        return 1 << MAX_SHIFT;
+    }
+
+    /**
+     * Returns a cleared buffer whose capacity is {@code capacity} rounded up to the next power of
+     * two. The caller owns the buffer until it hands it back with {@link #release(ByteBuffer)}.
+     */
+    public ByteBuffer acquire(int capacity) {
+        if (capacity > maxCapacity()) {
+            return ByteBuffer.allocate(capacity);
+        }
+        int index = sizeClass(capacity);
+        ByteBuffer buf = caches.get()[index].pollLast();
+        if (buf == null) {
+            buf = shared[index].poll();
+            if (buf == null) {
+                buf = allocateChunk(index);
+            }
+        }
+        buf.clear();
+        return buf;
+    }
+
+    /** Gives a buffer obtained from {@link #acquire(int)} back to the pool. */
+    public void release(ByteBuffer buf) {
+        if (buf == null || !buf.isDirect()) {
+            return;
+        }
+        int capacity = buf.capacity();
+        if (Integer.bitCount(capacity) != 1 || capacity < minCapacity() || capacity > maxCapacity()) {
+            return;
+        }
+        int index = sizeClass(capacity);
+        ArrayDeque<ByteBuffer> cache = caches.get()[index];
+        if (cache.size() < THREAD_CACHE_SIZE) {
+            cache.addLast(buf);
+        } else {
+            shared[index].add(buf);
+        }
+    }
+
+    /** Total bytes of direct memory this pool has allocated so far. */
+    public long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private ByteBuffer allocateChunk(int index) {
+        int size = 1 << (index + MIN_SHIFT);
+        int count = Math.max(1, CHUNK_SIZE / size);
+        ByteBuffer chunk = ByteBuffer.allocateDirect(size * count);
+        allocatedBytes.addAndGet(chunk.capacity());
+
+        // Keep the first slice for the caller and publish the rest.
+        ByteBuffer first = slice(chunk, 0, size);
+        for (int i = 1; i < count; i++) {
+            shared[index].add(slice(chunk, i * size, size));
+        }
+        return first;
+    }
+
+    private static ByteBuffer slice(ByteBuffer chunk, int offset, int size) {
+        ByteBuffer dup = chunk.duplicate();
+        dup.limit(offset + size).position(offset);
+        return dup.slice();
+    }
+
+    private static int sizeClass(int capacity) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, minCapacity()) - 1);
+        return shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,255 @@
+package demos.nio;
+
+import demos.nio.codec.FrameCodec;
+import demos.nio.codec.FrameDecoder;
+import demos.nio.codec.LengthFieldFrameDecoder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An asynchronous request/response client that keeps many requests in flight on one connection.
+ *
+ * <p>Every request is sent as a length-prefixed frame whose payload starts with an 8 byte request
+ * id, and the response is expected to carry the same id, so responses may come back in any order.
+ * An echo server running the {@code length} codec (e.g. {@code demos.socket.TcpServer 8000 0
+ * length}) answers this protocol as it is.
+ *
+ * <pre>
+ * +--------+------------+------+
+ * | Length | Request ID | Body |
+ * | 4      | 8          | ...  |
+ * +--------+------------+------+
+ * </pre>
+ *
+ * <p>Callers only encode their request and put it on a queue; a single I/O thread drains the
+ * queue and writes everything that piled up with one gathering write, so many callers cost one
+ * syscall. Futures are completed on the I/O thread, keep dependent actions short or use the
+ * {@code *Async} variants.
+ *
+ * @author https://github.com/gukt
+ */
+public class PipelinedTcpClient implements Closeable {
+
+    private static final int HEADER_LENGTH = 4 + 8;
+    private static final int MAX_GATHER = 256;
+
+    private final String host;
+    private final int port;
+
+    private final Queue<ByteBuffer> submitted = new ConcurrentLinkedQueue<>();
+    private final Map<Long, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicBoolean wakenUp = new AtomicBoolean();
+    private volatile boolean closed;
+
+    // Set by connect(), read by the threads calling request().
+    private volatile Selector selector;
+    private SocketChannel socketChannel;
+    private Thread ioThread;
+
+    // Only touched by the I/O thread.
+    private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final FrameDecoder decoder = new LengthFieldFrameDecoder(FrameCodec.DEFAULT_MAX_FRAME_LENGTH);
+
+    public PipelinedTcpClient(int port) {
+        this("localhost", port);
+    }
+
+    public PipelinedTcpClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public void connect() throws IOException {
+        socketChannel = SocketChannel.open(new InetSocketAddress(host, port));
+        socketChannel.configureBlocking(false);
+        socketChannel.socket().setTcpNoDelay(true);
+        Selector selector = Selector.open();
+        socketChannel.register(selector, SelectionKey.OP_READ);
+        // Published last: a request() that sees it finds the connection set up.
+        this.selector = selector;
+
+        ioThread = new Thread(this::run, "pipelined-client-" + port);
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * Sends {@code body} and returns a future of the response body. Never blocks, may be called
+     * from any number of threads. The future fails with an {@link IllegalStateException} before
+     * {@link #connect()}, and with a {@link ClosedChannelException} once the client is closed.
+     */
+    public CompletableFuture<byte[]> request(byte[] body) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new ClosedChannelException());
+            return future;
+        }
+        Selector selector = this.selector;
+        if (selector == null) {
+            future.completeExceptionally(new IllegalStateException("not connected"));
+            return future;
+        }
+        long id = nextId.incrementAndGet();
+        inFlight.put(id, future);
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + body.length);
+        frame.putInt(8 + body.length).putLong(id).put(body).flip();
+        submitted.add(frame);
+        if (closed) {
+            // Lost the race with close(), the I/O thread may never see this request.
+            if (inFlight.remove(id) != null) {
+                future.completeExceptionally(new ClosedChannelException());
+            }
+        } else if (wakenUp.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+        return future;
+    }
+
+    /** Number of requests sent or queued whose response has not arrived yet. */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Selector selector = this.selector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    private void run() {
+        Selector selector = this.selector;
+        try {
+            while (!closed) {
+                wakenUp.set(false);
+                if (submitted.isEmpty()) {
+                    selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (key.isReadable()) {
+                        read();
+                    }
+                }
+                selector.selectedKeys().clear();
+                // Everything submitted since the last round goes out in one gathering write.
+                for (ByteBuffer frame; (frame = submitted.poll()) != null; ) {
+                    outbound.add(frame);
+                }
+                flush(socketChannel.keyFor(selector));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closed = true;
+            shutdown();
+        }
+    }
+
+    private void read() throws IOException {
+        ByteBuffer buf = ByteBufferPool.DEFAULT.acquire(64 * 1024);
+        try {
+            if (socketChannel.read(buf) < 0) {
+                throw new ClosedChannelException();
+            }
+            buf.flip();
+            decoder.decode(buf, frame -> {
+                long id = frame.getLong();
+                byte[] body = new byte[frame.remaining()];
+                frame.get(body);
+                CompletableFuture<byte[]> future = inFlight.remove(id);
+                if (future != null) {
+                    future.complete(body);
+                }
+            });
+        } finally {
+            ByteBufferPool.DEFAULT.release(buf);
+        }
+    }
+
+    private void flush(SelectionKey key) throws IOException {
+        while (!outbound.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer frame : outbound) {
+                gather[count++] = frame;
+                if (count == MAX_GATHER) {
+                    break;
+                }
+            }
+            long written = socketChannel.write(gather, 0, count);
+            Arrays.fill(gather, 0, count, null);
+            while (!outbound.isEmpty() && !outbound.peekFirst().hasRemaining()) {
+                outbound.pollFirst();
+            }
+            if (written == 0) {
+                break;
+            }
+        }
+        key.interestOps(outbound.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    private void shutdown() {
+        try {
+            socketChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+        }
+        decoder.release();
+        ClosedChannelException cause = new ClosedChannelException();
+        submitted.clear();
+        for (Long id : inFlight.keySet()) {
+            CompletableFuture<byte[]> future = inFlight.remove(id);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int requestsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        try (PipelinedTcpClient client = new PipelinedTcpClient(port)) {
+            client.connect();
+            byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+            CountDownLatch done = new CountDownLatch(threads * requestsPerThread);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                new Thread(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        client.request(body).whenComplete((response, cause) -> done.countDown());
+                    }
+                }).start();
+            }
+            done.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d requests in %.2fs, %.0f req/s%n",
+                    threads * requestsPerThread, seconds, threads * requestsPerThread / seconds);
+        }
+    }
+}
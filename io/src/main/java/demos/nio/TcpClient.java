@@ -6,10 +6,14 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Created by Administrator on 2015/10/14.
+ *
+ * <p>{@link #write(String)} is fire-and-forget, see {@link PipelinedTcpClient} for a client that
+ * correlates responses with requests.
  */
 public class TcpClient {
     private Selector selector;
@@ -57,6 +61,9 @@ public class TcpClient {
 
     class Processor extends Thread {
         private Selector selector;
+        // 解码器和读缓冲区都可以复用，不必每次读取都重新创建
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private final ByteBuffer buffer = ByteBuffer.allocate(1024);
 
         public Processor(Selector selector) {
             this.selector = selector;
@@ -70,12 +77,12 @@ public class TcpClient {
                     for (SelectionKey selectionKey : selector.selectedKeys()) {
                         if (selectionKey.isReadable()) {
                             SocketChannel socketChannel = (SocketChannel) selectionKey.channel();
-                            ByteBuffer buffer = ByteBuffer.allocate(1024);
+                            buffer.clear();
                             socketChannel.read(buffer);
 
                             buffer.flip();
 
-                            String receivedString = Charset.forName("UTF-8").newDecoder().decode(buffer).toString();
+                            String receivedString = decoder.decode(buffer).toString();
                             System.out.println("RECEIVED: " + receivedString + ", from:" + socketChannel.socket().getRemoteSocketAddress());
 
                             // 为下一次读取作准备
@@ -97,7 +104,8 @@ public class TcpClient {
         client.connect();
 
         for(int i =0;i < 3;i++) {
-            client.write("message" + i);
+            // 服务端按行拆分消息
+            client.write("message" + i + "\n");
 
             //TimeUnit.SECONDS.sleep(3);
         }
@@ -1,11 +1,15 @@
 package demos.nio;
 
+import demos.nio.codec.FrameDecoder;
+import demos.nio.codec.LineFrameDecoder;
+
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 /**
@@ -69,18 +73,35 @@ public class TcpServer {
 
                         System.out.println("Accepted an new connection:[" + clientChannel.getRemoteAddress() + "]");
 
-                        // 将代表客户端连接的Socket也注册到selector中
-                        clientChannel.register(selector, SelectionKey.OP_READ);
+                        // 将代表客户端连接的Socket也注册到selector中，每个连接附带一个按行拆分消息的解码器
+                        clientChannel.register(selector, SelectionKey.OP_READ, new LineFrameDecoder(8192));
                     } else if (key.isReadable()) {
                         SocketChannel clientChannel = (SocketChannel) key.channel();
-                        ByteBuffer buffer = ByteBuffer.allocate(256);
-                        clientChannel.read(buffer);
-                        String request = new String(buffer.array()).trim();
-                        System.out.println("Message read from client: " + request);
-
-                        if (request.equals("Bye.")) {
-                            clientChannel.close();
-                            System.out.println("The client[" + clientChannel.getRemoteAddress() + "] is going away ...");
+                        // 从池中借用缓冲区，而不是每次读事件都分配一个新的
+                        ByteBuffer buffer = ByteBufferPool.DEFAULT.acquire(256);
+                        try {
+                            FrameDecoder decoder = (FrameDecoder) key.attachment();
+                            if (clientChannel.read(buffer) < 0) {
+                                decoder.release();
+                                clientChannel.close();
+                            } else {
+                                // 一次读取可能包含半条消息，也可能包含多条消息，交给解码器按行拆分
+                                buffer.flip();
+                                decoder.decode(buffer, frame -> {
+                                    String request = StandardCharsets.UTF_8.decode(frame).toString().trim();
+                                    System.out.println("Message read from client: " + request);
+
+                                    if (request.equals("Bye.") && clientChannel.isOpen()) {
+                                        System.out.println("The client[" + clientChannel.getRemoteAddress() + "] is going away ...");
+                                        clientChannel.close();
+                                    }
+                                });
+                                if (!clientChannel.isOpen()) {
+                                    decoder.release();
+                                }
+                            }
+                        } finally {
+                            ByteBufferPool.DEFAULT.release(buffer);
                         }
                      } else if (key.isWritable()) {
                         System.out.println("Writing data...");
@@ -0,0 +1,197 @@
+package demos.nio;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel for a single thread, e.g. a selector loop.
+ *
+ * <p>Time is cut into ticks and every {@link Timeout} sits in the doubly linked bucket of its
+ * deadline tick (modulo the wheel size), so scheduling and cancelling are O(1) no matter how many
+ * timeouts are pending. Deadlines are rounded up to the next tick, a timeout never fires early
+ * but may fire up to one tick late.
+ *
+ * <p>A {@link Timeout} is created once and can be scheduled again and again, so a connection that
+ * re-arms its idle timer does not allocate. Not thread-safe: scheduling, cancelling and
+ * {@link #expire(long)} must all happen on the owning thread.
+ *
+ * @author https://github.com/gukt
+ */
+public final class TimerWheel {
+
+    private final long tickNanos;
+    private final long startTime;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final ArrayList<Timeout> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimerWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(tickDuration, unit, ticksPerWheel, System.nanoTime());
+    }
+
+    /**
+     * @param ticksPerWheel rounded up to a power of two
+     * @param startTime     the {@link System#nanoTime()} the first tick starts at
+     */
+    public TimerWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, long startTime) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration: " + tickDuration + " (expected: > 0)");
+        }
+        int n = 1;
+        while (n < ticksPerWheel) {
+            n <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startTime = startTime;
+        this.buckets = new Bucket[n];
+        for (int i = 0; i < n; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = n - 1;
+    }
+
+    /** Creates an unscheduled timeout that runs {@code task} when it fires. */
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(this, task);
+    }
+
+    /**
+     * Schedules {@code timeout} to fire at {@code deadline} ({@link System#nanoTime()} based),
+     * moving it if it was already scheduled.
+     */
+    public void schedule(Timeout timeout, long deadline) {
+        if (timeout.wheel != this) {
+            throw new IllegalArgumentException("Timeout belongs to another wheel");
+        }
+        timeout.cancel();
+        long ticks = (deadline - startTime + tickNanos - 1) / tickNanos;
+        timeout.deadlineTick = Math.max(ticks, currentTick + 1);
+        buckets[(int) (timeout.deadlineTick & mask)].add(timeout);
+        size++;
+    }
+
+    /** Number of scheduled timeouts. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * How long the owning thread may block before the next tick is due, or {@code -1} if nothing
+     * is scheduled.
+     */
+    public long nanosToNextTick(long now) {
+        if (size == 0) {
+            return -1;
+        }
+        long nextTickTime = startTime + (currentTick + 1) * tickNanos;
+        return Math.max(0, nextTickTime - now);
+    }
+
+    /**
+     * Fires every timeout whose deadline tick has been reached by {@code now}.
+     *
+     * @return the number of timeouts fired
+     */
+    public int expire(long now) {
+        long targetTick = (now - startTime) / tickNanos;
+        if (targetTick <= currentTick) {
+            return 0;
+        }
+        // A bucket holds every round of its slot, one revolution visits all of them.
+        long from = Math.max(currentTick + 1, targetTick - buckets.length + 1);
+        for (long tick = from; tick <= targetTick; tick++) {
+            buckets[(int) (tick & mask)].collectExpired(targetTick, expired);
+        }
+        currentTick = targetTick;
+
+        int fired = 0;
+        for (int i = 0; i < expired.size(); i++) {
+            Timeout timeout = expired.get(i);
+            // An earlier task of this round may have cancelled or re-scheduled it.
+            if (timeout.expiring) {
+                timeout.expiring = false;
+                fired++;
+                timeout.task.run();
+            }
+        }
+        expired.clear();
+        return fired;
+    }
+
+    /** A re-schedulable timer task, an intrusive node of its bucket's list. */
+    public static final class Timeout {
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private long deadlineTick;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private boolean expiring;
+
+        private Timeout(TimerWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        public boolean isScheduled() {
+            return bucket != null || expiring;
+        }
+
+        /** Unschedules this timeout, a no-op if it is not scheduled. */
+        public void cancel() {
+            expiring = false;
+            if (bucket != null) {
+                bucket.remove(this);
+                wheel.size--;
+            }
+        }
+    }
+
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        void collectExpired(long targetTick, ArrayList<Timeout> out) {
+            for (Timeout timeout = head; timeout != null; ) {
+                Timeout next = timeout.next;
+                if (timeout.deadlineTick <= targetTick) {
+                    remove(timeout);
+                    size--;
+                    timeout.expiring = true;
+                    out.add(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+}
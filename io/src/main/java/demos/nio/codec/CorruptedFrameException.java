@@ -0,0 +1,19 @@
+package demos.nio.codec;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a {@link FrameDecoder} when the inbound bytes can not be split into frames, e.g. a
+ * frame is longer than the allowed maximum or a length prefix is malformed. The connection should
+ * be closed, there is no way to resynchronize.
+ *
+ * @author https://github.com/gukt
+ */
+public class CorruptedFrameException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CorruptedFrameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package demos.nio.codec;
+
+import java.util.function.Supplier;
+
+/**
+ * Pairs a decoder factory with the matching encoder, so a server can be configured with a single
+ * value. Decoders are stateful and created per connection, the encoder is shared.
+ *
+ * @author https://github.com/gukt
+ */
+public final class FrameCodec {
+
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 1024 * 1024;
+
+    private final String name;
+    private final Supplier<FrameDecoder> decoderFactory;
+    private final FrameEncoder encoder;
+
+    public FrameCodec(String name, Supplier<FrameDecoder> decoderFactory, FrameEncoder encoder) {
+        this.name = name;
+        this.decoderFactory = decoderFactory;
+        this.encoder = encoder;
+    }
+
+    /** Every read is one frame, payloads are written as they are. */
+    public static FrameCodec raw() {
+        return new FrameCodec("raw", RawFrameDecoder::new, (length, header) -> {
+        });
+    }
+
+    public static FrameCodec lengthPrefixed() {
+        return new FrameCodec("length",
+                () -> new LengthFieldFrameDecoder(DEFAULT_MAX_FRAME_LENGTH),
+                LengthFieldFrameEncoder.INSTANCE);
+    }
+
+    public static FrameCodec varintPrefixed() {
+        return new FrameCodec("varint",
+                () -> new VarintFrameDecoder(DEFAULT_MAX_FRAME_LENGTH),
+                VarintFrameEncoder.INSTANCE);
+    }
+
+    public static FrameCodec lineDelimited() {
+        return new FrameCodec("line",
+                () -> new LineFrameDecoder(8192),
+                LineFrameEncoder.INSTANCE);
+    }
+
+    /** Looks a codec up by its name: {@code raw}, {@code length}, {@code varint} or {@code line}. */
+    public static FrameCodec forName(String name) {
+        switch (name) {
+            case "raw":
+                return raw();
+            case "length":
+                return lengthPrefixed();
+            case "varint":
+                return varintPrefixed();
+            case "line":
+                return lineDelimited();
+            default:
+                throw new IllegalArgumentException("Unknown codec: " + name);
+        }
+    }
+
+    public FrameDecoder newDecoder() {
+        return decoderFactory.get();
+    }
+
+    public FrameEncoder encoder() {
+        return encoder;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,123 @@
+package demos.nio.codec;
+
+import demos.nio.ByteBufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Splits a stream of bytes into frames, one instance per connection.
+ *
+ * <p>A read may contain half a frame, exactly one, or many. Frames that arrive whole are handed
+ * to the {@link FrameHandler} as slices of the read buffer itself, nothing is copied. Only the
+ * trailing partial frame is copied into a pooled cumulation buffer, and the next read is appended
+ * to it until the frame completes.
+ *
+ * <p>The frame buffer passed to the handler is only valid during the call.
+ *
+ * @author https://github.com/gukt
+ */
+public abstract class FrameDecoder {
+
+    /** Receives decoded frames. */
+    @FunctionalInterface
+    public interface FrameHandler {
+        void onFrame(ByteBuffer frame) throws IOException;
+    }
+
+    private final ByteBufferPool pool;
+    private ByteBuffer cumulation; // flipped, the undecoded bytes are [position, limit)
+
+    protected FrameDecoder() {
+        this(ByteBufferPool.DEFAULT);
+    }
+
+    protected FrameDecoder(ByteBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Decodes as many frames as possible from {@code in} (plus any bytes left over from earlier
+     * calls) and consumes all of {@code in}.
+     */
+    public final void decode(ByteBuffer in, FrameHandler handler) throws IOException {
+        if (cumulation == null) {
+            // Fast path: nothing buffered, frames are sliced straight out of the read buffer.
+            decodeFrames(in, handler);
+            if (in.hasRemaining()) {
+                cumulation = pool.acquire(in.remaining());
+                cumulation.put(in).flip();
+            }
+            return;
+        }
+
+        append(in);
+        try {
+            decodeFrames(cumulation, handler);
+        } finally {
+            if (cumulation != null && !cumulation.hasRemaining()) {
+                release();
+            }
+        }
+    }
+
+    /** Number of bytes received but not decoded into a frame yet. */
+    public int buffered() {
+        return cumulation == null ? 0 : cumulation.remaining();
+    }
+
+    /** Returns the cumulation buffer to the pool, call it when the connection is closed. */
+    public void release() {
+        if (cumulation != null) {
+            pool.release(cumulation);
+            cumulation = null;
+        }
+    }
+
+    /**
+     * Decodes one frame starting at {@code buf.position()}.
+     *
+     * <p>If a whole frame is available, returns it (usually as a slice of {@code buf}) and
+     * advances the position past it. Otherwise returns {@code null}; the position may be left
+     * anywhere, it is reset by the caller.
+     */
+    protected abstract ByteBuffer decodeFrame(ByteBuffer buf) throws IOException;
+
+    private void decodeFrames(ByteBuffer buf, FrameHandler handler) throws IOException {
+        while (buf.hasRemaining()) {
+            int start = buf.position();
+            ByteBuffer frame = decodeFrame(buf);
+            if (frame == null) {
+                buf.position(start);
+                return;
+            }
+            handler.onFrame(frame);
+        }
+    }
+
+    private void append(ByteBuffer in) {
+        int needed = in.remaining();
+        if (cumulation.capacity() - cumulation.limit() < needed) {
+            int size = cumulation.remaining() + needed;
+            if (size <= cumulation.capacity()) {
+                cumulation.compact().flip();
+            } else {
+                ByteBuffer bigger = pool.acquire(size);
+                bigger.put(cumulation).flip();
+                pool.release(cumulation);
+                cumulation = bigger;
+            }
+        }
+        int position = cumulation.position();
+        cumulation.position(cumulation.limit()).limit(cumulation.capacity());
+        cumulation.put(in);
+        cumulation.flip().position(position);
+    }
+
+    static ByteBuffer slice(ByteBuffer buf, int length) {
+        ByteBuffer frame = buf.slice();
+        frame.limit(length);
+        buf.position(buf.position() + length);
+        return frame;
+    }
+}
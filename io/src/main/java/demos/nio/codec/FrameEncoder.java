@@ -0,0 +1,25 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frames an outbound payload. Encoders are stateless and may be shared by all connections.
+ *
+ * <p>The payload itself is never copied, the encoder only sees its length and fills in what goes
+ * before and after it. The three parts are written with one gathering write, and the payload does
+ * not even have to be a buffer (e.g. a region of a file sent with {@code transferTo}).
+ *
+ * @author https://github.com/gukt
+ */
+public interface FrameEncoder {
+
+    /** Upper bound of what {@link #encodeHeader} and {@link #encodeTrailer} write. */
+    int MAX_OVERHEAD = 8;
+
+    /** Puts whatever precedes a payload of {@code length} bytes into {@code header}. */
+    void encodeHeader(int length, ByteBuffer header);
+
+    /** Puts whatever follows a payload of {@code length} bytes into {@code trailer}. */
+    default void encodeTrailer(int length, ByteBuffer trailer) {
+    }
+}
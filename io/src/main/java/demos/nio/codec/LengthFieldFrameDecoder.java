@@ -0,0 +1,44 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes frames prefixed with a 4 byte big-endian length. The length does not include the
+ * prefix itself.
+ *
+ * <pre>
+ * +--------+----------------+
+ * | Length | Payload        |
+ * | 0x000C | "HELLO, WORLD" |
+ * +--------+----------------+
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class LengthFieldFrameDecoder extends FrameDecoder {
+
+    static final int LENGTH_FIELD_LENGTH = 4;
+
+    private final int maxFrameLength;
+
+    public LengthFieldFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected ByteBuffer decodeFrame(ByteBuffer buf) throws CorruptedFrameException {
+        if (buf.remaining() < LENGTH_FIELD_LENGTH) {
+            return null;
+        }
+        int length = buf.getInt(buf.position());
+        if (length < 0 || length > maxFrameLength) {
+            throw new CorruptedFrameException(
+                    "Frame length " + length + " out of range [0, " + maxFrameLength + "]");
+        }
+        if (buf.remaining() < LENGTH_FIELD_LENGTH + length) {
+            return null;
+        }
+        buf.position(buf.position() + LENGTH_FIELD_LENGTH);
+        return slice(buf, length);
+    }
+}
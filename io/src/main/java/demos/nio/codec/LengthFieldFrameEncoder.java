@@ -0,0 +1,19 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Prefixes every payload with its length as a 4 byte big-endian int, the counterpart of
+ * {@link LengthFieldFrameDecoder}.
+ *
+ * @author https://github.com/gukt
+ */
+public class LengthFieldFrameEncoder implements FrameEncoder {
+
+    public static final LengthFieldFrameEncoder INSTANCE = new LengthFieldFrameEncoder();
+
+    @Override
+    public void encodeHeader(int length, ByteBuffer header) {
+        header.putInt(length);
+    }
+}
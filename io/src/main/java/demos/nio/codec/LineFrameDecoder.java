@@ -0,0 +1,47 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes frames terminated by {@code "\n"} or {@code "\r\n"}, the terminator is stripped.
+ *
+ * <p>Bytes that were already searched for a terminator are not searched again when more data
+ * arrives, so a long line spread across many reads is scanned only once.
+ *
+ * @author https://github.com/gukt
+ */
+public class LineFrameDecoder extends FrameDecoder {
+
+    private final int maxLength;
+    private int scanned; // bytes after the frame start known not to contain '\n'
+
+    public LineFrameDecoder(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    protected ByteBuffer decodeFrame(ByteBuffer buf) throws CorruptedFrameException {
+        int start = buf.position();
+        int limit = buf.limit();
+        for (int i = start + scanned; i < limit; i++) {
+            if (buf.get(i) == '\n') {
+                int length = i - start;
+                if (length > maxLength) {
+                    throw new CorruptedFrameException("Line exceeds " + maxLength + " bytes");
+                }
+                if (length > 0 && buf.get(i - 1) == '\r') {
+                    length--;
+                }
+                scanned = 0;
+                ByteBuffer frame = slice(buf, length);
+                buf.position(i + 1);
+                return frame;
+            }
+        }
+        scanned = limit - start;
+        if (scanned > maxLength) {
+            throw new CorruptedFrameException("Line exceeds " + maxLength + " bytes");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Terminates every payload with {@code "\n"}, the counterpart of {@link LineFrameDecoder}.
+ *
+ * @author https://github.com/gukt
+ */
+public class LineFrameEncoder implements FrameEncoder {
+
+    public static final LineFrameEncoder INSTANCE = new LineFrameEncoder();
+
+    @Override
+    public void encodeHeader(int length, ByteBuffer header) {
+    }
+
+    @Override
+    public void encodeTrailer(int length, ByteBuffer trailer) {
+        trailer.put((byte) '\n');
+    }
+}
@@ -0,0 +1,17 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Treats whatever a single read returned as one frame. This is what the servers did before they
+ * had framing, and it is only correct as long as every message fits in one TCP segment.
+ *
+ * @author https://github.com/gukt
+ */
+public class RawFrameDecoder extends FrameDecoder {
+
+    @Override
+    protected ByteBuffer decodeFrame(ByteBuffer buf) {
+        return slice(buf, buf.remaining());
+    }
+}
@@ -0,0 +1,55 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes frames prefixed with a base 128 varint length, the same framing protobuf uses for
+ * delimited messages.
+ *
+ * <pre>
+ * +--------+---------------+
+ * | Length | Protobuf Data |
+ * | 0xAC02 |  (300 bytes)  |
+ * +--------+---------------+
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class VarintFrameDecoder extends FrameDecoder {
+
+    private final int maxFrameLength;
+
+    public VarintFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected ByteBuffer decodeFrame(ByteBuffer buf) throws CorruptedFrameException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!buf.hasRemaining()) {
+                return null;
+            }
+            if (shift == 35) {
+                throw new CorruptedFrameException("Malformed varint length prefix");
+            }
+            byte b = buf.get();
+            if (shift == 28 && (b & 0xF0) != 0) {
+                // The fifth byte carries the top 4 bits of an int, and must end the prefix.
+                throw new CorruptedFrameException("Malformed varint length prefix");
+            }
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (length < 0 || length > maxFrameLength) {
+            throw new CorruptedFrameException(
+                    "Frame length " + length + " out of range [0, " + maxFrameLength + "]");
+        }
+        if (buf.remaining() < length) {
+            return null;
+        }
+        return slice(buf, length);
+    }
+}
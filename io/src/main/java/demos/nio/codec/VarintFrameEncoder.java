@@ -0,0 +1,24 @@
+package demos.nio.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Prefixes every payload with its length as a base 128 varint, the counterpart of
+ * {@link VarintFrameDecoder}.
+ *
+ * @author https://github.com/gukt
+ */
+public class VarintFrameEncoder implements FrameEncoder {
+
+    public static final VarintFrameEncoder INSTANCE = new VarintFrameEncoder();
+
+    @Override
+    public void encodeHeader(int length, ByteBuffer header) {
+        int value = length;
+        while ((value & ~0x7F) != 0) {
+            header.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        header.put((byte) value);
+    }
+}
@@ -0,0 +1,94 @@
+package demos.socket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the connection establishment rate of {@link TcpServer} with a single acceptor against
+ * {@code SO_REUSEPORT} listeners, one per reactor.
+ *
+ * <p>Every client thread connects, sends one byte, waits for the echo and closes, in a loop, so a
+ * connection counts only once the server has accepted it and handed it to a reactor that served
+ * it. Clients close with {@code SO_LINGER 0} so the run does not exhaust the ephemeral ports with
+ * sockets in {@code TIME_WAIT}.
+ *
+ * <pre>
+ *   java demos.socket.AcceptBenchmark [clients] [seconds] [maxReactors]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class AcceptBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    int maxReactors =
+        args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+    System.out.printf("clients=%d, duration=%ds%n", clients, seconds);
+    System.out.printf("%-10s %-12s %15s%n", "reactors", "accept", "conns/s");
+    for (int n = 1; n <= maxReactors; n *= 2) {
+      for (boolean reusePort : new boolean[] {false, true}) {
+        TcpServer server = new TcpServer(0).reactors(n).reusePort(reusePort);
+        server.start();
+        try {
+          double rate = run(server.port(), clients, seconds);
+          System.out.printf(
+              "%-10d %-12s %15.0f%n", n, reusePort ? "reuse-port" : "acceptor", rate);
+        } finally {
+          server.stop();
+        }
+      }
+    }
+  }
+
+  private static double run(int port, int clients, int seconds) throws InterruptedException {
+    InetSocketAddress address = new InetSocketAddress("localhost", port);
+    LongAdder connections = new LongAdder();
+    long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+    Thread[] threads = new Thread[clients];
+    for (int i = 0; i < clients; i++) {
+      threads[i] =
+          new Thread(
+              () -> {
+                ByteBuffer buf = ByteBuffer.allocate(1);
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                  try {
+                    connectOnce(address, buf);
+                    if (now >= warmupEnd) {
+                      connections.increment();
+                    }
+                  } catch (IOException e) {
+                    e.printStackTrace();
+                    return;
+                  }
+                }
+              },
+              "client-" + i);
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return connections.sum() / (double) seconds;
+  }
+
+  private static void connectOnce(InetSocketAddress address, ByteBuffer buf) throws IOException {
+    try (SocketChannel channel = SocketChannel.open(address)) {
+      channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+      channel.write(buf.clear().put((byte) 1).flip());
+      buf.clear();
+      if (channel.read(buf) < 0) {
+        throw new IOException("Connection closed by server");
+      }
+    }
+  }
+}
@@ -0,0 +1,415 @@
+package demos.socket;
+
+import demos.nio.ByteBufferPool;
+import demos.nio.TimerWheel;
+import demos.nio.codec.FrameDecoder;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A client connection, owned by one {@link Reactor}. This is what a {@link ConnectionHandler}
+ * gets to talk back to its peer.
+ *
+ * <p>Inbound bytes go through the connection's {@link FrameDecoder}, so a read may yield any
+ * number of frames. Responses are only queued by {@link #writeFrame(ByteBuffer)}; the reactor
+ * flushes the queue with gathering writes after the handler returns, so all responses to one read
+ * leave in a single syscall. A {@link FileRegion} may be queued between buffers, it is sent with
+ * {@code transferTo} instead, without copying the file through the heap. {@code OP_WRITE} is only
+ * registered while the socket could not take everything. When the queued bytes exceed the high
+ * watermark the connection becomes unwritable and stops reading, so a slow consumer pushes back on
+ * its own producer instead of stalling the reactor; it turns writable again once the queue drops
+ * below the low watermark.
+ *
+ * <p>Idle connections are evicted by timers on the reactor's {@link TimerWheel}. The timers are
+ * not moved on every read or write: each one only records activity in a field, and when a timer
+ * fires it either closes the connection or re-arms itself for the remaining time.
+ *
+ * <p>The public methods may be called from any thread, off the reactor thread they hand the work
+ * over to the reactor. Everything else must be called on the owning reactor's thread.
+ *
+ * @author https://github.com/gukt
+ */
+public class Connection {
+
+  private static final int MAX_GATHER = 64;
+  private static final int MIN_OUTBOUND_BUFFER = 4096;
+
+  private final Reactor reactor;
+  private final SocketChannel channel;
+  private final SelectionKey key;
+  private final ByteBufferPool pool;
+  private final int lowWaterMark;
+  private final int highWaterMark;
+  private final FrameDecoder decoder;
+  private final FrameDecoder.FrameHandler frameHandler;
+  private final TimerWheel.Timeout readIdleTimeout;
+  private final TimerWheel.Timeout writeIdleTimeout;
+  private final TimerWheel.Timeout lifetimeTimeout;
+  private final long readIdleNanos;
+  private final long writeIdleNanos;
+  private final long maxLifetimeNanos;
+  private long lastReadTime;
+  private long lastWriteTime;
+
+  // Buffers (kept flipped) and file regions, in the order they go out.
+  private final ArrayDeque<Object> outbound = new ArrayDeque<>();
+  private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+  private long pendingBytes;
+  private volatile boolean writable = true;
+  private boolean autoRead = true;
+  private boolean decoding;
+  private volatile boolean closed;
+  private volatile Object attachment;
+
+  Connection(Reactor reactor, SocketChannel channel, SelectionKey key, TcpServer server) {
+    this.reactor = reactor;
+    this.channel = channel;
+    this.key = key;
+    this.pool = server.bufferPool();
+    this.lowWaterMark = server.lowWaterMark();
+    this.highWaterMark = server.highWaterMark();
+    this.decoder = server.codec().newDecoder();
+    this.frameHandler =
+        frame -> {
+          // The handler may have closed the connection, skip the rest of this read.
+          if (!closed) {
+            reactor.frameReceived(this, frame);
+          }
+        };
+
+    TimerWheel wheel = reactor.timerWheel();
+    this.readIdleNanos = server.readIdleNanos();
+    this.writeIdleNanos = server.writeIdleNanos();
+    this.maxLifetimeNanos = server.maxLifetimeNanos();
+    this.readIdleTimeout = readIdleNanos > 0 ? wheel.newTimeout(this::checkReadIdle) : null;
+    this.writeIdleTimeout = writeIdleNanos > 0 ? wheel.newTimeout(this::checkWriteIdle) : null;
+    this.lifetimeTimeout =
+        maxLifetimeNanos > 0
+            ? wheel.newTimeout(() -> reactor.timedOut(this, "max lifetime reached"))
+            : null;
+  }
+
+  /** Arms the read-idle and lifetime timers, called once the channel is registered. */
+  void startTimers() {
+    long now = reactor.now();
+    lastReadTime = now;
+    if (readIdleTimeout != null) {
+      reactor.timerWheel().schedule(readIdleTimeout, now + readIdleNanos);
+    }
+    if (lifetimeTimeout != null) {
+      reactor.timerWheel().schedule(lifetimeTimeout, now + maxLifetimeNanos);
+    }
+  }
+
+  SelectionKey key() {
+    return key;
+  }
+
+  SocketChannel channel() {
+    return channel;
+  }
+
+  /** Bytes queued but not yet accepted by the socket. */
+  long pendingBytes() {
+    return pendingBytes;
+  }
+
+  /**
+   * {@code false} while the pending bytes are above the high watermark. Handlers that produce
+   * responses on their own (not in reply to a frame) should hold back until it turns true again.
+   */
+  public boolean isWritable() {
+    return writable;
+  }
+
+  public boolean isOpen() {
+    return !closed && channel.isOpen();
+  }
+
+  public SocketAddress remoteAddress() {
+    return channel.socket().getRemoteSocketAddress();
+  }
+
+  /** Per-connection state of the handler. */
+  public Object attachment() {
+    return attachment;
+  }
+
+  public void attach(Object attachment) {
+    this.attachment = attachment;
+  }
+
+  /** {@code true} on the thread of the reactor that owns this connection. */
+  public boolean inReactor() {
+    return reactor.inReactor();
+  }
+
+  /**
+   * Queues {@code payload} framed with the server's codec. On the reactor thread the payload is
+   * copied and goes out with the next flush; from any other thread a copy is handed to the reactor
+   * and flushed right away.
+   */
+  public void writeFrame(ByteBuffer payload) {
+    if (inReactor()) {
+      reactor.writeFrame(this, payload);
+      return;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(payload.remaining());
+    copy.put(payload.duplicate()).flip();
+    reactor.execute(
+        () -> {
+          if (isOpen()) {
+            reactor.writeFrame(this, copy);
+            reactor.flush(this);
+          }
+        });
+  }
+
+  /** Like {@link #writeFrame(ByteBuffer)}, the connection owns {@code region} from now on. */
+  void writeFrame(FileRegion region) {
+    if (inReactor()) {
+      reactor.writeFrame(this, region);
+      return;
+    }
+    reactor.execute(
+        () -> {
+          if (isOpen()) {
+            reactor.writeFrame(this, region);
+            reactor.flush(this);
+          } else {
+            region.release();
+          }
+        });
+  }
+
+  /** Stops or resumes reading from the socket. */
+  public void setAutoRead(boolean autoRead) {
+    reactor.execute(
+        () -> {
+          this.autoRead = autoRead;
+          setInterest(SelectionKey.OP_READ, autoRead && writable);
+        });
+  }
+
+  /** Closes the connection, queued data that has not been flushed yet is dropped. */
+  public void close() {
+    reactor.execute(() -> reactor.close(key));
+  }
+
+  /** Feeds freshly read bytes to the decoder, every complete frame goes to the handler. */
+  void read(ByteBuffer in) throws IOException {
+    lastReadTime = reactor.now();
+    decoding = true;
+    try {
+      decoder.decode(in, frameHandler);
+    } finally {
+      decoding = false;
+      if (closed) {
+        decoder.release();
+      }
+    }
+  }
+
+  /**
+   * Queues a copy of {@code src}, the caller may reuse it as soon as this returns. Nothing is sent
+   * before the next {@link #flush()}.
+   *
+   * @return {@link #isWritable()} after the write
+   */
+  boolean write(ByteBuffer src) {
+    if (!src.hasRemaining()) {
+      return writable;
+    }
+    startWriteIdleClock();
+    enqueue(src);
+    return updateWritability();
+  }
+
+  /**
+   * Queues {@code region}, the connection owns it from now on and releases it once sent or when
+   * the connection closes. A large region makes the connection unwritable right away, so no more
+   * requests are read until most of it has gone out.
+   *
+   * @return {@link #isWritable()} after the write
+   */
+  boolean write(FileRegion region) {
+    if (!region.hasRemaining()) {
+      region.release();
+      return writable;
+    }
+    startWriteIdleClock();
+    outbound.addLast(region);
+    pendingBytes += region.remaining();
+    return updateWritability();
+  }
+
+  /** Drains the outbound queue with gathering writes until it is empty or the socket is full. */
+  void flush() throws IOException {
+    while (!outbound.isEmpty()) {
+      long written;
+      Object head = outbound.peekFirst();
+      if (head instanceof FileRegion) {
+        FileRegion region = (FileRegion) head;
+        written = region.transferTo(channel);
+        if (!region.hasRemaining()) {
+          outbound.pollFirst();
+          region.release();
+        }
+      } else {
+        // Gather the buffers up to the next file region.
+        int count = 0;
+        for (Object msg : outbound) {
+          if (!(msg instanceof ByteBuffer) || count == MAX_GATHER) {
+            break;
+          }
+          gather[count++] = (ByteBuffer) msg;
+        }
+        written = channel.write(gather, 0, count);
+        while (outbound.peekFirst() instanceof ByteBuffer
+            && !((ByteBuffer) outbound.peekFirst()).hasRemaining()) {
+          pool.release((ByteBuffer) outbound.pollFirst());
+        }
+        Arrays.fill(gather, 0, count, null);
+      }
+      pendingBytes -= written;
+      if (written > 0) {
+        lastWriteTime = reactor.now();
+      }
+      if (written == 0) {
+        break; // Socket buffer is full, wait for OP_WRITE.
+      }
+    }
+    setInterest(SelectionKey.OP_WRITE, !outbound.isEmpty());
+    if (!writable && pendingBytes < lowWaterMark) {
+      setWritable(true);
+    }
+  }
+
+  /**
+   * Releases everything the connection holds.
+   *
+   * @return {@code false} if it was already closed
+   */
+  boolean doClose() {
+    if (closed) {
+      return false;
+    }
+    closed = true;
+    key.cancel();
+    cancel(readIdleTimeout);
+    cancel(writeIdleTimeout);
+    cancel(lifetimeTimeout);
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    }
+    for (Object msg; (msg = outbound.pollFirst()) != null; ) {
+      if (msg instanceof FileRegion) {
+        ((FileRegion) msg).release();
+      } else {
+        pool.release((ByteBuffer) msg);
+      }
+    }
+    pendingBytes = 0;
+    if (!decoding) {
+      decoder.release(); // Otherwise read() releases it once the decoder is done.
+    }
+    return true;
+  }
+
+  private void checkReadIdle() {
+    long deadline = lastReadTime + readIdleNanos;
+    if (deadline - reactor.now() <= 0) {
+      reactor.timedOut(this, "read idle");
+    } else {
+      reactor.timerWheel().schedule(readIdleTimeout, deadline);
+    }
+  }
+
+  /** Data has been waiting but the socket has not accepted a byte of it for the whole period. */
+  private void checkWriteIdle() {
+    if (outbound.isEmpty()) {
+      return; // Re-armed by the next write that has to queue.
+    }
+    long deadline = lastWriteTime + writeIdleNanos;
+    if (deadline - reactor.now() <= 0) {
+      reactor.timedOut(this, "write idle");
+    } else {
+      reactor.timerWheel().schedule(writeIdleTimeout, deadline);
+    }
+  }
+
+  private void startWriteIdleClock() {
+    if (outbound.isEmpty()) {
+      // The write-idle clock starts when data starts waiting for the socket.
+      lastWriteTime = reactor.now();
+      if (writeIdleTimeout != null && !writeIdleTimeout.isScheduled()) {
+        reactor.timerWheel().schedule(writeIdleTimeout, lastWriteTime + writeIdleNanos);
+      }
+    }
+  }
+
+  private boolean updateWritability() {
+    if (writable && pendingBytes > highWaterMark) {
+      setWritable(false);
+    }
+    return writable;
+  }
+
+  private static void cancel(TimerWheel.Timeout timeout) {
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
+  private void setWritable(boolean writable) {
+    this.writable = writable;
+    // The echo producer is the read side, pause it while the peer is not keeping up.
+    setInterest(SelectionKey.OP_READ, autoRead && writable);
+    reactor.writabilityChanged(this);
+  }
+
+  private void enqueue(ByteBuffer src) {
+    pendingBytes += src.remaining();
+
+    // Top up the tail buffer first, queued buffers are kept flipped (ready for draining).
+    Object last = outbound.peekLast();
+    ByteBuffer tail = last instanceof ByteBuffer ? (ByteBuffer) last : null;
+    if (tail != null && tail.limit() < tail.capacity()) {
+      ByteBuffer dup = tail.duplicate();
+      dup.limit(tail.capacity()).position(tail.limit());
+      copy(src, dup);
+      tail.limit(dup.position());
+    }
+    while (src.hasRemaining()) {
+      ByteBuffer buf = pool.acquire(Math.max(MIN_OUTBOUND_BUFFER, src.remaining()));
+      copy(src, buf);
+      buf.flip();
+      outbound.addLast(buf);
+    }
+  }
+
+  private static void copy(ByteBuffer src, ByteBuffer dst) {
+    int n = Math.min(src.remaining(), dst.remaining());
+    ByteBuffer slice = src.duplicate();
+    slice.limit(slice.position() + n);
+    dst.put(slice);
+    src.position(src.position() + n);
+  }
+
+  private void setInterest(int op, boolean on) {
+    if (!key.isValid()) {
+      return;
+    }
+    int ops = key.interestOps();
+    int newOps = on ? ops | op : ops & ~op;
+    if (newOps != ops) {
+      key.interestOps(newOps);
+    }
+  }
+}
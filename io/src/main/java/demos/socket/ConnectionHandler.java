@@ -0,0 +1,42 @@
+package demos.socket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Application logic of a {@link TcpServer}, one instance is shared by all connections.
+ *
+ * <p>Every callback runs on the thread of the reactor that owns the connection, so the callbacks
+ * of one connection never overlap, but callbacks of connections on different reactors do: keep
+ * per-connection state in {@link Connection#attach(Object)}, not in fields. A callback blocks the
+ * whole reactor while it runs; wrap slow handlers in an {@link OffloadingHandler}.
+ *
+ * <p>Responses are queued with {@link Connection#writeFrame(ByteBuffer)} and flushed by the
+ * reactor once the callback returns.
+ *
+ * @author https://github.com/gukt
+ */
+public interface ConnectionHandler {
+
+  /** The connection has been registered with its reactor. */
+  default void connectionOpened(Connection connection) {}
+
+  /**
+   * A complete frame has been decoded. {@code frame} is a view of the reactor's read buffer, it is
+   * only valid until this method returns; copy what has to outlive the call.
+   */
+  void frameReceived(Connection connection, ByteBuffer frame);
+
+  /** The connection crossed its high or low watermark, see {@link Connection#isWritable()}. */
+  default void writabilityChanged(Connection connection) {}
+
+  /**
+   * A read-idle, write-idle or lifetime timeout fired. The default closes the connection, a handler
+   * may send something first or keep the connection open (e.g. send a ping on read idle).
+   */
+  default void timedOut(Connection connection, String reason) {
+    connection.close();
+  }
+
+  /** The connection has been closed, by either side. Called exactly once. */
+  default void connectionClosed(Connection connection) {}
+}
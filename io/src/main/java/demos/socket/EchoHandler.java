@@ -0,0 +1,103 @@
+package demos.socket;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The default {@link ConnectionHandler}: echoes every frame back, framed with the server's codec.
+ *
+ * <p>With a file root, a frame {@code FILE <path> [offset [length]]} is answered with that region
+ * of a file below the root instead. The file content never enters the heap, it is queued as a
+ * {@link FileRegion} and sent with {@code transferTo}. Bad requests get {@code ERR <reason>}.
+ *
+ * @author https://github.com/gukt
+ */
+public class EchoHandler implements ConnectionHandler {
+
+  private static final byte[] FILE_COMMAND = "FILE ".getBytes(StandardCharsets.US_ASCII);
+
+  private final Path fileRoot;
+
+  /** Echoes everything, no file serving. */
+  public EchoHandler() {
+    this.fileRoot = null;
+  }
+
+  public EchoHandler(Path fileRoot) throws IOException {
+    // Compared against real paths, so links cannot lead out of the root.
+    this.fileRoot = fileRoot.toRealPath();
+  }
+
+  @Override
+  public void frameReceived(Connection connection, ByteBuffer frame) {
+    if (TcpServer.VERBOSE) {
+      System.out.println(StandardCharsets.UTF_8.decode(frame.duplicate()));
+    }
+    if (fileRoot != null && startsWith(frame, FILE_COMMAND)) {
+      serveFile(connection, StandardCharsets.UTF_8.decode(frame).toString());
+      return;
+    }
+    connection.writeFrame(frame);
+  }
+
+  private void serveFile(Connection connection, String request) {
+    FileRegion region;
+    try {
+      region = openRegion(request.trim().split("\\s+"));
+    } catch (IOException | IllegalArgumentException e) {
+      connection.writeFrame(StandardCharsets.UTF_8.encode("ERR " + e.getMessage()));
+      return;
+    }
+    connection.writeFrame(region);
+  }
+
+  private FileRegion openRegion(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 4) {
+      throw new IllegalArgumentException("usage: FILE <path> [offset [length]]");
+    }
+    // Resolve links before the check, a link must not lead out of the root either.
+    Path path;
+    try {
+      path = fileRoot.resolve(args[1]).toRealPath();
+    } catch (NoSuchFileException e) {
+      throw new NoSuchFileException(args[1], null, "no such file");
+    }
+    if (!path.startsWith(fileRoot) || !path.toFile().isFile()) {
+      throw new NoSuchFileException(args[1], null, "no such file");
+    }
+    FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long size = file.size();
+      long offset = args.length > 2 ? Long.parseLong(args[2]) : 0;
+      long length = args.length > 3 ? Long.parseLong(args[3]) : size - offset;
+      if (offset < 0 || offset > size || length < 0) {
+        throw new IllegalArgumentException("region out of range, file size: " + size);
+      }
+      length = Math.min(length, size - offset);
+      if (length > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("region too large, max length: " + Integer.MAX_VALUE);
+      }
+      return new FileRegion(file, offset, length);
+    } catch (RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  private static boolean startsWith(ByteBuffer buf, byte[] prefix) {
+    if (buf.remaining() < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (buf.get(buf.position() + i) != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
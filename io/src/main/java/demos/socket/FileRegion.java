@@ -0,0 +1,63 @@
+package demos.socket;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A part of a file queued on a {@link Connection}, sent with {@link FileChannel#transferTo} so
+ * the bytes go from the page cache to the socket without ever being copied into the JVM.
+ *
+ * <p>A non-blocking socket may take only part of the region per call, the region remembers how
+ * far it got and the next {@link Connection#flush()} resumes from there.
+ *
+ * @author https://github.com/gukt
+ */
+class FileRegion {
+
+  private final FileChannel file;
+  private final long position;
+  private final long count;
+  private long transferred;
+
+  /** Takes ownership of {@code file}, it is closed by {@link #release()}. */
+  FileRegion(FileChannel file, long position, long count) {
+    this.file = file;
+    this.position = position;
+    this.count = count;
+  }
+
+  long count() {
+    return count;
+  }
+
+  long remaining() {
+    return count - transferred;
+  }
+
+  boolean hasRemaining() {
+    return transferred < count;
+  }
+
+  /**
+   * Transfers as much of the rest of the region as {@code target} accepts right now.
+   *
+   * @return the number of bytes written, {@code 0} if the socket buffer is full
+   */
+  long transferTo(WritableByteChannel target) throws IOException {
+    long written = file.transferTo(position + transferred, count - transferred, target);
+    if (written == 0 && position + transferred >= file.size()) {
+      // transferTo does not fail on a short file, it just stops moving bytes.
+      throw new IOException("File truncated while being sent: " + file);
+    }
+    transferred += written;
+    return written;
+  }
+
+  void release() {
+    try {
+      file.close();
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package demos.socket;
+
+import demos.bench.LoadGenerator;
+import demos.nio.codec.FrameCodec;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares running a {@link ConnectionHandler} inline on the reactor threads with offloading it
+ * to a worker pool through an {@link OffloadingHandler}, for three kinds of handlers:
+ *
+ * <ul>
+ *   <li>{@code trivial}: a plain echo, offloading only adds the handoffs and the copy;
+ *   <li>{@code cpu}: spins for {@code workMicros} before echoing;
+ *   <li>{@code blocking}: parks for {@code workMicros}, like a handler calling a database.
+ * </ul>
+ *
+ * <pre>
+ *   java demos.socket.HandlerBenchmark [connections] [seconds] [reactors] [workers] [workMicros]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class HandlerBenchmark {
+
+  private enum Work {
+    TRIVIAL,
+    CPU,
+    BLOCKING
+  }
+
+  /** Does its share of work, then echoes the frame. */
+  private static class WorkHandler implements ConnectionHandler {
+    private final Work work;
+    private final long workNanos;
+
+    WorkHandler(Work work, long workNanos) {
+      this.work = work;
+      this.workNanos = workNanos;
+    }
+
+    @Override
+    public void frameReceived(Connection connection, ByteBuffer frame) {
+      if (work == Work.CPU) {
+        long until = System.nanoTime() + workNanos;
+        while (System.nanoTime() < until) {
+          Thread.onSpinWait();
+        }
+      } else if (work == Work.BLOCKING) {
+        LockSupport.parkNanos(workNanos);
+      }
+      connection.writeFrame(frame);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    int reactors = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+    int workers = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+    long workNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 4 ? Long.parseLong(args[4]) : 50);
+
+    System.out.printf(
+        "connections=%d, reactors=%d, workers=%d, work=%dus%n",
+        connections, reactors, workers, TimeUnit.NANOSECONDS.toMicros(workNanos));
+    System.out.printf(
+        "%-10s %-8s %12s %12s %12s%n", "handler", "mode", "msgs/s", "p50(us)", "p99(us)");
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    try {
+      for (Work work : Work.values()) {
+        for (boolean offload : new boolean[] {false, true}) {
+          ConnectionHandler handler = new WorkHandler(work, workNanos);
+          if (offload) {
+            handler = new OffloadingHandler(handler, pool);
+          }
+          TcpServer server =
+              new TcpServer(0)
+                  .reactors(reactors)
+                  .codec(FrameCodec.lengthPrefixed())
+                  .handler(handler);
+          server.start();
+          try {
+            LoadGenerator.Result result =
+                new LoadGenerator()
+                    .port(server.port())
+                    .connections(connections)
+                    .warmup(1, TimeUnit.SECONDS)
+                    .duration(seconds, TimeUnit.SECONDS)
+                    .run();
+            System.out.printf(
+                "%-10s %-8s %12.0f %12.1f %12.1f%n",
+                work.name().toLowerCase(),
+                offload ? "offload" : "inline",
+                result.messagesPerSecond(),
+                result.histogram().valueAtPercentile(50) / 1000.0,
+                result.histogram().valueAtPercentile(99) / 1000.0);
+          } finally {
+            server.stop();
+          }
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
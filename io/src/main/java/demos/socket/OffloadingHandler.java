@@ -0,0 +1,140 @@
+package demos.socket;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs another {@link ConnectionHandler} on an {@link Executor} instead of the reactor thread, for
+ * handlers that block or burn enough CPU to stall every other connection of their reactor.
+ *
+ * <p>The events of one connection still reach the delegate one at a time and in order, they just
+ * run on a worker thread. Each frame is copied before it is handed over, and the responses the
+ * delegate writes hop back to the reactor, so offloading costs two thread handoffs and a copy per
+ * frame: worth it for slow handlers, pure overhead for fast ones (see {@code
+ * HandlerBenchmark}). When the delegate falls more than {@code maxPendingEvents} events behind on
+ * a connection, the connection stops reading until the backlog is halved.
+ *
+ * @author https://github.com/gukt
+ */
+public class OffloadingHandler implements ConnectionHandler {
+
+  private static final int DEFAULT_MAX_PENDING_EVENTS = 1024;
+  /** Events run per turn, so one busy connection does not keep a worker for itself. */
+  private static final int MAX_EVENTS_PER_RUN = 16;
+
+  private final ConnectionHandler delegate;
+  private final Executor executor;
+  private final int maxPendingEvents;
+  private final Map<Connection, SerialQueue> queues = new ConcurrentHashMap<>();
+
+  public OffloadingHandler(ConnectionHandler delegate, Executor executor) {
+    this(delegate, executor, DEFAULT_MAX_PENDING_EVENTS);
+  }
+
+  public OffloadingHandler(ConnectionHandler delegate, Executor executor, int maxPendingEvents) {
+    if (maxPendingEvents < 1) {
+      throw new IllegalArgumentException(
+          "maxPendingEvents: " + maxPendingEvents + " (expected: > 0)");
+    }
+    this.delegate = delegate;
+    this.executor = executor;
+    this.maxPendingEvents = maxPendingEvents;
+  }
+
+  @Override
+  public void connectionOpened(Connection connection) {
+    SerialQueue queue = new SerialQueue(connection);
+    queues.put(connection, queue);
+    queue.submit(() -> delegate.connectionOpened(connection));
+  }
+
+  @Override
+  public void frameReceived(Connection connection, ByteBuffer frame) {
+    ByteBuffer copy = ByteBuffer.allocate(frame.remaining());
+    copy.put(frame.duplicate()).flip();
+    submit(connection, () -> delegate.frameReceived(connection, copy));
+  }
+
+  @Override
+  public void writabilityChanged(Connection connection) {
+    submit(connection, () -> delegate.writabilityChanged(connection));
+  }
+
+  @Override
+  public void timedOut(Connection connection, String reason) {
+    submit(connection, () -> delegate.timedOut(connection, reason));
+  }
+
+  @Override
+  public void connectionClosed(Connection connection) {
+    SerialQueue queue = queues.remove(connection);
+    if (queue != null) {
+      queue.submit(() -> delegate.connectionClosed(connection));
+    }
+  }
+
+  private void submit(Connection connection, Runnable event) {
+    SerialQueue queue = queues.get(connection);
+    if (queue != null) {
+      queue.submit(event);
+    }
+  }
+
+  /** The events of one connection, run by at most one worker at a time. */
+  private class SerialQueue implements Runnable {
+    private final Connection connection;
+    private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    SerialQueue(Connection connection) {
+      this.connection = connection;
+    }
+
+    /** Called on the reactor thread. */
+    void submit(Runnable event) {
+      events.add(event);
+      if (pending.incrementAndGet() > maxPendingEvents && paused.compareAndSet(false, true)) {
+        connection.setAutoRead(false);
+      }
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        Runnable event;
+        for (int i = 0; i < MAX_EVENTS_PER_RUN && (event = events.poll()) != null; i++) {
+          try {
+            event.run();
+          } catch (RuntimeException e) {
+            e.printStackTrace();
+            connection.close();
+          }
+          if (pending.decrementAndGet() <= maxPendingEvents / 2
+              && paused.compareAndSet(true, false)) {
+            connection.setAutoRead(true);
+          }
+        }
+      } finally {
+        scheduled.set(false);
+        if (!events.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
+}
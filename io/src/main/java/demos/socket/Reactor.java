@@ -0,0 +1,345 @@
+package demos.socket;
+
+import demos.nio.ByteBufferPool;
+import demos.nio.TimerWheel;
+import demos.nio.codec.FrameEncoder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A selector thread that owns a subset of the server's connections.
+ *
+ * <p>Every channel is registered with exactly one reactor and all of its I/O happens on that
+ * reactor's thread, so no locking is needed on the per-connection state. Other threads talk to a
+ * reactor only through {@link #execute(Runnable)}.
+ *
+ * <p>Every event of a connection is passed to the server's {@link ConnectionHandler} right on the
+ * reactor thread, the reactor flushes whatever the handler queued once it returns.
+ *
+ * <p>Connection timeouts live on the reactor's {@link TimerWheel}: the select timeout is capped at
+ * the next tick and expired timers run right after the selected keys, on the same thread.
+ *
+ * @author https://github.com/gukt
+ */
+class Reactor implements Runnable {
+
+  private static final long TICK_MILLIS = 100;
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private final TcpServer server;
+  private final ByteBufferPool pool;
+  private final FrameEncoder encoder;
+  private final ConnectionHandler handler;
+  private final ByteBuffer header = ByteBuffer.allocate(FrameEncoder.MAX_OVERHEAD);
+  private final ByteBuffer trailer = ByteBuffer.allocate(FrameEncoder.MAX_OVERHEAD);
+  private final String name;
+  private final Selector selector;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean wakenUp = new AtomicBoolean();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final TimerWheel timerWheel =
+      new TimerWheel(TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+  private long now = System.nanoTime();
+  private volatile boolean running = true;
+  private Thread thread;
+
+  Reactor(TcpServer server, String name) throws IOException {
+    this.server = server;
+    this.pool = server.bufferPool();
+    this.encoder = server.codec().encoder();
+    this.handler = server.handler();
+    this.name = name;
+    this.selector = Selector.open();
+  }
+
+  Selector selector() {
+    return selector;
+  }
+
+  /** Number of connections owned by this reactor, including the ones waiting to be registered. */
+  int connectionCount() {
+    return connections.get();
+  }
+
+  void start() {
+    thread = new Thread(this, name);
+    thread.start();
+  }
+
+  void stop() {
+    running = false;
+    selector.wakeup();
+  }
+
+  void join() throws InterruptedException {
+    if (thread != null) {
+      thread.join();
+    }
+  }
+
+  TimerWheel timerWheel() {
+    return timerWheel;
+  }
+
+  /** {@link System#nanoTime()} as of the current loop iteration, cheap enough for every read. */
+  long now() {
+    return now;
+  }
+
+  boolean inReactor() {
+    return Thread.currentThread() == thread;
+  }
+
+  /** Runs the task on the reactor thread, waking the selector up if necessary. */
+  void execute(Runnable task) {
+    if (inReactor()) {
+      task.run();
+      return;
+    }
+    tasks.add(task);
+    if (wakenUp.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  /** Hands an accepted channel over to this reactor. Safe to call from any thread. */
+  void register(SocketChannel channel) {
+    connections.incrementAndGet();
+    execute(
+        () -> {
+          try {
+            channel.configureBlocking(false);
+            // No read buffer per connection: an idle connection costs its key and an empty queue.
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Connection connection = new Connection(this, channel, key, server);
+            key.attach(connection);
+            connection.startTimers();
+            try {
+              handler.connectionOpened(connection);
+            } catch (RuntimeException e) {
+              e.printStackTrace();
+              close(key);
+              return;
+            }
+            flush(connection);
+          } catch (IOException e) {
+            e.printStackTrace();
+            closeChannel(channel);
+          }
+        });
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (running) {
+        wakenUp.set(false);
+        long timeout = timerWheel.nanosToNextTick(System.nanoTime());
+        if (!tasks.isEmpty() || timeout == 0) {
+          selector.selectNow();
+        } else if (timeout < 0) {
+          selector.select();
+        } else {
+          selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeout)));
+        }
+        now = System.nanoTime();
+        processSelectedKeys();
+        timerWheel.expire(now);
+        runTasks();
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      if (running) {
+        e.printStackTrace();
+      }
+    } finally {
+      closeAll();
+    }
+  }
+
+  private void processSelectedKeys() {
+    for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+      SelectionKey key = it.next();
+      it.remove();
+      try {
+        if (!key.isValid()) {
+          continue;
+        }
+        if (key.isAcceptable()) {
+          server.handleAccept(this, key);
+          continue;
+        }
+        // A key can be readable and writable at once, serve both.
+        if (key.isReadable()) {
+          handleRead(key);
+        }
+        if (key.isValid() && key.isWritable()) {
+          handleWrite(key);
+        }
+      } catch (IOException e) {
+        if (TcpServer.VERBOSE) {
+          e.printStackTrace();
+        }
+        close(key);
+      } catch (RuntimeException e) {
+        // A failing handler costs its own connection, not the reactor.
+        e.printStackTrace();
+        close(key);
+      }
+    }
+  }
+
+  private void runTasks() {
+    for (Runnable task; (task = tasks.poll()) != null; ) {
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private void handleWrite(SelectionKey key) throws IOException {
+    ((Connection) key.attachment()).flush();
+  }
+
+  void frameReceived(Connection connection, ByteBuffer frame) {
+    handler.frameReceived(connection, frame);
+  }
+
+  /** Queues {@code payload} on {@code connection}, framed with the server's encoder. */
+  void writeFrame(Connection connection, ByteBuffer payload) {
+    header.clear();
+    encoder.encodeHeader(payload.remaining(), header);
+    trailer.clear();
+    encoder.encodeTrailer(payload.remaining(), trailer);
+    connection.write(header.flip());
+    connection.write(payload);
+    connection.write(trailer.flip());
+  }
+
+  void writeFrame(Connection connection, FileRegion region) {
+    // Frames carry an int length, bigger files have to be sent in ranges.
+    int length = (int) region.count();
+    header.clear();
+    encoder.encodeHeader(length, header);
+    trailer.clear();
+    encoder.encodeTrailer(length, trailer);
+    connection.write(header.flip());
+    connection.write(region);
+    connection.write(trailer.flip());
+  }
+
+  /** Flushes {@code connection} if it is still open, closing it if the write fails. */
+  void flush(Connection connection) {
+    if (!connection.isOpen()) {
+      return;
+    }
+    try {
+      connection.flush();
+    } catch (IOException e) {
+      if (TcpServer.VERBOSE) {
+        e.printStackTrace();
+      }
+      close(connection.key());
+    }
+  }
+
+  /** Called by a connection's timer when it has been idle for too long. */
+  void timedOut(Connection connection, String reason) {
+    if (TcpServer.VERBOSE) {
+      System.out.println(name + " closing " + connection.channel() + ": " + reason);
+    }
+    try {
+      handler.timedOut(connection, reason);
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+      close(connection.key());
+    }
+    flush(connection);
+  }
+
+  /** Called when a connection crosses its high or low watermark. */
+  void writabilityChanged(Connection connection) {
+    if (TcpServer.VERBOSE) {
+      System.out.println(
+          name + " " + connection.channel() + " writable: " + connection.isWritable()
+              + ", pending: " + connection.pendingBytes());
+    }
+    handler.writabilityChanged(connection);
+  }
+
+  private void handleRead(SelectionKey key) throws IOException {
+    if (TcpServer.VERBOSE) {
+      System.out.println(name + " handleRead: " + key);
+    }
+
+    Connection connection = (Connection) key.attachment();
+    SocketChannel channel = connection.channel();
+    ByteBuffer buf = pool.acquire(TcpServer.DEFAULT_RCV_BUFFER_CAPACITY);
+    try {
+      int bytesRead = channel.read(buf);
+      if (bytesRead > 0) {
+        buf.flip();
+        // One read may carry many pipelined frames, their responses leave in one flush.
+        connection.read(buf);
+        flush(connection);
+      } else if (bytesRead < 0) {
+        if (TcpServer.VERBOSE) {
+          System.out.println("关闭的连接");
+        }
+        close(key);
+      }
+    } finally {
+      pool.release(buf);
+    }
+  }
+
+  void close(SelectionKey key) {
+    if (key.attachment() instanceof Connection) {
+      Connection connection = (Connection) key.attachment();
+      if (connection.doClose()) {
+        connections.decrementAndGet();
+        try {
+          handler.connectionClosed(connection);
+        } catch (RuntimeException e) {
+          e.printStackTrace();
+        }
+      }
+    } else {
+      key.cancel();
+      try {
+        key.channel().close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private void closeChannel(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    } finally {
+      connections.decrementAndGet();
+    }
+  }
+
+  private void closeAll() {
+    for (SelectionKey key : selector.keys()) {
+      close(key);
+    }
+    try {
+      selector.close();
+    } catch (IOException ignored) {
+    }
+  }
+}
@@ -1,110 +1,317 @@
 package demos.socket;
 
+import demos.nio.ByteBufferPool;
+import demos.nio.codec.FrameCodec;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
+import java.net.StandardSocketOptions;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.Iterator;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Application class
  *
+ * <p>By default a single selector thread accepts and serves every connection. With {@code
+ * reactors(n)} the server switches to multi-reactor mode: the acceptor only accepts, and hands
+ * every new {@link SocketChannel} to one of {@code n} {@link Reactor}s, each running its own
+ * {@link java.nio.channels.Selector} on its own thread.
+ *
+ * <p>A single acceptor still accepts every connection on one thread. With {@code reusePort(true)}
+ * there is no acceptor: every reactor binds its own listening channel to the same port with {@code
+ * SO_REUSEPORT}, the kernel spreads incoming connections over the listeners, and each reactor
+ * serves what it accepted itself.
+ *
  * @author https://github.com/gukt
  */
 public class TcpServer {
 
-  private static final int DEFAULT_SND_BUFFER_CAPACITY = 1024;
-  private static final int DEFAULT_RCV_BUFFER_CAPACITY = 1024;
+  static final int DEFAULT_RCV_BUFFER_CAPACITY = 1024;
+  static final boolean VERBOSE = System.getProperty("verbose") != null;
   private static final int DEFAULT_PORT = 8000;
-  private int port;
+  private static final int DEFAULT_LOW_WATER_MARK = 32 * 1024;
+  private static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+  /** How the acceptor picks the reactor for a newly accepted connection. */
+  public enum Balance {
+    ROUND_ROBIN,
+    LEAST_LOADED
+  }
+
+  private final int port;
+  private int reactorCount;
+  private Balance balance = Balance.ROUND_ROBIN;
+  private ByteBufferPool bufferPool = ByteBufferPool.DEFAULT;
+  private int lowWaterMark = DEFAULT_LOW_WATER_MARK;
+  private int highWaterMark = DEFAULT_HIGH_WATER_MARK;
+  private FrameCodec codec = FrameCodec.raw();
+  private long readIdleNanos;
+  private long writeIdleNanos;
+  private long maxLifetimeNanos;
+  private Path fileRoot;
+  private ConnectionHandler handler;
+  private boolean reusePort;
 
-  private TcpServer() {
+  private ServerSocketChannel serverSocketChannel;
+  private Reactor acceptor; // null with reusePort
+  private Reactor[] reactors;
+  private int next;
+
+  public TcpServer() {
     this(DEFAULT_PORT);
   }
 
-  private TcpServer(int port) {
+  public TcpServer(int port) {
     this.port = port;
   }
 
-  private void start() throws IOException {
+  /**
+   * Serves connections on {@code n} dedicated selector threads. {@code 0} (the default) keeps the
+   * classic single-reactor mode where the acceptor thread also does all of the I/O.
+   */
+  public TcpServer reactors(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("reactors: " + n + " (expected: >= 0)");
+    }
+    this.reactorCount = n;
+    return this;
+  }
+
+  /**
+   * Gives every reactor its own {@code SO_REUSEPORT} listener instead of sharing one acceptor, so
+   * accepting scales with the reactors too. Balancing is then up to the kernel, which hashes
+   * connections over the listeners. Needs Linux 3.9+ or a BSD, {@link #start()} fails where the
+   * option is not supported.
+   */
+  public TcpServer reusePort(boolean reusePort) {
+    this.reusePort = reusePort;
+    return this;
+  }
+
+  public TcpServer balance(Balance balance) {
+    this.balance = balance;
+    return this;
+  }
+
+  /** Pool the reactors borrow their read buffers from, shared by all reactors. */
+  public TcpServer bufferPool(ByteBufferPool bufferPool) {
+    this.bufferPool = bufferPool;
+    return this;
+  }
+
+  ByteBufferPool bufferPool() {
+    return bufferPool;
+  }
+
+  /**
+   * Once more than {@code high} bytes are queued for a connection it stops reading until the
+   * queue drains below {@code low}.
+   */
+  public TcpServer writeBufferWaterMark(int low, int high) {
+    if (low < 0 || high < low) {
+      throw new IllegalArgumentException(
+          "writeBufferWaterMark: [" + low + ", " + high + "] (expected: 0 <= low <= high)");
+    }
+    this.lowWaterMark = low;
+    this.highWaterMark = high;
+    return this;
+  }
+
+  /** How inbound bytes are split into frames and how responses are framed, raw by default. */
+  public TcpServer codec(FrameCodec codec) {
+    this.codec = codec;
+    return this;
+  }
+
+  FrameCodec codec() {
+    return codec;
+  }
+
+  /** Closes connections that have not sent anything for {@code timeout}, {@code 0} disables. */
+  public TcpServer readIdleTimeout(long timeout, TimeUnit unit) {
+    this.readIdleNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * Closes connections whose queued responses have not been accepted by the socket for {@code
+   * timeout}, i.e. peers that stopped reading. {@code 0} disables.
+   */
+  public TcpServer writeIdleTimeout(long timeout, TimeUnit unit) {
+    this.writeIdleNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /** Closes every connection {@code timeout} after it was accepted, {@code 0} disables. */
+  public TcpServer maxLifetime(long timeout, TimeUnit unit) {
+    this.maxLifetimeNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * What the server does with the connections, shared by all of them. By default every frame is
+   * echoed back by an {@link EchoHandler}.
+   */
+  public TcpServer handler(ConnectionHandler handler) {
+    this.handler = handler;
+    return this;
+  }
+
+  ConnectionHandler handler() {
+    return handler;
+  }
+
+  /**
+   * Lets the default {@link EchoHandler} serve the files below {@code root}: a request frame
+   * {@code FILE <path> [offset [length]]} is answered with that region of the file, streamed with
+   * {@code FileChannel.transferTo} so it is never copied into the JVM. Paths are relative to the
+   * root and cannot leave it. Pick the {@code length} or {@code varint} codec for binary files,
+   * the client then knows where the file ends. Ignored when a custom {@link #handler} is set.
+   */
+  public TcpServer fileRoot(Path root) {
+    this.fileRoot = root;
+    return this;
+  }
+
+  long readIdleNanos() {
+    return readIdleNanos;
+  }
+
+  long writeIdleNanos() {
+    return writeIdleNanos;
+  }
+
+  long maxLifetimeNanos() {
+    return maxLifetimeNanos;
+  }
+
+  int lowWaterMark() {
+    return lowWaterMark;
+  }
+
+  int highWaterMark() {
+    return highWaterMark;
+  }
+
+  public int port() {
+    return serverSocketChannel == null ? port : serverSocketChannel.socket().getLocalPort();
+  }
+
+  public void start() throws IOException {
     System.out.println("Starting socket server...");
-    ServerSocketChannel serverSocketChannel = ServerSocketChannel.open(); // (1)
-    serverSocketChannel.configureBlocking(false); // (2)
-    serverSocketChannel.bind(new InetSocketAddress(port)); // (3)
-    Selector selector = Selector.open(); // (4)
-    serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT); // (5)
-    System.out.println("Started, listening on " + port);
-
-    while (selector.select() > 0) {
-      for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
-        SelectionKey key = it.next();
-        it.remove();
-        if (key.isAcceptable()) {
-          handleAccept(key);
-        } else if (key.isReadable()) {
-          handleRead(key);
-        } else if (key.isWritable()) {
-          handleWrite(key);
-        } else if (key.isConnectable()) {
-          handleConnect(key);
-        }
+    if (handler == null) {
+      handler = fileRoot == null ? new EchoHandler() : new EchoHandler(fileRoot);
+    }
+    if (reusePort) {
+      startListeners();
+    } else {
+      serverSocketChannel = ServerSocketChannel.open(); // (1)
+      serverSocketChannel.configureBlocking(false); // (2)
+      serverSocketChannel.bind(new InetSocketAddress(port)); // (3)
+
+      acceptor = new Reactor(this, "acceptor"); // (4)
+      reactors = new Reactor[reactorCount];
+      for (int i = 0; i < reactorCount; i++) {
+        reactors[i] = new Reactor(this, "reactor-" + i);
+        reactors[i].start();
       }
+      serverSocketChannel.register(acceptor.selector(), SelectionKey.OP_ACCEPT); // (5)
+      acceptor.start();
     }
+    System.out.println(
+        "Started, listening on " + port() + ", reactors: " + reactorCount + ", codec: " + codec
+            + (reusePort ? ", reuse port" : ""));
   }
 
-  private void handleConnect(SelectionKey key) {
-    System.out.println("handleConnect: " + key);
+  /** One listener per reactor (at least one), all bound to the same port. */
+  private void startListeners() throws IOException {
+    reactors = new Reactor[Math.max(1, reactorCount)];
+    int bindPort = port;
+    for (int i = 0; i < reactors.length; i++) {
+      ServerSocketChannel listener = ServerSocketChannel.open();
+      if (!listener.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+        listener.close();
+        throw new UnsupportedOperationException("SO_REUSEPORT is not supported on this platform");
+      }
+      listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+      listener.configureBlocking(false);
+      // With port 0 the first listener picks the port, the others join it.
+      listener.bind(new InetSocketAddress(bindPort));
+      bindPort = listener.socket().getLocalPort();
+      if (i == 0) {
+        serverSocketChannel = listener;
+      }
+      reactors[i] = new Reactor(this, "reactor-" + i);
+      listener.register(reactors[i].selector(), SelectionKey.OP_ACCEPT);
+      reactors[i].start();
+    }
   }
 
-  private void handleWrite(SelectionKey key) {
-    System.out.println("handleWrite: " + key);
+  public void stop() throws InterruptedException {
+    if (acceptor != null) {
+      acceptor.stop();
+    }
+    for (Reactor reactor : reactors) {
+      reactor.stop();
+    }
+    if (acceptor != null) {
+      acceptor.join();
+    }
+    for (Reactor reactor : reactors) {
+      reactor.join();
+    }
   }
 
-  private void handleAccept(SelectionKey key) throws IOException {
-    System.out.println("handleAccept: " + key);
+  /** Called on the thread of the reactor that owns the listener. */
+  void handleAccept(Reactor reactor, SelectionKey key) throws IOException {
+    if (VERBOSE) {
+      System.out.println("handleAccept: " + key);
+    }
 
     ServerSocketChannel ssc = (ServerSocketChannel) key.channel();
-    SocketChannel channel = ssc.accept();
-    channel.configureBlocking(false);
-    channel.register(
-        key.selector(),
-        SelectionKey.OP_READ,
-        ByteBuffer.allocateDirect(DEFAULT_RCV_BUFFER_CAPACITY));
-  }
-
-  private void handleRead(SelectionKey key) throws IOException {
-    System.out.println("handleRead: " + key);
-
-    SocketChannel channel = (SocketChannel) key.channel();
-    ByteBuffer buf = (ByteBuffer) key.attachment();
-    ByteBuffer writeBuffer = ByteBuffer.allocate(DEFAULT_SND_BUFFER_CAPACITY);
-    int bytesRead = channel.read(buf);
-    if (bytesRead > 0) {
-      buf.flip();
-      byte[] bytes = new byte[bytesRead];
-      buf.get(bytes, 0, bytesRead);
-      String s = new String(bytes);
-      System.out.println(s);
-      buf.clear();
-
-      writeBuffer.put(bytes);
-      writeBuffer.flip();
-      while (writeBuffer.hasRemaining()) {
-        channel.write(writeBuffer);
+    // Drain the backlog, there can be more than one pending connection per wakeup.
+    for (SocketChannel channel; (channel = ssc.accept()) != null; ) {
+      // A reuse-port listener keeps what it accepted, no handoff to another thread.
+      (reusePort ? reactor : nextReactor()).register(channel);
+    }
+  }
+
+  private Reactor nextReactor() {
+    if (reactors.length == 0) {
+      return acceptor;
+    }
+    if (balance == Balance.LEAST_LOADED) {
+      Reactor least = reactors[0];
+      for (int i = 1; i < reactors.length; i++) {
+        if (reactors[i].connectionCount() < least.connectionCount()) {
+          least = reactors[i];
+        }
       }
-      writeBuffer.compact();
-    } else {
-      System.out.println("关闭的连接");
-      channel.close();
+      return least;
     }
+    // Only the acceptor thread gets here, a plain field is enough.
+    Reactor reactor = reactors[next];
+    next = (next + 1) % reactors.length;
+    return reactor;
   }
 
   public static void main(String[] args) {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+    int reactors = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+    FrameCodec codec = FrameCodec.forName(args.length > 2 ? args[2] : "raw");
+    Path fileRoot = args.length > 3 ? Paths.get(args[3]) : null;
     try {
-      new TcpServer().start();
+      new TcpServer(port)
+          .reactors(reactors)
+          .reusePort(Boolean.getBoolean("reusePort"))
+          .codec(codec)
+          .fileRoot(fileRoot)
+          .readIdleTimeout(5, TimeUnit.MINUTES)
+          .writeIdleTimeout(1, TimeUnit.MINUTES)
+          .start();
     } catch (IOException e) {
       e.printStackTrace();
     }
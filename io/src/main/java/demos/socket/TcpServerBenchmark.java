@@ -0,0 +1,54 @@
+package demos.socket;
+
+import demos.bench.LoadGenerator;
+import demos.nio.codec.FrameCodec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the echo throughput of {@link TcpServer} scales with the number of reactors.
+ *
+ * <p>Every client connection runs a closed ping-pong loop through {@link LoadGenerator}: it sends
+ * a message, waits for the echo, then sends the next one. Run with:
+ *
+ * <pre>
+ *   java demos.socket.TcpServerBenchmark [connections] [messageSize] [seconds] [maxReactors]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class TcpServerBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+    int messageSize = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    int maxReactors =
+        args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+    System.out.printf(
+        "connections=%d, messageSize=%d, duration=%ds%n", connections, messageSize, seconds);
+    System.out.printf("%-10s %15s %15s %12s%n", "reactors", "msgs/s", "MB/s", "p99(us)");
+    for (int n = 0; n <= maxReactors; n = n == 0 ? 1 : n * 2) {
+      TcpServer server = new TcpServer(0).reactors(n).codec(FrameCodec.lengthPrefixed());
+      server.start();
+      try {
+        LoadGenerator.Result result =
+            new LoadGenerator()
+                .port(server.port())
+                .connections(connections)
+                .messageSize(messageSize)
+                .warmup(1, TimeUnit.SECONDS)
+                .duration(seconds, TimeUnit.SECONDS)
+                .run();
+        System.out.printf(
+            "%-10s %15.0f %15.1f %12.1f%n",
+            n == 0 ? "single" : n,
+            result.messagesPerSecond(),
+            result.megabytesPerSecond(),
+            result.histogram().valueAtPercentile(99) / 1000.0);
+      } finally {
+        server.stop();
+      }
+    }
+  }
+}
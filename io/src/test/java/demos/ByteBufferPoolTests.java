@@ -0,0 +1,77 @@
+package demos;
+
+import demos.nio.ByteBufferPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ByteBufferPoolTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class ByteBufferPoolTests {
+
+    @Test
+    void testAcquireRoundsUpToSizeClass() {
+        ByteBufferPool pool = new ByteBufferPool();
+        Assertions.assertEquals(ByteBufferPool.minCapacity(), pool.acquire(1).capacity());
+        Assertions.assertEquals(1024, pool.acquire(1000).capacity());
+        Assertions.assertEquals(1024, pool.acquire(1024).capacity());
+        Assertions.assertEquals(2048, pool.acquire(1025).capacity());
+        Assertions.assertTrue(pool.acquire(1024).isDirect());
+    }
+
+    @Test
+    void testReleasedBufferIsReused() {
+        ByteBufferPool pool = new ByteBufferPool();
+        ByteBuffer buf = pool.acquire(512);
+        buf.putInt(42);
+        pool.release(buf);
+
+        ByteBuffer again = pool.acquire(512);
+        Assertions.assertSame(buf, again);
+        // 再次借出的缓冲区已被清空
+        Assertions.assertEquals(0, again.position());
+        Assertions.assertEquals(again.capacity(), again.limit());
+    }
+
+    @Test
+    void testChunkIsSharedByManyBuffers() {
+        ByteBufferPool pool = new ByteBufferPool();
+        for (int i = 0; i < 100; i++) {
+            pool.acquire(1024);
+        }
+        // 100 个 1KiB 的缓冲区只需要一次 256KiB 的直接内存分配
+        Assertions.assertEquals(256 * 1024, pool.allocatedBytes());
+    }
+
+    @Test
+    void testOversizedBuffersAreNotPooled() {
+        ByteBufferPool pool = new ByteBufferPool();
+        ByteBuffer big = pool.acquire(ByteBufferPool.maxCapacity() + 1);
+        Assertions.assertFalse(big.isDirect());
+        pool.release(big);
+        Assertions.assertNotSame(big, pool.acquire(ByteBufferPool.maxCapacity() + 1));
+        Assertions.assertEquals(0, pool.allocatedBytes());
+    }
+
+    @Test
+    void testConcurrentAcquireAndRelease() throws Exception {
+        ByteBufferPool pool = new ByteBufferPool();
+        // 先在测试线程上分配出第一个块，免得几个线程同时发现池是空的、各分配一块
+        pool.release(pool.acquire(1024));
+        CompletableFuture<?>[] futures = new CompletableFuture[4];
+        for (int t = 0; t < futures.length; t++) {
+            futures[t] = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    pool.release(pool.acquire(1024));
+                }
+            });
+        }
+        CompletableFuture.allOf(futures).get();
+        Assertions.assertEquals(256 * 1024, pool.allocatedBytes());
+    }
+}
@@ -0,0 +1,117 @@
+package demos;
+
+import demos.nio.codec.FrameCodec;
+import demos.socket.Connection;
+import demos.socket.ConnectionHandler;
+import demos.socket.OffloadingHandler;
+import demos.socket.TcpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionHandlerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class ConnectionHandlerTests {
+
+    /** Greets on open, answers every line in upper case and records the events it sees. */
+    static class UpperCaseHandler implements ConnectionHandler {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void connectionOpened(Connection connection) {
+            events.add("opened");
+            connection.writeFrame(StandardCharsets.UTF_8.encode("hi"));
+        }
+
+        @Override
+        public void frameReceived(Connection connection, ByteBuffer frame) {
+            String line = StandardCharsets.UTF_8.decode(frame).toString();
+            events.add("frame " + line);
+            if (line.equals("bye")) {
+                connection.close();
+                return;
+            }
+            // 模拟耗时的处理，卸载到线程池后响应的顺序也不能乱
+            if (!connection.inReactor()) {
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            connection.writeFrame(StandardCharsets.UTF_8.encode(line.toUpperCase()));
+        }
+
+        @Override
+        public void connectionClosed(Connection connection) {
+            events.add("closed");
+            closed.countDown();
+        }
+    }
+
+    @Test
+    void testInlineHandler() throws Exception {
+        UpperCaseHandler handler = new UpperCaseHandler();
+        exchange(handler, handler, 3);
+        Assertions.assertEquals(List.of("opened", "frame a0", "frame a1", "frame a2", "frame bye", "closed"),
+                handler.events);
+    }
+
+    @Test
+    void testOffloadedHandlerKeepsOrder() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            UpperCaseHandler handler = new UpperCaseHandler();
+            exchange(new OffloadingHandler(handler, pool, 8), handler, 100);
+            Assertions.assertEquals("opened", handler.events.get(0));
+            Assertions.assertEquals("closed", handler.events.get(handler.events.size() - 1));
+            Assertions.assertEquals(100 + 3, handler.events.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void exchange(ConnectionHandler handler, UpperCaseHandler target, int lines) throws Exception {
+        TcpServer server = new TcpServer(0).reactors(1).codec(FrameCodec.lineDelimited()).handler(handler);
+        server.start();
+        try (Socket socket = new Socket("localhost", server.port())) {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            Assertions.assertEquals("hi", in.readLine());
+            // 一次发完所有请求，它们会在同一次 read 里到达服务端
+            StringBuilder requests = new StringBuilder();
+            for (int i = 0; i < lines; i++) {
+                requests.append('a').append(i).append('\n');
+            }
+            out.write(requests.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            for (int i = 0; i < lines; i++) {
+                Assertions.assertEquals("A" + i, in.readLine());
+            }
+            out.write("bye\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Assertions.assertEquals(-1, in.read());
+            Assertions.assertTrue(target.closed.await(5, TimeUnit.SECONDS));
+        } finally {
+            server.stop();
+        }
+    }
+}
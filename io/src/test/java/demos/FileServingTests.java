@@ -0,0 +1,119 @@
+package demos;
+
+import demos.nio.codec.FrameCodec;
+import demos.socket.TcpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * FileServingTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class FileServingTests {
+
+    @TempDir
+    Path dir;
+
+    private byte[] content;
+    private TcpServer server;
+    private SocketChannel client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 比 socket 缓冲区和高水位都大得多，transferTo 一定会分多次才能写完
+        content = new byte[4 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        Path root = Files.createDirectory(dir.resolve("root"));
+        Files.write(root.resolve("data.bin"), content);
+        Files.write(dir.resolve("secret.txt"), "secret".getBytes(StandardCharsets.UTF_8));
+
+        server = new TcpServer(0).reactors(1).codec(FrameCodec.lengthPrefixed()).fileRoot(root);
+        server.start();
+        client = SocketChannel.open(new InetSocketAddress("localhost", server.port()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    void testServeWholeFile() throws IOException {
+        Assertions.assertArrayEquals(content, request("FILE data.bin"));
+    }
+
+    @Test
+    void testServeRange() throws IOException {
+        Assertions.assertArrayEquals(Arrays.copyOfRange(content, 100, 1100), request("FILE data.bin 100 1000"));
+        // 长度超出文件末尾时截断到文件末尾
+        int offset = content.length - 10;
+        Assertions.assertArrayEquals(Arrays.copyOfRange(content, offset, content.length),
+                request("FILE data.bin " + offset + " 1000"));
+    }
+
+    @Test
+    void testPipelinedFilesAndEchoes() throws IOException {
+        send("FILE data.bin 0 10");
+        send("hello");
+        send("FILE data.bin");
+        Assertions.assertArrayEquals(Arrays.copyOf(content, 10), receive());
+        Assertions.assertEquals("hello", new String(receive(), StandardCharsets.UTF_8));
+        Assertions.assertArrayEquals(content, receive());
+    }
+
+    @Test
+    void testRejectsBadRequests() throws IOException {
+        Assertions.assertTrue(error("FILE ../secret.txt").startsWith("ERR "));
+        Assertions.assertTrue(error("FILE missing.bin").startsWith("ERR "));
+        Assertions.assertTrue(error("FILE data.bin -1").startsWith("ERR "));
+        Assertions.assertTrue(error("FILE data.bin x").startsWith("ERR "));
+        Assertions.assertTrue(error("FILE").startsWith("FILE"), "no path, just an echo");
+    }
+
+    private String error(String request) throws IOException {
+        return new String(request(request), StandardCharsets.UTF_8);
+    }
+
+    private byte[] request(String request) throws IOException {
+        send(request);
+        return receive();
+    }
+
+    private void send(String request) throws IOException {
+        byte[] bytes = request.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(4 + bytes.length);
+        buf.putInt(bytes.length).put(bytes).flip();
+        while (buf.hasRemaining()) {
+            client.write(buf);
+        }
+    }
+
+    private byte[] receive() throws IOException {
+        ByteBuffer header = readFully(ByteBuffer.allocate(4));
+        return readFully(ByteBuffer.allocate(header.getInt(0))).array();
+    }
+
+    private ByteBuffer readFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (client.read(buf) < 0) {
+                throw new IOException("closed");
+            }
+        }
+        return buf;
+    }
+}
@@ -0,0 +1,122 @@
+package demos;
+
+import demos.nio.codec.CorruptedFrameException;
+import demos.nio.codec.FrameCodec;
+import demos.nio.codec.FrameDecoder;
+import demos.nio.codec.FrameEncoder;
+import demos.nio.codec.LineFrameDecoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FrameCodecTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class FrameCodecTests {
+
+    @Test
+    void testCoalescedFramesInOneRead() throws IOException {
+        for (String name : Arrays.asList("length", "varint", "line")) {
+            FrameCodec codec = FrameCodec.forName(name);
+            ByteBuffer stream = encode(codec, "hello", "", "world");
+            Assertions.assertEquals(Arrays.asList("hello", "", "world"), decode(codec.newDecoder(), stream), name);
+        }
+    }
+
+    @Test
+    void testFramesSplitAcrossReads() throws IOException {
+        for (String name : Arrays.asList("length", "varint", "line")) {
+            FrameCodec codec = FrameCodec.forName(name);
+            ByteBuffer stream = encode(codec, "hello", "x".repeat(300), "world");
+            FrameDecoder decoder = codec.newDecoder();
+            List<String> frames = new ArrayList<>();
+            // 每次只喂一个字节，模拟最坏情况下的 TCP 分段
+            while (stream.hasRemaining()) {
+                ByteBuffer one = stream.slice();
+                one.limit(1);
+                stream.position(stream.position() + 1);
+                decoder.decode(one, frame -> frames.add(StandardCharsets.UTF_8.decode(frame).toString()));
+            }
+            Assertions.assertEquals(Arrays.asList("hello", "x".repeat(300), "world"), frames, name);
+            Assertions.assertEquals(0, decoder.buffered(), name);
+        }
+    }
+
+    @Test
+    void testWholeFramesAreNotCopied() throws IOException {
+        FrameCodec codec = FrameCodec.lengthPrefixed();
+        ByteBuffer stream = encode(codec, "hello", "world");
+        List<ByteBuffer> frames = new ArrayList<>();
+        codec.newDecoder().decode(stream, frames::add);
+        // 完整的帧直接是读缓冲区的切片，与其共享同一个底层数组
+        for (ByteBuffer frame : frames) {
+            Assertions.assertSame(stream.array(), frame.array());
+        }
+    }
+
+    @Test
+    void testPartialFrameIsKeptUntilComplete() throws IOException {
+        FrameCodec codec = FrameCodec.lengthPrefixed();
+        ByteBuffer stream = encode(codec, "hello", "world");
+        FrameDecoder decoder = codec.newDecoder();
+
+        ByteBuffer first = stream.slice();
+        first.limit(12);
+        Assertions.assertEquals(Arrays.asList("hello"), decode(decoder, first));
+        Assertions.assertEquals(3, decoder.buffered());
+
+        stream.position(12);
+        Assertions.assertEquals(Arrays.asList("world"), decode(decoder, stream));
+        Assertions.assertEquals(0, decoder.buffered());
+    }
+
+    @Test
+    void testLineDecoderStripsCarriageReturn() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap("foo\r\nbar\n".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(Arrays.asList("foo", "bar"), decode(new LineFrameDecoder(16), in));
+    }
+
+    @Test
+    void testTooLongFrameIsRejected() {
+        ByteBuffer lengthPrefixed = ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).flip();
+        Assertions.assertThrows(CorruptedFrameException.class,
+                () -> decode(FrameCodec.lengthPrefixed().newDecoder(), lengthPrefixed));
+
+        ByteBuffer line = ByteBuffer.wrap("x".repeat(17).getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(CorruptedFrameException.class, () -> decode(new LineFrameDecoder(16), line));
+    }
+
+    @Test
+    void testVarintPrefixOverflowIsRejected() {
+        // 第五个字节只能有低 4 位，否则高位会被悄悄丢掉，解成长度 0
+        ByteBuffer overflow = ByteBuffer.wrap(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10});
+        Assertions.assertThrows(CorruptedFrameException.class,
+                () -> decode(FrameCodec.varintPrefixed().newDecoder(), overflow));
+    }
+
+    private static ByteBuffer encode(FrameCodec codec, String... payloads) {
+        FrameEncoder encoder = codec.encoder();
+        ByteBuffer out = ByteBuffer.allocate(4096);
+        for (String s : payloads) {
+            ByteBuffer payload = ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+            encoder.encodeHeader(payload.remaining(), out);
+            out.put(payload.duplicate());
+            encoder.encodeTrailer(payload.remaining(), out);
+        }
+        return out.flip();
+    }
+
+    private static List<String> decode(FrameDecoder decoder, ByteBuffer in) throws IOException {
+        List<String> frames = new ArrayList<>();
+        decoder.decode(in, frame -> frames.add(StandardCharsets.UTF_8.decode(frame).toString()));
+        return frames;
+    }
+}
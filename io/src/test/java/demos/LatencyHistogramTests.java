@@ -0,0 +1,68 @@
+package demos;
+
+import demos.bench.LatencyHistogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LatencyHistogramTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class LatencyHistogramTests {
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v * 1000);
+        }
+        Assertions.assertEquals(1_000_000, histogram.count());
+        assertClose(500_000_000L, histogram.valueAtPercentile(50));
+        assertClose(990_000_000L, histogram.valueAtPercentile(99));
+        assertClose(999_000_000L, histogram.valueAtPercentile(99.9));
+        Assertions.assertEquals(1_000_000_000L, histogram.max());
+        Assertions.assertEquals(1000, histogram.min());
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 0; v < 128; v++) {
+            histogram.record(v);
+        }
+        Assertions.assertEquals(63, histogram.valueAtPercentile(50));
+        Assertions.assertEquals(127, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void testCoordinatedOmissionCorrection() {
+        // 每 1ms 发一次请求，其中一次卡了 100ms：不做修正时 p99 看不出来这次卡顿
+        LatencyHistogram raw = new LatencyHistogram();
+        LatencyHistogram corrected = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            long value = i == 500 ? 100_000_000L : 100_000L;
+            raw.record(value);
+            corrected.recordWithExpectedInterval(value, 1_000_000L);
+        }
+        Assertions.assertTrue(raw.valueAtPercentile(99) < 1_000_000L);
+        Assertions.assertTrue(corrected.valueAtPercentile(99) > 1_000_000L);
+        Assertions.assertEquals(1000 + 99, corrected.count());
+    }
+
+    @Test
+    void testAdd() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(1_000_000);
+        a.add(b);
+        Assertions.assertEquals(2, a.count());
+        Assertions.assertEquals(10, a.min());
+        Assertions.assertEquals(1_000_000, a.max());
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 50, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,95 @@
+package demos;
+
+import demos.nio.PipelinedTcpClient;
+import demos.nio.codec.FrameCodec;
+import demos.socket.TcpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PipelinedTcpClientTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class PipelinedTcpClientTests {
+
+    @Test
+    void testConcurrentRequestsGetTheirOwnResponses() throws Exception {
+        // length codec 的回显服务器原样送回请求 id 和内容
+        TcpServer server = new TcpServer(0).reactors(2).codec(FrameCodec.lengthPrefixed());
+        server.start();
+        try (PipelinedTcpClient client = new PipelinedTcpClient(server.port())) {
+            client.connect();
+            int threads = 4;
+            int requests = 2000;
+            List<List<CompletableFuture<byte[]>>> responses = new ArrayList<>();
+            List<Thread> senders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+                responses.add(futures);
+                int thread = t;
+                senders.add(new Thread(() -> {
+                    for (int i = 0; i < requests; i++) {
+                        futures.add(client.request(body(thread, i)));
+                    }
+                }));
+            }
+            senders.forEach(Thread::start);
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < requests; i++) {
+                    byte[] response = responses.get(t).get(i).get(5, TimeUnit.SECONDS);
+                    Assertions.assertArrayEquals(body(t, i), response);
+                }
+            }
+            Assertions.assertEquals(0, client.inFlight());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testPendingRequestsFailOnClose() throws Exception {
+        // 连上但从不回复的服务器
+        try (ServerSocket silent = new ServerSocket(0)) {
+            PipelinedTcpClient client = new PipelinedTcpClient(silent.getLocalPort());
+            client.connect();
+            CompletableFuture<byte[]> first = client.request(body(0, 0));
+            CompletableFuture<byte[]> second = client.request(body(0, 1));
+            client.close();
+            assertFails(ClosedChannelException.class, first);
+            assertFails(ClosedChannelException.class, second);
+            assertFails(ClosedChannelException.class, client.request(body(0, 2)));
+            Assertions.assertEquals(0, client.inFlight());
+        }
+    }
+
+    @Test
+    void testRequestBeforeConnectFails() throws Exception {
+        PipelinedTcpClient client = new PipelinedTcpClient(1);
+        assertFails(IllegalStateException.class, client.request(body(0, 0)));
+        Assertions.assertEquals(0, client.inFlight());
+    }
+
+    private static void assertFails(Class<? extends Throwable> expected,
+                                    CompletableFuture<byte[]> future) {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> future.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(expected.isInstance(e.getCause()), String.valueOf(e.getCause()));
+    }
+
+    private static byte[] body(int thread, int i) {
+        return ("request " + thread + "-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
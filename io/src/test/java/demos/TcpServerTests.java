@@ -0,0 +1,55 @@
+package demos;
+
+import demos.socket.TcpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TcpServerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class TcpServerTests {
+
+    @Test
+    void testEchoWithAcceptor() throws Exception {
+        echoMany(new TcpServer(0).reactors(2));
+    }
+
+    @Test
+    void testEchoWithReusePortListeners() throws Exception {
+        echoMany(new TcpServer(0).reactors(4).reusePort(true));
+    }
+
+    private static void echoMany(TcpServer server) throws Exception {
+        server.start();
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            // 同时保持多个连接，确保每个 listener/reactor 都在服务
+            for (int i = 0; i < 50; i++) {
+                sockets.add(new Socket("localhost", server.port()));
+            }
+            for (int i = 0; i < sockets.size(); i++) {
+                byte[] message = ("hello " + i).getBytes(StandardCharsets.UTF_8);
+                sockets.get(i).getOutputStream().write(message);
+                byte[] echo = new byte[message.length];
+                InputStream in = sockets.get(i).getInputStream();
+                for (int n = 0; n < echo.length; ) {
+                    n += in.read(echo, n, echo.length - n);
+                }
+                Assertions.assertArrayEquals(message, echo);
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            server.stop();
+        }
+    }
+}
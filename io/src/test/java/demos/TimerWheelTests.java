@@ -0,0 +1,93 @@
+package demos;
+
+import demos.nio.TimerWheel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimerWheelTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class TimerWheelTests {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testFiresOnceDeadlineTickIsReached() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(wheel.newTimeout(() -> fired.add("a")), 25 * TICK / 10);
+        wheel.schedule(wheel.newTimeout(() -> fired.add("b")), TICK);
+
+        Assertions.assertEquals(2, wheel.size());
+        Assertions.assertEquals(0, wheel.expire(TICK - 1));
+        Assertions.assertEquals(1, wheel.expire(TICK));
+        // 到期时间向上取整到 tick，绝不会提前触发
+        Assertions.assertEquals(0, wheel.expire(2 * TICK));
+        Assertions.assertEquals(1, wheel.expire(3 * TICK));
+        Assertions.assertEquals(Arrays.asList("b", "a"), fired);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancel() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        TimerWheel.Timeout timeout = wheel.newTimeout(Assertions::fail);
+        wheel.schedule(timeout, TICK);
+        timeout.cancel();
+        Assertions.assertFalse(timeout.isScheduled());
+        Assertions.assertEquals(0, wheel.size());
+        Assertions.assertEquals(0, wheel.expire(10 * TICK));
+    }
+
+    @Test
+    void testDeadlinesBeyondOneRevolution() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        int[] fired = new int[1];
+        // 8 个槽位，第 3 个 tick 和第 19 个 tick 落在同一个槽里
+        wheel.schedule(wheel.newTimeout(() -> fired[0]++), 19 * TICK);
+        Assertions.assertEquals(0, wheel.expire(3 * TICK));
+        Assertions.assertEquals(0, wheel.expire(11 * TICK));
+        Assertions.assertEquals(1, wheel.expire(19 * TICK));
+        Assertions.assertEquals(1, fired[0]);
+    }
+
+    @Test
+    void testLargeClockJumpFiresEverything() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(wheel.newTimeout(() -> { }), i * TICK);
+        }
+        Assertions.assertEquals(100, wheel.expire(1000 * TICK));
+        Assertions.assertEquals(-1, wheel.nanosToNextTick(1000 * TICK));
+    }
+
+    @Test
+    void testTaskCanRescheduleItselfAndCancelOthers() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8, 0);
+        List<String> fired = new ArrayList<>();
+        TimerWheel.Timeout other = wheel.newTimeout(() -> fired.add("other"));
+        TimerWheel.Timeout[] self = new TimerWheel.Timeout[1];
+        self[0] = wheel.newTimeout(() -> {
+            fired.add("self");
+            other.cancel();
+            if (fired.size() < 3) {
+                wheel.schedule(self[0], 5 * TICK);
+            }
+        });
+        wheel.schedule(self[0], TICK);
+        wheel.schedule(other, TICK);
+
+        // 同一个 tick 里先触发的任务取消了另一个已到期的任务
+        Assertions.assertEquals(1, wheel.expire(TICK));
+        Assertions.assertTrue(self[0].isScheduled());
+        Assertions.assertEquals(1, wheel.expire(5 * TICK));
+        Assertions.assertEquals(Arrays.asList("self", "self"), fired);
+    }
+}
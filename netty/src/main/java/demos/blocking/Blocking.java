@@ -0,0 +1,19 @@
+package demos.blocking;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that blocks (JDBC, file I/O, a synchronous HTTP call...): {@link
+ * BlockingExecutorGroup#addLast} runs its events on the blocking executor instead of the event
+ * loop.
+ *
+ * @author https://github.com/gukt
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Blocking {}
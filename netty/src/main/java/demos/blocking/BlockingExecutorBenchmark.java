@@ -0,0 +1,155 @@
+package demos.blocking;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code requests} connections each send one request at once to a handler that blocks for {@code
+ * blockMillis} (a stand-in for a database call) before answering; the time until every answer is
+ * back, with the blocking handler on a {@code DefaultEventExecutorGroup} of {@code threads}
+ * threads versus a {@link BlockingExecutorGroup}. In-VM (local) channels, so only the executors
+ * are measured, not the network.
+ *
+ * <pre>
+ *   java demos.blocking.BlockingExecutorBenchmark [requests] [blockMillis] [threads]
+ * </pre>
+ *
+ * <p>Run it on JDK 21 to get virtual threads; on older JVMs the blocking group falls back to
+ * {@link BlockingExecutorGroup#DEFAULT_MAX_THREADS} platform threads, which it says.
+ *
+ * @author https://github.com/gukt
+ */
+public class BlockingExecutorBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    int blockMillis = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int threads = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+    System.out.printf(
+        "requests=%d, blockMillis=%d, java=%s%n",
+        requests, blockMillis, System.getProperty("java.version"));
+    System.out.printf("%-44s %10s %12s%n", "executor", "ms", "requests/s");
+    for (int round = 0; round < 2; round++) {
+      // The first round warms up.
+      EventExecutorGroup fixed = new DefaultEventExecutorGroup(threads);
+      long fixedNanos = run(fixed, requests, blockMillis);
+      report("DefaultEventExecutorGroup(" + threads + ")", fixedNanos, requests);
+      BlockingExecutorGroup blocking = BlockingExecutorGroup.create();
+      String name = blocking.isVirtual() ? "virtual threads" : "platform threads (no virtual)";
+      report("BlockingExecutorGroup, " + name, run(blocking, requests, blockMillis), requests);
+    }
+  }
+
+  private static void report(String executor, long nanos, int requests) {
+    System.out.printf(
+        "%-44s %10d %12.0f%n", executor, nanos / 1_000_000, requests / (nanos / 1e9));
+  }
+
+  /** Nanoseconds until all the answers are back. */
+  private static long run(EventExecutorGroup executor, int requests, int blockMillis)
+      throws InterruptedException {
+    EventLoopGroup group = new DefaultEventLoopGroup(2);
+    LocalAddress address = new LocalAddress("blocking-benchmark");
+    CountDownLatch answered = new CountDownLatch(requests);
+    CountDownLatch closed = new CountDownLatch(requests);
+    try {
+      new ServerBootstrap()
+          .group(group)
+          .channel(LocalServerChannel.class)
+          .childHandler(
+              new ChannelInitializer<LocalChannel>() {
+                @Override
+                protected void initChannel(LocalChannel ch) {
+                  ch.pipeline().addLast(executor, new Lookup(blockMillis, closed));
+                }
+              })
+          .bind(address)
+          .sync();
+      Bootstrap b =
+          new Bootstrap()
+              .group(group)
+              .channel(LocalChannel.class)
+              .handler(new Answered(answered));
+      List<Channel> clients = new ArrayList<>(requests);
+      for (int i = 0; i < requests; i++) {
+        clients.add(b.connect(address).sync().channel());
+      }
+
+      long start = System.nanoTime();
+      for (Channel ch : clients) {
+        ch.writeAndFlush("lookup");
+      }
+      if (!answered.await(5, TimeUnit.MINUTES)) {
+        throw new IllegalStateException(answered.getCount() + " requests not answered");
+      }
+      long nanos = System.nanoTime() - start;
+
+      // Closed on both sides before the executor goes, it still gets the closing events.
+      for (Channel ch : clients) {
+        ch.close().sync();
+      }
+      closed.await(1, TimeUnit.MINUTES);
+      return nanos;
+    } finally {
+      executor.shutdownGracefully(0, 5, TimeUnit.SECONDS).sync();
+      group.shutdownGracefully(0, 5, TimeUnit.SECONDS).sync();
+    }
+  }
+
+  /** Counts the answers, on the client side. */
+  @Sharable
+  private static final class Answered extends ChannelInboundHandlerAdapter {
+    private final CountDownLatch answered;
+
+    Answered(CountDownLatch answered) {
+      this.answered = answered;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      answered.countDown();
+    }
+  }
+
+  /** Blocks, then answers with the request. */
+  @Sharable
+  @Blocking
+  private static final class Lookup extends ChannelInboundHandlerAdapter {
+    private final int blockMillis;
+    private final CountDownLatch closed;
+
+    Lookup(int blockMillis, CountDownLatch closed) {
+      this.blockMillis = blockMillis;
+      this.closed = closed;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+      // The last event of a closed channel.
+      closed.countDown();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+      Thread.sleep(blockMillis);
+      ctx.writeAndFlush(msg);
+    }
+  }
+}
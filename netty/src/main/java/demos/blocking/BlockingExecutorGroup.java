@@ -0,0 +1,358 @@
+package demos.blocking;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.util.concurrent.AbstractScheduledEventExecutor;
+import io.netty.util.concurrent.AbstractEventExecutorGroup;
+import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.OrderedEventExecutor;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An {@code EventExecutorGroup} for handlers that block, running on virtual threads when the JVM
+ * has them (JDK 21 on) and on a bounded pool of platform threads otherwise.
+ *
+ * <pre>
+ *   BlockingExecutorGroup blocking = BlockingExecutorGroup.create();
+ *   // Handlers annotated @Blocking go to the blocking executor, the others stay on the loop.
+ *   blocking.addLast(ch.pipeline(), new Decoder(), new LookupHandler(), new Encoder());
+ * </pre>
+ *
+ * <p>A handler added with an executor group gets one executor of the group per channel ({@link
+ * #next()}), and netty hands it that channel's events in order. netty's {@code
+ * DefaultEventExecutorGroup} has a fixed set of threads for that, so the channels sharing a
+ * thread wait behind whichever of them is blocked. Here every {@link #next()} is a new serial
+ * executor of its own: the tasks of one channel run one at a time and in order, on whatever
+ * thread the backing executor gives them. With virtual threads a blocked channel holds no
+ * platform thread and stalls no other channel, so 10k blocking requests in flight cost 10k cheap
+ * virtual threads.
+ *
+ * <p>The module is built for Java 8, so the virtual thread executor is looked up by reflection;
+ * {@link #isVirtual()} tells which one is in use. The serial executors are not tracked: {@link
+ * #iterator()} is empty and shutting the group down rejects their new tasks; the tasks they had
+ * queued still run, their scheduled ones are cancelled. All the {@code schedule} methods work,
+ * the scheduled tasks run on the serial executor like the others.
+ *
+ * @author https://github.com/gukt
+ */
+public final class BlockingExecutorGroup extends AbstractEventExecutorGroup {
+
+  /** Platform threads of the fallback pool. */
+  public static final int DEFAULT_MAX_THREADS = 256;
+
+  private static final InternalLogger logger =
+      InternalLoggerFactory.getInstance(BlockingExecutorGroup.class);
+
+  /** Tasks one serial executor runs before giving its thread back, for fairness on a pool. */
+  private static final int MAX_TASKS_PER_RUN = 64;
+
+  private static final Runnable NO_OP = () -> {};
+
+  private final ExecutorService executor;
+  private final boolean virtual;
+  private final Promise<?> terminationFuture =
+      new DefaultPromise<Void>(GlobalEventExecutor.INSTANCE);
+  private volatile boolean shuttingDown;
+
+  private BlockingExecutorGroup(ExecutorService executor, boolean virtual) {
+    this.executor = executor;
+    this.virtual = virtual;
+  }
+
+  /** Virtual threads if this JVM has them, {@link #DEFAULT_MAX_THREADS} platform threads if not. */
+  public static BlockingExecutorGroup create() {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    return executor != null
+        ? new BlockingExecutorGroup(executor, true)
+        : platformThreads(DEFAULT_MAX_THREADS);
+  }
+
+  /** Up to {@code maxThreads} platform threads, whatever the JVM. */
+  public static BlockingExecutorGroup platformThreads(int maxThreads) {
+    if (maxThreads < 1) {
+      throw new IllegalArgumentException("maxThreads: " + maxThreads + " (expected: > 0)");
+    }
+    ThreadPoolExecutor pool =
+        new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new DefaultThreadFactory("blocking", true));
+    pool.allowCoreThreadTimeOut(true);
+    return new BlockingExecutorGroup(pool, false);
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Before JDK 21 (or 19/20 without --enable-preview).
+      return null;
+    }
+  }
+
+  /** Whether the tasks run on virtual threads. */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  /**
+   * Adds {@code handlers} to the end of {@code pipeline}, the ones whose class is annotated
+   * {@link Blocking} with this group.
+   */
+  public ChannelPipeline addLast(ChannelPipeline pipeline, ChannelHandler... handlers) {
+    for (ChannelHandler h : handlers) {
+      if (h.getClass().isAnnotationPresent(Blocking.class)) {
+        pipeline.addLast(this, null, h);
+      } else {
+        pipeline.addLast(h);
+      }
+    }
+    return pipeline;
+  }
+
+  /** A new serial executor, netty asks for one per channel. */
+  @Override
+  public EventExecutor next() {
+    return new SerialExecutor();
+  }
+
+  @Override
+  public Iterator<EventExecutor> iterator() {
+    return Collections.emptyIterator();
+  }
+
+  @Override
+  public boolean isShuttingDown() {
+    return shuttingDown;
+  }
+
+  @Override
+  public Future<?> shutdownGracefully(long quietPeriod, long timeout, TimeUnit unit) {
+    shuttingDown = true;
+    executor.shutdown();
+    GlobalEventExecutor.INSTANCE.execute(
+        () -> {
+          try {
+            if (!executor.awaitTermination(timeout, unit)) {
+              executor.shutdownNow();
+            }
+          } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+          }
+          terminationFuture.trySuccess(null);
+        });
+    return terminationFuture;
+  }
+
+  @Override
+  public Future<?> terminationFuture() {
+    return terminationFuture;
+  }
+
+  @Override
+  @Deprecated
+  public void shutdown() {
+    shuttingDown = true;
+    executor.shutdown();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return executor.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return executor.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return executor.awaitTermination(timeout, unit);
+  }
+
+  /**
+   * Runs its tasks one at a time, in order, on the group's executor: at most one run is submitted
+   * at a time and it takes the tasks off the queue. Scheduled tasks wait in the inherited queue,
+   * checked at every run; a timer on the {@link GlobalEventExecutor} starts a run when the next one
+   * is due.
+   */
+  private final class SerialExecutor extends AbstractScheduledEventExecutor
+      implements OrderedEventExecutor {
+    private final Queue<Runnable> tasks = PlatformDependent.newMpscQueue();
+    // Held by whoever takes tasks off the queue: a run, or submit() rejecting them.
+    private final AtomicBoolean submitted = new AtomicBoolean();
+    private final Runnable wakeUpTask = this::wakeUp;
+    private volatile Thread thread;
+    // Deadline of the wake-up timer set, only touched by runs.
+    private long wakeUpDeadline = Long.MAX_VALUE;
+
+    SerialExecutor() {
+      super(BlockingExecutorGroup.this);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+      if (shuttingDown) {
+        throw new RejectedExecutionException("blocking executor group shut down");
+      }
+      tasks.add(task);
+      submit();
+    }
+
+    private void submit() {
+      if (submitted.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::run);
+        } catch (RejectedExecutionException e) {
+          // Shut down in between: nothing will run the queued tasks any more.
+          do {
+            reject();
+            submitted.set(false);
+          } while (!tasks.isEmpty() && submitted.compareAndSet(false, true));
+          throw e;
+        }
+      }
+    }
+
+    private void reject() {
+      int rejected = 0;
+      for (Runnable task; (task = tasks.poll()) != null; ) {
+        if (task instanceof Future) {
+          ((Future<?>) task).cancel(false);
+        }
+        if (task != NO_OP) {
+          rejected++;
+        }
+      }
+      if (rejected > 0) {
+        logger.warn("{} task(s) rejected: blocking executor group shut down", rejected);
+      }
+    }
+
+    private void run() {
+      thread = Thread.currentThread();
+      try {
+        long now = nanoTime();
+        if (wakeUpDeadline <= now) {
+          wakeUpDeadline = Long.MAX_VALUE;
+        }
+        for (Runnable task; (task = pollScheduledTask(now)) != null; ) {
+          tasks.add(task);
+        }
+        for (int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+          Runnable task = tasks.poll();
+          if (task == null) {
+            break;
+          }
+          safeExecute(task);
+        }
+      } finally {
+        if (executor.isShutdown()) {
+          // No further run would be accepted: finish what was queued rather than drop it.
+          for (Runnable task; (task = tasks.poll()) != null; ) {
+            safeExecute(task);
+          }
+          cancelScheduledTasks();
+        } else {
+          scheduleWakeUp();
+        }
+        thread = null;
+        submitted.set(false);
+        // Tasks added after the last poll, or left over by the cap.
+        if (!tasks.isEmpty()) {
+          try {
+            submit();
+          } catch (RejectedExecutionException ignore) {
+            // The tasks were rejected and logged.
+          }
+        }
+      }
+    }
+
+    private void scheduleWakeUp() {
+      long deadline = nextScheduledTaskDeadlineNanos();
+      if (deadline != -1 && deadline < wakeUpDeadline) {
+        wakeUpDeadline = deadline;
+        GlobalEventExecutor.INSTANCE.schedule(
+            wakeUpTask, deadlineToDelayNanos(deadline), TimeUnit.NANOSECONDS);
+      }
+    }
+
+    /** Starts a run for the scheduled tasks that are due, unless the group is shut down. */
+    private void wakeUp() {
+      if (!executor.isShutdown()) {
+        // Queued so that a run finishing right now sees it and starts another one.
+        tasks.add(NO_OP);
+        try {
+          submit();
+        } catch (RejectedExecutionException ignore) {
+          // Shut down in between.
+        }
+      }
+    }
+
+    @Override
+    public boolean inEventLoop(Thread thread) {
+      return thread == this.thread;
+    }
+
+    @Override
+    public boolean isShuttingDown() {
+      return BlockingExecutorGroup.this.isShuttingDown();
+    }
+
+    @Override
+    public Future<?> shutdownGracefully(long quietPeriod, long timeout, TimeUnit unit) {
+      return BlockingExecutorGroup.this.shutdownGracefully(quietPeriod, timeout, unit);
+    }
+
+    @Override
+    public Future<?> terminationFuture() {
+      return BlockingExecutorGroup.this.terminationFuture();
+    }
+
+    @Override
+    @Deprecated
+    public void shutdown() {
+      BlockingExecutorGroup.this.shutdown();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return BlockingExecutorGroup.this.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return BlockingExecutorGroup.this.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return BlockingExecutorGroup.this.awaitTermination(timeout, unit);
+    }
+  }
+}
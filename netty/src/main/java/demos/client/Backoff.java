@@ -0,0 +1,52 @@
+package demos.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the n-th delay in a row is drawn uniformly from {@code [0,
+ * min(max, base * 2^n)]}. Spreading the delays over the whole range, rather than adding a little
+ * noise to a fixed schedule, is what keeps the clients of a restarted server from reconnecting in
+ * waves.
+ *
+ * <p>Not thread-safe, use one per connection on its event loop.
+ *
+ * @author https://github.com/gukt
+ */
+public final class Backoff {
+
+  private final long baseMillis;
+  private final long maxMillis;
+  private long ceilingMillis;
+  private int attempts;
+
+  public Backoff(long baseMillis, long maxMillis) {
+    if (baseMillis < 1 || maxMillis < baseMillis) {
+      throw new IllegalArgumentException(
+          "baseMillis: " + baseMillis + ", maxMillis: " + maxMillis
+              + " (expected: 0 < baseMillis <= maxMillis)");
+    }
+    this.baseMillis = baseMillis;
+    this.maxMillis = maxMillis;
+    this.ceilingMillis = baseMillis;
+  }
+
+  /** The delay before the next attempt. */
+  public long nextDelayMillis() {
+    long delay = ThreadLocalRandom.current().nextLong(ceilingMillis + 1);
+    attempts++;
+    // Doubling stops at the maximum, so it never overflows.
+    ceilingMillis = Math.min(maxMillis, ceilingMillis * 2);
+    return delay;
+  }
+
+  /** Attempts since the last {@link #reset()}. */
+  public int attempts() {
+    return attempts;
+  }
+
+  /** After a success: the next delay is short again. */
+  public void reset() {
+    attempts = 0;
+    ceilingMillis = baseMillis;
+  }
+}
@@ -0,0 +1,252 @@
+package demos.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps one active connection to a server, plus {@code standby} more already connected to take
+ * over, and reconnects whatever drops with jittered exponential {@link Backoff}.
+ *
+ * <pre>
+ *   Bootstrap b = transport.configure(new Bootstrap().group(group))
+ *       .remoteAddress(host, port)
+ *       .handler(new UptimeClientHandler());
+ *   ReconnectingClient client = new ReconnectingClient(b, 1)
+ *       .backoff(100, 10_000)
+ *       .healthCheck(10_000, 3_000, () -> ping())
+ *       .start();
+ *   client.active().writeAndFlush(msg);
+ * </pre>
+ *
+ * <p>When the active connection closes, a standby one is promoted on the spot, so failover takes
+ * as long as the close takes to be noticed, not a connect; the dropped slot then reconnects in
+ * the background. A connection that hangs without closing is caught by the health check: the
+ * {@code IdleStateEvent}s of an {@link IdleStateHandler} send the probe message when nothing was
+ * written for a while and close the connection when nothing was read for longer, which is
+ * treated like any other drop. Standby connections are probed too, so a dead one is not promoted.
+ *
+ * <p>The bootstrap is set up once and reused for every connect. All connections live on one
+ * event loop of the bootstrap's group, where the client's state is kept without locks. The
+ * group belongs to the caller and stays up after {@link #close()}.
+ *
+ * @author https://github.com/gukt
+ */
+public final class ReconnectingClient implements Closeable {
+
+  public static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+  public static final long DEFAULT_MAX_DELAY_MILLIS = 10_000;
+
+  private final Bootstrap bootstrap;
+  private final ChannelHandler handler;
+  private final EventLoop loop;
+  private final Slot[] slots;
+  private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+  private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+  private long readerIdleMillis;
+  private long writerIdleMillis;
+  private Supplier<?> probe;
+  private volatile Channel active;
+  private volatile boolean closed;
+  private boolean started;
+
+  /**
+   * @param bootstrap has the group, the channel class, the remote address and the handler set;
+   *     the handler goes into every connection, so it is {@code @Sharable} or an initializer
+   * @param standby connected spares kept besides the active connection, {@code 0} for none
+   */
+  public ReconnectingClient(Bootstrap bootstrap, int standby) {
+    if (standby < 0) {
+      throw new IllegalArgumentException("standby: " + standby + " (expected: >= 0)");
+    }
+    bootstrap.validate();
+    this.handler = bootstrap.config().handler();
+    this.loop = bootstrap.config().group().next();
+    // All the connections on one event loop, the one this client's state lives on.
+    this.bootstrap = bootstrap.clone(loop).handler(new Initializer());
+    this.slots = new Slot[1 + standby];
+  }
+
+  /** Delays between the connect attempts of a connection: full jitter, doubling up to the max. */
+  public ReconnectingClient backoff(long baseDelayMillis, long maxDelayMillis) {
+    if (baseDelayMillis < 1 || maxDelayMillis < baseDelayMillis) {
+      throw new IllegalArgumentException(
+          "baseDelayMillis: " + baseDelayMillis + ", maxDelayMillis: " + maxDelayMillis
+              + " (expected: 0 < baseDelayMillis <= maxDelayMillis)");
+    }
+    this.baseDelayMillis = baseDelayMillis;
+    this.maxDelayMillis = maxDelayMillis;
+    return this;
+  }
+
+  /**
+   * Probes every connection: sends {@code probe.get()} when nothing was written for {@code
+   * writerIdleMillis}, closes it when nothing was read for {@code readerIdleMillis}. {@code 0}
+   * turns either off; a {@code null} probe sends nothing.
+   */
+  public ReconnectingClient healthCheck(
+      long readerIdleMillis, long writerIdleMillis, Supplier<?> probe) {
+    this.readerIdleMillis = readerIdleMillis;
+    this.writerIdleMillis = writerIdleMillis;
+    this.probe = probe;
+    return this;
+  }
+
+  /** Opens the connections, returns right away. */
+  public ReconnectingClient start() {
+    loop.execute(
+        () -> {
+          if (started || closed) {
+            return;
+          }
+          started = true;
+          for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(new Backoff(baseDelayMillis, maxDelayMillis));
+            connect(slots[i]);
+          }
+        });
+    return this;
+  }
+
+  /** The connection to use, {@code null} while none is up. */
+  public Channel active() {
+    return active;
+  }
+
+  /** Connections up, the active one included. */
+  public int connected() {
+    int n = 0;
+    for (Slot slot : slots) {
+      if (slot != null && slot.channel != null) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  /** Closes the connections and stops reconnecting. */
+  @Override
+  public void close() {
+    closed = true;
+    loop.execute(
+        () -> {
+          active = null;
+          for (Slot slot : slots) {
+            if (slot != null && slot.channel != null) {
+              slot.channel.close();
+            }
+          }
+        });
+  }
+
+  private void connect(Slot slot) {
+    if (closed) {
+      return;
+    }
+    bootstrap
+        .connect()
+        .addListener(
+            (ChannelFutureListener)
+                f -> {
+                  if (!f.isSuccess()) {
+                    retry(slot);
+                    return;
+                  }
+                  Channel ch = f.channel();
+                  if (closed) {
+                    ch.close();
+                    return;
+                  }
+                  slot.channel = ch;
+                  slot.backoff.reset();
+                  ch.closeFuture().addListener(c -> disconnected(slot, ch));
+                  if (active == null) {
+                    active = ch;
+                  }
+                });
+  }
+
+  private void disconnected(Slot slot, Channel ch) {
+    slot.channel = null;
+    if (active == ch) {
+      active = standby();
+    }
+    retry(slot);
+  }
+
+  private void retry(Slot slot) {
+    if (!closed) {
+      loop.schedule(() -> connect(slot), slot.backoff.nextDelayMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** A connected spare to promote, or {@code null}. */
+  private Channel standby() {
+    for (Slot slot : slots) {
+      if (slot != null && slot.channel != null && slot.channel.isActive()) {
+        return slot.channel;
+      }
+    }
+    return null;
+  }
+
+  /** One of the connections, reconnected with its own backoff. Changed on the event loop only. */
+  private static final class Slot {
+    final Backoff backoff;
+    volatile Channel channel;
+
+    Slot(Backoff backoff) {
+      this.backoff = backoff;
+    }
+  }
+
+  /** The health check in front of the caller's handler. */
+  private final class Initializer extends ChannelInitializer<Channel> {
+    @Override
+    protected void initChannel(Channel ch) {
+      ChannelPipeline p = ch.pipeline();
+      if (readerIdleMillis > 0 || writerIdleMillis > 0) {
+        p.addLast(
+            new IdleStateHandler(readerIdleMillis, writerIdleMillis, 0, TimeUnit.MILLISECONDS));
+        p.addLast(new HealthCheck(probe));
+      }
+      p.addLast(handler);
+    }
+  }
+
+  /** Acts on the idle events and passes them on, so the handlers after it still see them. */
+  private static final class HealthCheck extends ChannelInboundHandlerAdapter {
+    private final Supplier<?> probe;
+
+    HealthCheck(Supplier<?> probe) {
+      this.probe = probe;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+      if (evt instanceof IdleStateEvent) {
+        IdleState state = ((IdleStateEvent) evt).state();
+        if (state == IdleState.READER_IDLE) {
+          // Silent for too long: as good as dead, the close hands over to a standby.
+          ctx.close();
+        } else if (state == IdleState.WRITER_IDLE && probe != null) {
+          ctx.writeAndFlush(probe.get())
+              .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        }
+      }
+      ctx.fireUserEventTriggered(evt);
+    }
+  }
+}
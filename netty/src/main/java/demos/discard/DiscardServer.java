@@ -1,17 +1,27 @@
 package demos.discard;
 
+import demos.metrics.NettyMetrics;
+import demos.transport.Transport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.ResourceLeakDetector;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DiscardServer class
  *
+ * <p>A sink to saturate the network against: it counts and drops what it receives and prints bytes
+ * and messages per second every {@code -Dstats.interval} seconds (default 1, 0 turns it off).
+ * {@code -Dreply} answers every message with the current date, {@code -DleakDetection=
+ * disabled|simple|advanced|paranoid} sets netty's leak detection level; leave it {@code disabled}
+ * for throughput runs, {@code paranoid} tracks every buffer when hunting a leak.
+ *
  * @author https://github.com/gukt
  */
 public class DiscardServer {
@@ -22,50 +32,81 @@ public class DiscardServer {
   }
 
   public void run() throws Exception {
+    String leakDetection = System.getProperty("leakDetection");
+    if (leakDetection != null) {
+      ResourceLeakDetector.setLevel(
+          ResourceLeakDetector.Level.valueOf(leakDetection.toUpperCase(Locale.ROOT)));
+    }
+    DiscardStats stats = new DiscardStats();
+    // Sharable, one instance serves all the connections.
+    DiscardServerHandler handler = new DiscardServerHandler(stats, Boolean.getBoolean("reply"));
+
     // NioEventLoopGroup 是一个用来处理 I/O 的多线程 EventLoop
     // 因为实现的是服务端的应用程序，所以这里需要 2 个 NioEventLoopGroup，
     // 第一个叫 boss，用来接受网络连接，第二个叫 worker，一旦 boss 接受了一个新的网络请求，就会将这条连接注册到 worker 中，
     // 然后该连接所有的后续 I/O 在 worker 中完成。
     // worker 具体使用多少个线程，依赖于具体的 EventLoopGroup 的实现，且可配置。
-    EventLoopGroup bossGroup = new NioEventLoopGroup(); // (1)
-    EventLoopGroup workerGroup = new NioEventLoopGroup();
+    // Linux 上 Transport 会换成 native epoll 的实现，其他平台仍然是 NIO，见 Transport。
+    Transport transport = Transport.fromSystemProperties();
+    EventLoopGroup bossGroup = transport.newBossGroup(); // (1)
+    EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+    // Over JMX, under demos.netty:type=Metrics.
+    NettyMetrics metrics = NettyMetrics.register("DiscardServer", workerGroup);
     try {
       // ServerBootstrap 是一个用以快速启动一个服务器（或客户端）的帮助类，虽然你可以不用它，但自己配置非常冗长乏味，
       // 通常你只需要使用 ServerBootstrap 就好了。
       ServerBootstrap b = new ServerBootstrap(); // (2)
-      b.group(bossGroup, workerGroup)
-          .channel(NioServerSocketChannel.class) // (3)
+      transport.configure(b.group(bossGroup, workerGroup)) // (3)
           // ChannelInitializer 是一个特别的 handler，目的是帮助我们配置新 Channel 的，
           // 因为每个 Channel 都需要初始化一个唯一的 ChannelPipeline，以便在 ChannelPipeline 中添加处理各种业务的 handle，
           // ChannelInitializer 就是帮我们做这方面工作的
           // 随着应用程序变得越来越复杂，这里可能要添加很多 handlers，如果那样可以将这里的匿名类移到更高一级定义在独立的类中。
           .childHandler(
-              new ChannelInitializer<SocketChannel>() { // (4)
+              metrics.instrument(new ChannelInitializer<SocketChannel>() { // (4)
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
                   //                  ch.pipeline().addLast(new PrintHandler());
-                  //                  ch.pipeline().addLast(new DiscardServerHandler());
-                  ch.pipeline().addLast(new InboundHandler1());
-                  ch.pipeline().addLast(new OutboundHandler1());
-                  ch.pipeline().addLast(new InboundHandler2());
-                  ch.pipeline().addLast(new OutboundHandler2());
-                  ch.pipeline().addLast(new InboundHandler3());
-//                  ch.pipeline().addLast(new DiscardServerHandler());
+                  // InboundHandler1..3 and OutboundHandler1..2 show in which order a pipeline
+                  // runs inbound and outbound handlers, swap them in to watch it.
+                  //                  ch.pipeline().addLast(new InboundHandler1());
+                  //                  ch.pipeline().addLast(new OutboundHandler1());
+                  //                  ch.pipeline().addLast(new InboundHandler2());
+                  //                  ch.pipeline().addLast(new OutboundHandler2());
+                  //                  ch.pipeline().addLast(new InboundHandler3());
+                  // Or, same order of events, as a single pipeline entry:
+                  //                  ch.pipeline().addLast(new FusedHandler(
+                  //                      new InboundHandler1(), new OutboundHandler1(),
+                  //                      new InboundHandler2(), new OutboundHandler2(),
+                  //                      new InboundHandler3()));
+                  ch.pipeline().addLast(handler);
                 }
-              })
+              }))
           // option 是用来配置 NioServerSocketChannel 的，NioServerSocketChannel 是用来接受新连接的
           // childOption 是用来配置 channel 的
           .option(ChannelOption.SO_BACKLOG, 128) // (5)
-          .childOption(ChannelOption.SO_KEEPALIVE, true); // (6)
+          .childOption(ChannelOption.SO_KEEPALIVE, true) // (6)
+          // Reads and replies go to pooled direct buffers: no copy on the way to the socket and
+          // no garbage per message.
+          .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
 
       // Bind and start to accept incoming connections.
-      ChannelFuture f = b.bind(port).sync(); // (7)
+      Channel channel = transport.bind(b, port); // (7)
+      System.out.println("DiscardServer listening on " + port + ", transport: " + transport);
+      long interval = Long.getLong("stats.interval", 1);
+      if (interval > 0) {
+        bossGroup.scheduleAtFixedRate(
+            () -> System.out.println("DiscardServer: " + stats.sample()),
+            interval,
+            interval,
+            TimeUnit.SECONDS);
+      }
 
       // Wait until the server socket is closed.
       // In this example, this does not happen, but you can do that to gracefully
       // shut down your server.
-      f.channel().closeFuture().sync();
+      channel.closeFuture().sync();
     } finally {
+      metrics.unregister();
       workerGroup.shutdownGracefully();
       bossGroup.shutdownGracefully();
     }
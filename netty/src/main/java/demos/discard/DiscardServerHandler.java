@@ -1,44 +1,63 @@
 package demos.discard;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
-import io.netty.util.concurrent.GenericFutureListener;
-
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
-import static io.netty.channel.ChannelFutureListener.CLOSE;
-
 /**
  * DiscardServerHandler class
  *
+ * <p>Counts and releases whatever it receives. With {@code reply} set it answers every message
+ * with the current date, written to a buffer of the channel's (pooled, direct) allocator and
+ * flushed once per read rather than once per message.
+ *
  * @author https://github.com/gukt
  */
+@Sharable
 public class DiscardServerHandler extends ChannelInboundHandlerAdapter {
 
+  private final DiscardStats stats;
+  private final boolean reply;
+
+  public DiscardServerHandler(DiscardStats stats, boolean reply) {
+    this.stats = stats;
+    this.reply = reply;
+  }
+
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) { // (2)
-    //    System.out.println(msg);
-    // Discard the received data silently.
-    //        ((ByteBuf) msg).release(); // (3)
-
     ByteBuf in = (ByteBuf) msg;
     try {
-      System.out.println("DiscardServerHandler:" + in.toString(StandardCharsets.UTF_8));
-      msg = Unpooled.copiedBuffer(new Date().toString().getBytes(StandardCharsets.UTF_8));
-      ctx.writeAndFlush(msg);
+      stats.record(in.readableBytes());
     } finally {
-      System.gc();
-      //          ReferenceCountUtil.release(msg); // (2)
+      // Discard the received data silently.
+      in.release(); // (3)
+    }
+    if (reply) {
+      String date = new Date().toString();
+      ByteBuf out = ctx.alloc().directBuffer(date.length());
+      ByteBufUtil.writeAscii(out, date);
+      ctx.write(out, ctx.voidPromise());
+    }
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    if (reply) {
+      ctx.flush();
     }
   }
 
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) { // (4)
-    // Close the connection when an exception is raised.
-    cause.printStackTrace();
-    ctx.close();
+    // Close the connection when an exception is raised. Every reply still queued on a closed
+    // connection fails the same way (they share the void promise), report the first one only.
+    if (ctx.channel().isActive()) {
+      cause.printStackTrace();
+      ctx.close();
+    }
   }
 }
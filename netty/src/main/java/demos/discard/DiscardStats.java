@@ -0,0 +1,53 @@
+package demos.discard;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bytes and messages received by the discard server, shared by all its connections.
+ *
+ * <p>A message is one inbound {@code ByteBuf}, i.e. one socket read: the discard server does not
+ * frame the stream, so it counts what the transport hands it.
+ *
+ * @author https://github.com/gukt
+ */
+public class DiscardStats {
+
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder messages = new LongAdder();
+  private long lastBytes;
+  private long lastMessages;
+  private long lastNanos = System.nanoTime();
+
+  void record(int readableBytes) {
+    bytes.add(readableBytes);
+    messages.increment();
+  }
+
+  public long bytes() {
+    return bytes.sum();
+  }
+
+  public long messages() {
+    return messages.sum();
+  }
+
+  /**
+   * Rates since the previous call, e.g. {@code "112.4 MB/s, 9120 msgs/s"}. Meant to be called from
+   * a single reporting thread.
+   */
+  public synchronized String sample() {
+    long now = System.nanoTime();
+    long totalBytes = bytes.sum();
+    long totalMessages = messages.sum();
+    double seconds = Math.max(1, now - lastNanos) / 1e9;
+    String rates =
+        String.format(
+            "%.1f MB/s, %.0f msgs/s",
+            (totalBytes - lastBytes) / seconds / (1024 * 1024),
+            (totalMessages - lastMessages) / seconds);
+    lastNanos = now;
+    lastBytes = totalBytes;
+    lastMessages = totalMessages;
+    return rates;
+  }
+}
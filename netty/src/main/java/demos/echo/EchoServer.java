@@ -15,15 +15,17 @@
  */
 package demos.echo;
 
+import demos.metrics.NettyMetrics;
+import demos.tls.Tls;
+import demos.transport.Transport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.SslContext;
@@ -36,27 +38,35 @@ public final class EchoServer {
 
     static final boolean SSL = System.getProperty("ssl") != null;
     static final int PORT = Integer.parseInt(System.getProperty("port", "18007"));
+    // Outbound bytes queued per channel at which reading from it stops, and resumes.
+    static final int HIGH_WATER_MARK = Integer.getInteger("writeBuffer.high", 64 * 1024);
+    static final int LOW_WATER_MARK = Integer.getInteger("writeBuffer.low", 32 * 1024);
 
     public static void main(String[] args) throws Exception {
-        // Configure SSL.
+        // Configure SSL: OpenSSL if netty-tcnative is there, with session resumption and ALPN.
         final SslContext sslCtx;
         if (SSL) {
-            SelfSignedCertificate ssc = new SelfSignedCertificate();
-            sslCtx = SslContext.newServerContext(ssc.certificate(), ssc.privateKey());
+            Tls tls = Tls.fromSystemProperties().alpn("echo");
+            sslCtx = tls.forServer(new SelfSignedCertificate());
+            System.out.println("TLS: " + tls);
         } else {
             sslCtx = null;
         }
 
         // Configure the server.
-        EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        Transport transport = Transport.fromSystemProperties();
+        EventLoopGroup bossGroup = transport.newBossGroup();
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+        // Over JMX, under demos.netty:type=Metrics.
+        NettyMetrics metrics = NettyMetrics.register("EchoServer", workerGroup);
         try {
             ServerBootstrap b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-             .channel(NioServerSocketChannel.class)
+            transport.configure(b.group(bossGroup, workerGroup))
              .option(ChannelOption.SO_BACKLOG, 100)
+             .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                     new WriteBufferWaterMark(LOW_WATER_MARK, HIGH_WATER_MARK))
              .handler(new LoggingHandler(LogLevel.INFO))
-             .childHandler(new ChannelInitializer<SocketChannel>() {
+             .childHandler(metrics.instrument(new ChannelInitializer<SocketChannel>() {
                  @Override
                  public void initChannel(SocketChannel ch) throws Exception {
                      ChannelPipeline p = ch.pipeline();
@@ -66,15 +76,16 @@ public final class EchoServer {
                      //p.addLast(new LoggingHandler(LogLevel.INFO));
                      p.addLast(new EchoServerHandler());
                  }
-             });
+             }));
 
             // Start the server.
-            ChannelFuture f = b.bind(PORT).sync();
+            Channel channel = transport.bind(b, PORT);
 
             // Wait until the server socket is closed.
-            f.channel().closeFuture().sync();
+            channel.closeFuture().sync();
         } finally {
             // Shut down all event loops to terminate all threads.
+            metrics.unregister();
             bossGroup.shutdownGracefully();
             workerGroup.shutdownGracefully();
         }
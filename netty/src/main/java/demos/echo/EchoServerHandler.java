@@ -21,6 +21,12 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 
 /**
  * Handler implementation for the echo server.
+ *
+ * <p>A client that sends faster than it reads would otherwise make the echoed data pile up in
+ * the outbound buffer until the server runs out of memory. Once the buffer passes the channel's
+ * high write-buffer watermark, reading from that client stops ({@code AUTO_READ} off) until the
+ * buffer drains below the low watermark. What is queued per channel is then bounded by the high
+ * watermark plus one read.
  */
 @Sharable
 public class EchoServerHandler extends ChannelInboundHandlerAdapter {
@@ -28,6 +34,19 @@ public class EchoServerHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         ctx.write(msg);
+        if (!ctx.channel().isWritable()) {
+            // Stop reading and push out what is queued, channelWritabilityChanged resumes.
+            ctx.channel().config().setAutoRead(false);
+            ctx.flush();
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            ctx.channel().config().setAutoRead(true);
+        }
+        ctx.fireChannelWritabilityChanged();
     }
 
     @Override
@@ -0,0 +1,120 @@
+package demos.handler;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Turns the flushes issued while a read is in progress into a single flush at {@code
+ * channelReadComplete}, so a handler that answers every message with {@code writeAndFlush} costs
+ * one {@code write(2)} per read instead of one per message. The flushes issued in {@code
+ * channelReadComplete} by the handlers behind it are part of that single flush.
+ *
+ * <p>A batch is also flushed once {@code maxBatch} messages have been written, which bounds the
+ * memory held back and the latency of the first message when a single read carries thousands of
+ * them. Whatever was written during a read goes out at {@code channelReadComplete}, flushed or
+ * not. Flushes that happen outside a read (from a timer or another thread) are passed on right
+ * away.
+ *
+ * <p>Add it in front of the handlers whose flushes it should batch, i.e. first in the pipeline or
+ * right after the {@code SslHandler}. Not sharable, it keeps per-channel state. Netty's {@code
+ * FlushConsolidationHandler} does the same counting flushes only; this one counts writes too, so it
+ * also bounds handlers that never flush themselves.
+ *
+ * @author https://github.com/gukt
+ */
+public class BatchFlushHandler extends ChannelDuplexHandler {
+
+  public static final int DEFAULT_MAX_BATCH = 256;
+
+  private final int maxBatch;
+  private boolean readInProgress;
+  private boolean flushPending;
+  private int pendingWrites;
+
+  public BatchFlushHandler() {
+    this(DEFAULT_MAX_BATCH);
+  }
+
+  public BatchFlushHandler(int maxBatch) {
+    if (maxBatch < 1) {
+      throw new IllegalArgumentException("maxBatch: " + maxBatch + " (expected: > 0)");
+    }
+    this.maxBatch = maxBatch;
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    readInProgress = true;
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    // Handlers behind often flush in channelReadComplete: let them, then flush once.
+    ctx.fireChannelReadComplete();
+    readInProgress = false;
+    flushIfPending(ctx);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+    ctx.write(msg, promise);
+    if (++pendingWrites >= maxBatch) {
+      flushNow(ctx);
+    }
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) {
+    if (readInProgress) {
+      flushPending = true;
+    } else {
+      flushNow(ctx);
+    }
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+    // Held back bytes count towards the high watermark, let them go out.
+    if (!ctx.channel().isWritable()) {
+      flushIfPending(ctx);
+    }
+    ctx.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    flushIfPending(ctx);
+    ctx.fireExceptionCaught(cause);
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+    flushIfPending(ctx);
+    ctx.disconnect(promise);
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+    flushIfPending(ctx);
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    flushIfPending(ctx);
+  }
+
+  private void flushIfPending(ChannelHandlerContext ctx) {
+    if (flushPending || pendingWrites > 0) {
+      flushNow(ctx);
+    }
+  }
+
+  private void flushNow(ChannelHandlerContext ctx) {
+    flushPending = false;
+    pendingWrites = 0;
+    ctx.flush();
+  }
+}
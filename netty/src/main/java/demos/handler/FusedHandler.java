@@ -0,0 +1,768 @@
+package demos.handler;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelProgressivePromise;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+import java.net.SocketAddress;
+
+/**
+ * Runs several handlers as one pipeline entry. Every handler gets a context of its own that hands
+ * events straight to its neighbour in the fused chain, instead of going through the pipeline's
+ * lookup of the next context and its invocation guard at every hop; netty's {@code
+ * CombinedChannelDuplexHandler} does the same for one inbound and one outbound handler. Each hop
+ * still checks that it runs on the event loop, as a handler may call its context from any thread.
+ *
+ * <pre>
+ *   // Same events in the same order as addLast(h1, h2, h3, h4, h5), one hop instead of five.
+ *   pipeline.addLast(new FusedHandler(h1, h2, h3, h4, h5));
+ * </pre>
+ *
+ * <p>The order is the pipeline's: inbound events go through the inbound handlers first to last,
+ * exceptions through every handler first to last, and an outbound operation issued from a
+ * handler's context goes through the outbound handlers before it, last to first, then on to the
+ * handlers in front of the fused one. An operation that reaches the fused handler from behind
+ * starts at its last outbound handler. An exception thrown by a handler goes to its own {@code
+ * exceptionCaught} (inbound events) or fails the promise (outbound operations), as in a pipeline.
+ *
+ * <p>The fused handler is a pipeline entry itself, so it pays off from a few handlers on; fusing
+ * two saves nothing. See {@code FusedHandlerBenchmark} for the numbers by pipeline depth.
+ *
+ * <p>Meant for handlers that keep no per-channel state or only state of their own, built at
+ * pipeline-build time. A fused handler cannot be looked up, replaced or removed in the pipeline
+ * on its own, and {@link ChannelInitializer}s cannot be fused, they remove themselves. Not
+ * sharable: the contexts belong to one channel, create one per channel.
+ *
+ * @author https://github.com/gukt
+ */
+public class FusedHandler extends ChannelDuplexHandler {
+
+  private static final InternalLogger logger =
+      InternalLoggerFactory.getInstance(FusedHandler.class);
+
+  private final ChannelHandler[] handlers;
+  private Stage[] stages;
+  // Where the events coming from the pipeline enter the fused chain, null if no handler takes them.
+  private Stage firstInbound;
+  private Stage lastOutbound;
+
+  public FusedHandler(ChannelHandler... handlers) {
+    if (handlers.length == 0) {
+      throw new IllegalArgumentException("handlers: empty");
+    }
+    for (ChannelHandler h : handlers) {
+      if (h instanceof ChannelInitializer) {
+        throw new IllegalArgumentException("cannot fuse a ChannelInitializer: " + h);
+      }
+      if (!(h instanceof ChannelInboundHandler) && !(h instanceof ChannelOutboundHandler)) {
+        throw new IllegalArgumentException("neither inbound nor outbound: " + h);
+      }
+    }
+    this.handlers = handlers.clone();
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+    stages = new Stage[handlers.length];
+    for (int i = 0; i < handlers.length; i++) {
+      stages[i] = new Stage(ctx, handlers[i], ctx.name() + '#' + i);
+    }
+    Stage nextInbound = null;
+    for (int i = stages.length - 1; i >= 0; i--) {
+      stages[i].nextInbound = nextInbound;
+      stages[i].next = i + 1 < stages.length ? stages[i + 1] : null;
+      if (stages[i].handler instanceof ChannelInboundHandler) {
+        nextInbound = stages[i];
+      }
+    }
+    firstInbound = nextInbound;
+    Stage previousOutbound = null;
+    for (Stage stage : stages) {
+      stage.previousOutbound = previousOutbound;
+      if (stage.handler instanceof ChannelOutboundHandler) {
+        previousOutbound = stage;
+      }
+    }
+    lastOutbound = previousOutbound;
+    for (Stage stage : stages) {
+      stage.handler.handlerAdded(stage);
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    for (int i = stages.length - 1; i >= 0; i--) {
+      stages[i].handler.handlerRemoved(stages[i]);
+    }
+  }
+
+  // Events from the pipeline, into the fused chain.
+
+  @Override
+  public void channelRegistered(ChannelHandlerContext ctx) {
+    channelRegistered(ctx, firstInbound);
+  }
+
+  @Override
+  public void channelUnregistered(ChannelHandlerContext ctx) {
+    channelUnregistered(ctx, firstInbound);
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) {
+    channelActive(ctx, firstInbound);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) {
+    channelInactive(ctx, firstInbound);
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    channelRead(ctx, firstInbound, msg);
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    channelReadComplete(ctx, firstInbound);
+  }
+
+  @Override
+  public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+    userEventTriggered(ctx, firstInbound, evt);
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+    channelWritabilityChanged(ctx, firstInbound);
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    exceptionCaught(ctx, stages[0], cause);
+  }
+
+  @Override
+  public void bind(ChannelHandlerContext ctx, SocketAddress localAddress, ChannelPromise promise) {
+    bind(ctx, lastOutbound, localAddress, promise);
+  }
+
+  @Override
+  public void connect(
+      ChannelHandlerContext ctx,
+      SocketAddress remoteAddress,
+      SocketAddress localAddress,
+      ChannelPromise promise) {
+    connect(ctx, lastOutbound, remoteAddress, localAddress, promise);
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+    disconnect(ctx, lastOutbound, promise);
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+    close(ctx, lastOutbound, promise);
+  }
+
+  @Override
+  public void deregister(ChannelHandlerContext ctx, ChannelPromise promise) {
+    deregister(ctx, lastOutbound, promise);
+  }
+
+  @Override
+  public void read(ChannelHandlerContext ctx) {
+    read(ctx, lastOutbound);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+    write(ctx, lastOutbound, msg, promise);
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) {
+    flush(ctx, lastOutbound);
+  }
+
+  // Dispatch to a stage, or out of the fused chain through the real context when it is null. The
+  // stage is an inbound handler for the inbound events and an outbound one for the operations.
+
+  private static void channelRegistered(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelRegistered();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelRegistered(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelUnregistered(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelUnregistered();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelUnregistered(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelActive(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelActive();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelActive(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelInactive(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelInactive();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelInactive(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelRead(ChannelHandlerContext ctx, Stage s, Object msg) {
+    if (s == null) {
+      ctx.fireChannelRead(msg);
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelRead(s, msg);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelReadComplete(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelReadComplete();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelReadComplete(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void userEventTriggered(ChannelHandlerContext ctx, Stage s, Object evt) {
+    if (s == null) {
+      ctx.fireUserEventTriggered(evt);
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).userEventTriggered(s, evt);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void channelWritabilityChanged(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.fireChannelWritabilityChanged();
+      return;
+    }
+    try {
+      ((ChannelInboundHandler) s.handler).channelWritabilityChanged(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  @SuppressWarnings("deprecation")
+  private static void exceptionCaught(ChannelHandlerContext ctx, Stage s, Throwable cause) {
+    if (s == null) {
+      ctx.fireExceptionCaught(cause);
+      return;
+    }
+    try {
+      s.handler.exceptionCaught(s, cause);
+    } catch (Throwable t) {
+      logger.warn("exceptionCaught() of {} threw while handling:", s.name, cause);
+      logger.warn("the exception it threw:", t);
+    }
+  }
+
+  /** A handler threw handling an inbound event: its own exceptionCaught gets it, as in netty. */
+  private static void handlerException(Stage s, Throwable t) {
+    exceptionCaught(s.ctx, s, t);
+  }
+
+  private static void bind(
+      ChannelHandlerContext ctx, Stage s, SocketAddress localAddress, ChannelPromise promise) {
+    if (s == null) {
+      ctx.bind(localAddress, promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).bind(s, localAddress, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void connect(
+      ChannelHandlerContext ctx,
+      Stage s,
+      SocketAddress remoteAddress,
+      SocketAddress localAddress,
+      ChannelPromise promise) {
+    if (s == null) {
+      ctx.connect(remoteAddress, localAddress, promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).connect(s, remoteAddress, localAddress, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void disconnect(ChannelHandlerContext ctx, Stage s, ChannelPromise promise) {
+    if (s == null) {
+      ctx.disconnect(promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).disconnect(s, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void close(ChannelHandlerContext ctx, Stage s, ChannelPromise promise) {
+    if (s == null) {
+      ctx.close(promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).close(s, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void deregister(ChannelHandlerContext ctx, Stage s, ChannelPromise promise) {
+    if (s == null) {
+      ctx.deregister(promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).deregister(s, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void read(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.read();
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).read(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void write(
+      ChannelHandlerContext ctx, Stage s, Object msg, ChannelPromise promise) {
+    if (s == null) {
+      ctx.write(msg, promise);
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).write(s, msg, promise);
+    } catch (Throwable t) {
+      fail(promise, t);
+    }
+  }
+
+  private static void flush(ChannelHandlerContext ctx, Stage s) {
+    if (s == null) {
+      ctx.flush();
+      return;
+    }
+    try {
+      ((ChannelOutboundHandler) s.handler).flush(s);
+    } catch (Throwable t) {
+      handlerException(s, t);
+    }
+  }
+
+  private static void fail(ChannelPromise promise, Throwable t) {
+    if (!promise.tryFailure(t)) {
+      logger.warn("Failed to mark a promise as failure because it has completed already:", t);
+    }
+  }
+
+  /**
+   * The context of one fused handler. Channel, executor, allocator and promises are the fused
+   * handler's; events and operations go to the neighbours in the fused chain, switching to the
+   * event loop first when called from another thread, like a pipeline context.
+   */
+  private static final class Stage implements ChannelHandlerContext {
+    final ChannelHandlerContext ctx;
+    final ChannelHandler handler;
+    final String name;
+    Stage next;
+    Stage nextInbound;
+    Stage previousOutbound;
+
+    Stage(ChannelHandlerContext ctx, ChannelHandler handler, String name) {
+      this.ctx = ctx;
+      this.handler = handler;
+      this.name = name;
+    }
+
+    @Override
+    public Channel channel() {
+      return ctx.channel();
+    }
+
+    @Override
+    public EventExecutor executor() {
+      return ctx.executor();
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public ChannelHandler handler() {
+      return handler;
+    }
+
+    @Override
+    public boolean isRemoved() {
+      return ctx.isRemoved();
+    }
+
+    @Override
+    public ChannelPipeline pipeline() {
+      return ctx.pipeline();
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+      return ctx.alloc();
+    }
+
+    @Deprecated
+    @Override
+    @SuppressWarnings("deprecation")
+    public <T> Attribute<T> attr(AttributeKey<T> key) {
+      return ctx.channel().attr(key);
+    }
+
+    @Deprecated
+    @Override
+    @SuppressWarnings("deprecation")
+    public <T> boolean hasAttr(AttributeKey<T> key) {
+      return ctx.channel().hasAttr(key);
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelRegistered() {
+      if (inEventLoop()) {
+        channelRegistered(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelRegistered(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelUnregistered() {
+      if (inEventLoop()) {
+        channelUnregistered(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelUnregistered(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelActive() {
+      if (inEventLoop()) {
+        channelActive(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelActive(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelInactive() {
+      if (inEventLoop()) {
+        channelInactive(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelInactive(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireExceptionCaught(Throwable cause) {
+      if (inEventLoop()) {
+        exceptionCaught(ctx, next, cause);
+      } else {
+        executor().execute(() -> exceptionCaught(ctx, next, cause));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireUserEventTriggered(Object evt) {
+      if (inEventLoop()) {
+        userEventTriggered(ctx, nextInbound, evt);
+      } else {
+        executor().execute(() -> userEventTriggered(ctx, nextInbound, evt));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelRead(Object msg) {
+      if (inEventLoop()) {
+        channelRead(ctx, nextInbound, msg);
+      } else {
+        executor().execute(() -> channelRead(ctx, nextInbound, msg));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelReadComplete() {
+      if (inEventLoop()) {
+        channelReadComplete(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelReadComplete(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelHandlerContext fireChannelWritabilityChanged() {
+      if (inEventLoop()) {
+        channelWritabilityChanged(ctx, nextInbound);
+      } else {
+        executor().execute(() -> channelWritabilityChanged(ctx, nextInbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelFuture bind(SocketAddress localAddress) {
+      return bind(localAddress, newPromise());
+    }
+
+    @Override
+    public ChannelFuture connect(SocketAddress remoteAddress) {
+      return connect(remoteAddress, null, newPromise());
+    }
+
+    @Override
+    public ChannelFuture connect(SocketAddress remoteAddress, SocketAddress localAddress) {
+      return connect(remoteAddress, localAddress, newPromise());
+    }
+
+    @Override
+    public ChannelFuture disconnect() {
+      return disconnect(newPromise());
+    }
+
+    @Override
+    public ChannelFuture close() {
+      return close(newPromise());
+    }
+
+    @Override
+    public ChannelFuture deregister() {
+      return deregister(newPromise());
+    }
+
+    @Override
+    public ChannelFuture bind(SocketAddress localAddress, ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.bind(ctx, previousOutbound, localAddress, promise);
+      } else {
+        executor().execute(() -> FusedHandler.bind(ctx, previousOutbound, localAddress, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelFuture connect(SocketAddress remoteAddress, ChannelPromise promise) {
+      return connect(remoteAddress, null, promise);
+    }
+
+    @Override
+    public ChannelFuture connect(
+        SocketAddress remoteAddress, SocketAddress localAddress, ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.connect(ctx, previousOutbound, remoteAddress, localAddress, promise);
+      } else {
+        executor()
+            .execute(
+                () ->
+                    FusedHandler.connect(
+                        ctx, previousOutbound, remoteAddress, localAddress, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelFuture disconnect(ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.disconnect(ctx, previousOutbound, promise);
+      } else {
+        executor().execute(() -> FusedHandler.disconnect(ctx, previousOutbound, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelFuture close(ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.close(ctx, previousOutbound, promise);
+      } else {
+        executor().execute(() -> FusedHandler.close(ctx, previousOutbound, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelFuture deregister(ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.deregister(ctx, previousOutbound, promise);
+      } else {
+        executor().execute(() -> FusedHandler.deregister(ctx, previousOutbound, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelHandlerContext read() {
+      if (inEventLoop()) {
+        FusedHandler.read(ctx, previousOutbound);
+      } else {
+        executor().execute(() -> FusedHandler.read(ctx, previousOutbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelFuture write(Object msg) {
+      return write(msg, newPromise());
+    }
+
+    @Override
+    public ChannelFuture write(Object msg, ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.write(ctx, previousOutbound, msg, promise);
+      } else {
+        executor().execute(() -> FusedHandler.write(ctx, previousOutbound, msg, promise));
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelHandlerContext flush() {
+      if (inEventLoop()) {
+        FusedHandler.flush(ctx, previousOutbound);
+      } else {
+        executor().execute(() -> FusedHandler.flush(ctx, previousOutbound));
+      }
+      return this;
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object msg, ChannelPromise promise) {
+      if (inEventLoop()) {
+        FusedHandler.write(ctx, previousOutbound, msg, promise);
+        FusedHandler.flush(ctx, previousOutbound);
+      } else {
+        executor()
+            .execute(
+                () -> {
+                  FusedHandler.write(ctx, previousOutbound, msg, promise);
+                  FusedHandler.flush(ctx, previousOutbound);
+                });
+      }
+      return promise;
+    }
+
+    @Override
+    public ChannelFuture writeAndFlush(Object msg) {
+      return writeAndFlush(msg, newPromise());
+    }
+
+    @Override
+    public ChannelPromise newPromise() {
+      return ctx.newPromise();
+    }
+
+    @Override
+    public ChannelProgressivePromise newProgressivePromise() {
+      return ctx.newProgressivePromise();
+    }
+
+    @Override
+    public ChannelFuture newSucceededFuture() {
+      return ctx.newSucceededFuture();
+    }
+
+    @Override
+    public ChannelFuture newFailedFuture(Throwable cause) {
+      return ctx.newFailedFuture(cause);
+    }
+
+    @Override
+    public ChannelPromise voidPromise() {
+      return ctx.voidPromise();
+    }
+
+    @Override
+    public String toString() {
+      return "FusedHandler.Stage(" + name + ", " + ctx.channel() + ')';
+    }
+
+    private boolean inEventLoop() {
+      return ctx.executor().inEventLoop();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package demos.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.ByteProcessor;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.List;
+
+/**
+ * Splits a stream of JSON objects and arrays into one message per top-level value, scanning the
+ * bytes of the {@code ByteBuf} (UTF-8) and never building a {@code String} of the input. Values
+ * can follow each other directly ({@code {..}{..}}) or be separated by whitespace, which covers
+ * newline-delimited JSON.
+ *
+ * <p>Without an {@link ObjectMapper} it emits every value as a retained slice of the input, to be
+ * released by whoever consumes it. With one it emits the parsed {@link JsonNode}; Jackson reads
+ * it straight from the bytes too, so only the strings inside the value become {@code String}s.
+ * Values in direct buffers are first copied into a scratch array reused on the event loop, as in
+ * {@link ProtobufFrameDecoder}.
+ *
+ * <p>The scanner only tracks strings, escapes and bracket depth, it does not validate; Jackson
+ * does when parsing. Scanning resumes where the previous read stopped, so a value split over many
+ * reads is scanned once. Top-level scalars are not supported, they have no closing delimiter.
+ *
+ * <p>A value longer than {@code maxFrameLength} fails with a {@link TooLongFrameException} once
+ * that many bytes have arrived. The rest of it is still scanned, and dropped, up to the byte that
+ * closes it: brackets inside its strings do not start new values.
+ *
+ * @author https://github.com/gukt
+ */
+public class JsonFrameDecoder extends ByteToMessageDecoder implements ByteProcessor {
+
+  public static final int DEFAULT_MAX_FRAME_LENGTH = 1024 * 1024;
+
+  /** Finds the first byte that is not JSON whitespace. */
+  private static final ByteProcessor SKIP_WHITESPACE =
+      b -> b == ' ' || b == '\n' || b == '\r' || b == '\t';
+
+  private static final FastThreadLocal<byte[][]> SCRATCH =
+      new FastThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+          return new byte[][] {new byte[1024]};
+        }
+      };
+
+  private final ObjectMapper mapper;
+  private final int maxFrameLength;
+  // Scanner state of the value being received, from its first byte at the reader index.
+  private int scanned;
+  private int depth;
+  private boolean inString;
+  private boolean escaped;
+  // The value being received is too long, its bytes are dropped until it closes.
+  private boolean discarding;
+
+  /** Emits the values as {@code ByteBuf} slices. */
+  public JsonFrameDecoder() {
+    this(null, DEFAULT_MAX_FRAME_LENGTH);
+  }
+
+  /** Emits the values parsed by {@code mapper}. */
+  public JsonFrameDecoder(ObjectMapper mapper) {
+    this(mapper, DEFAULT_MAX_FRAME_LENGTH);
+  }
+
+  /** @param mapper parses the values into {@link JsonNode}s, {@code null} emits slices */
+  public JsonFrameDecoder(ObjectMapper mapper, int maxFrameLength) {
+    if (maxFrameLength < 1) {
+      throw new IllegalArgumentException(
+          "maxFrameLength: " + maxFrameLength + " (expected: > 0)");
+    }
+    this.mapper = mapper;
+    this.maxFrameLength = maxFrameLength;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out)
+      throws Exception {
+    if (discarding) {
+      int end = in.forEachByte(this);
+      if (end < 0) {
+        in.skipBytes(in.readableBytes());
+      } else {
+        in.readerIndex(end + 1);
+        reset();
+      }
+      return;
+    }
+    if (scanned == 0 && !findStart(in)) {
+      return;
+    }
+    int start = in.readerIndex();
+    int end = in.forEachByte(start + scanned, in.writerIndex() - start - scanned, this);
+    if (end < 0) {
+      scanned = in.writerIndex() - start;
+      if (scanned > maxFrameLength) {
+        // Keep the scanner state to find where the value ends.
+        scanned = 0;
+        discarding = true;
+        in.skipBytes(in.readableBytes());
+        throw new TooLongFrameException("JSON value longer than " + maxFrameLength + " bytes");
+      }
+      return;
+    }
+    int length = end + 1 - start;
+    reset();
+    if (length > maxFrameLength) {
+      in.skipBytes(length);
+      throw new TooLongFrameException(
+          "JSON value length: " + length + " (max: " + maxFrameLength + ")");
+    }
+    if (mapper == null) {
+      out.add(in.retainedSlice(start, length));
+      in.skipBytes(length);
+      return;
+    }
+    in.skipBytes(length);
+    out.add(parse(in, start, length));
+  }
+
+  /** Skips the whitespace before the next value, {@code false} if there is nothing else. */
+  private boolean findStart(ByteBuf in) {
+    int start = in.forEachByte(SKIP_WHITESPACE);
+    if (start < 0) {
+      in.skipBytes(in.readableBytes());
+      return false;
+    }
+    in.readerIndex(start);
+    byte b = in.getByte(start);
+    if (b != '{' && b != '[') {
+      in.skipBytes(1);
+      throw new CorruptedFrameException(
+          "expected '{' or '[' at the start of a JSON value, got: " + (char) b);
+    }
+    return true;
+  }
+
+  private JsonNode parse(ByteBuf in, int start, int length) throws Exception {
+    if (in.hasArray()) {
+      return mapper.readTree(in.array(), in.arrayOffset() + start, length);
+    }
+    // The tree copies its strings and numbers out, the scratch array can be reused right away.
+    byte[][] holder = SCRATCH.get();
+    if (holder[0].length < length) {
+      holder[0] = new byte[Math.max(length, holder[0].length * 2)];
+    }
+    in.getBytes(start, holder[0], 0, length);
+    return mapper.readTree(holder[0], 0, length);
+  }
+
+  /** Scans one byte of the current value, {@code false} on the byte that closes it. */
+  @Override
+  public boolean process(byte b) {
+    if (inString) {
+      if (escaped) {
+        escaped = false;
+      } else if (b == '\\') {
+        escaped = true;
+      } else if (b == '"') {
+        inString = false;
+      }
+      return true;
+    }
+    switch (b) {
+      case '"':
+        inString = true;
+        return true;
+      case '{':
+      case '[':
+        depth++;
+        return true;
+      case '}':
+      case ']':
+        return --depth > 0;
+      default:
+        return true;
+    }
+  }
+
+  private void reset() {
+    scanned = 0;
+    depth = 0;
+    inString = false;
+    escaped = false;
+    discarding = false;
+  }
+}
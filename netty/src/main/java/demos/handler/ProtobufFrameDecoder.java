@@ -0,0 +1,126 @@
+package demos.handler;
+
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.List;
+
+/**
+ * Splits varint32 length-prefixed frames and parses each into a {@code T}, in one step. Replaces
+ * netty's {@code ProtobufVarint32FrameDecoder} + {@code ProtobufDecoder}, which slice every frame
+ * and, for direct buffers, copy it into a new {@code byte[]} before parsing.
+ *
+ * <p>Frames in heap buffers are parsed in place from the backing array. Frames in direct buffers
+ * (what the pooled allocator hands out for socket reads) are copied into a scratch array reused by
+ * everything decoded on the same event loop: protobuf-java 2.6 has no parser reading a direct
+ * {@code ByteBuffer} in place, {@code CodedInputStream.newInstance(ByteBuffer)} copies it into a
+ * new array. Parsed messages copy their strings and bytes out, so the scratch array can be reused
+ * as soon as {@code parseFrom} returns.
+ *
+ * <p>A frame longer than {@code maxFrameLength} fails with a {@link TooLongFrameException} as soon
+ * as its length prefix is read, and its body is skipped as it arrives, like {@code
+ * LengthFieldBasedFrameDecoder} does: decoding goes on with the frame after it.
+ *
+ * @author https://github.com/gukt
+ */
+public class ProtobufFrameDecoder<T extends MessageLite> extends ByteToMessageDecoder {
+
+  public static final int DEFAULT_MAX_FRAME_LENGTH = 1024 * 1024;
+
+  private static final FastThreadLocal<byte[][]> SCRATCH =
+      new FastThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+          return new byte[][] {new byte[1024]};
+        }
+      };
+
+  private final Parser<T> parser;
+  private final int maxFrameLength;
+  // What is left of the body of a frame that was too long.
+  private long bytesToDiscard;
+
+  public ProtobufFrameDecoder(Parser<T> parser) {
+    this(parser, DEFAULT_MAX_FRAME_LENGTH);
+  }
+
+  public ProtobufFrameDecoder(Parser<T> parser, int maxFrameLength) {
+    if (maxFrameLength < 1) {
+      throw new IllegalArgumentException(
+          "maxFrameLength: " + maxFrameLength + " (expected: > 0)");
+    }
+    this.parser = parser;
+    this.maxFrameLength = maxFrameLength;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out)
+      throws Exception {
+    if (bytesToDiscard > 0) {
+      discard(in);
+      if (bytesToDiscard > 0) {
+        return;
+      }
+    }
+    int start = in.readerIndex();
+    int length = readLength(in);
+    if (length < 0 || in.readableBytes() < length) {
+      // Wait for the rest of the frame.
+      in.readerIndex(start);
+      return;
+    }
+    int index = in.readerIndex();
+    in.skipBytes(length);
+    out.add(parse(in, index, length));
+  }
+
+  private void discard(ByteBuf in) {
+    int skipped = (int) Math.min(bytesToDiscard, in.readableBytes());
+    in.skipBytes(skipped);
+    bytesToDiscard -= skipped;
+  }
+
+  private T parse(ByteBuf in, int index, int length) throws Exception {
+    if (in.hasArray()) {
+      return parser.parseFrom(in.array(), in.arrayOffset() + index, length);
+    }
+    byte[][] holder = SCRATCH.get();
+    if (holder[0].length < length) {
+      holder[0] = new byte[Math.max(length, holder[0].length * 2)];
+    }
+    in.getBytes(index, holder[0], 0, length);
+    return parser.parseFrom(holder[0], 0, length);
+  }
+
+  /** The frame length, or {@code -1} if the prefix has not been received in full yet. */
+  private int readLength(ByteBuf in) {
+    int length = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (!in.isReadable()) {
+        return -1;
+      }
+      byte b = in.readByte();
+      if (shift == 28 && (b & 0xf0) != 0) {
+        // The fifth byte holds the last 4 bits of a varint32, and ends it.
+        break;
+      }
+      length |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        if (length < 0 || length > maxFrameLength) {
+          // Skip the body, the frame after it is decoded as usual.
+          bytesToDiscard = length & 0xffffffffL;
+          discard(in);
+          throw new TooLongFrameException(
+              "frame length: " + (length & 0xffffffffL) + " (max: " + maxFrameLength + ")");
+        }
+        return length;
+      }
+    }
+    throw new CorruptedFrameException("malformed varint32 frame length");
+  }
+}
@@ -1,17 +1,11 @@
 package demos.line;
 
+import demos.metrics.NettyMetrics;
+import demos.transport.Transport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelInitializer;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.LineBasedFrameDecoder;
-import io.netty.handler.codec.string.LineEncoder;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
 
 /**
  * DiscardServer class
@@ -27,29 +21,24 @@ public class EchoServer {
   }
 
   private void run() throws Exception {
-    EventLoopGroup bossGroup = new NioEventLoopGroup();
-    EventLoopGroup workerGroup = new NioEventLoopGroup();
+    Transport transport = Transport.fromSystemProperties();
+    EventLoopGroup bossGroup = transport.newBossGroup();
+    EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+    // Over JMX, under demos.netty:type=Metrics.
+    NettyMetrics metrics = NettyMetrics.register("LineEchoServer", workerGroup);
     try {
       ServerBootstrap b = new ServerBootstrap();
-      b.group(bossGroup, workerGroup)
-          .channel(NioServerSocketChannel.class)
+      transport
+          .configure(b.group(bossGroup, workerGroup))
+          // -DflushBatch=0 flushes every line on its own, as EchoServerHandler asks for.
           .childHandler(
-              new ChannelInitializer<SocketChannel>() {
-                @Override
-                public void initChannel(SocketChannel ch) throws Exception {
-                  ch.pipeline().addLast(new LineBasedFrameDecoder(65535, true, false));
-                  ch.pipeline().addLast(new StringDecoder());
-                  //                  ch.pipeline().addLast(new JsonObjectDecoder());
-                  //                  ch.pipeline().addLast(new JsonToMessageDecoder());
-                  ch.pipeline().addLast(new LineEncoder());
-                  ch.pipeline().addLast(new EchoServerHandler());
-                }
-              })
+              metrics.instrument(new EchoServerInitializer(Integer.getInteger("flushBatch", 256))))
           .option(ChannelOption.SO_BACKLOG, 128)
           .childOption(ChannelOption.SO_KEEPALIVE, true);
-      ChannelFuture f = b.bind(port).sync(); // (7)
-      f.channel().closeFuture().sync();
+      Channel channel = transport.bind(b, port); // (7)
+      channel.closeFuture().sync();
     } finally {
+      metrics.unregister();
       workerGroup.shutdownGracefully();
       bossGroup.shutdownGracefully();
     }
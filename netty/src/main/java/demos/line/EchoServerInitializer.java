@@ -0,0 +1,40 @@
+package demos.line;
+
+import demos.handler.BatchFlushHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.LineBasedFrameDecoder;
+import io.netty.handler.codec.string.LineEncoder;
+import io.netty.handler.codec.string.StringDecoder;
+
+/**
+ * EchoServerInitializer class
+ *
+ * <p>{@link EchoServerHandler} flushes every line it answers, a {@link BatchFlushHandler} in front
+ * of it turns that into one flush per read (or per {@code flushBatch} lines).
+ *
+ * @author https://github.com/gukt
+ */
+public class EchoServerInitializer extends ChannelInitializer<SocketChannel> {
+
+  private final int flushBatch;
+
+  /** @param flushBatch lines per flush at most, {@code 0} flushes every line on its own */
+  public EchoServerInitializer(int flushBatch) {
+    this.flushBatch = flushBatch;
+  }
+
+  @Override
+  public void initChannel(SocketChannel ch) throws Exception {
+    ChannelPipeline p = ch.pipeline();
+    if (flushBatch > 0) {
+      p.addLast(new BatchFlushHandler(flushBatch));
+    }
+    p.addLast(new LineBasedFrameDecoder(65535, true, false));
+    p.addLast(new StringDecoder());
+    //    p.addLast(new JsonFrameDecoder(new ObjectMapper()));
+    p.addLast(new LineEncoder());
+    p.addLast(new EchoServerHandler());
+  }
+}
@@ -1,25 +1,44 @@
 package demos.line;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
  * JsonToMessageDecoder class
  *
+ * <p>Parses every frame it gets (one JSON value, e.g. from {@code JsonObjectDecoder} or a line of
+ * newline-delimited JSON) into a {@code JsonNode}, reading the bytes directly rather than decoding
+ * the frame into a {@code String} first. {@link demos.handler.JsonFrameDecoder} does the framing
+ * and the parsing in one handler.
+ *
  * @author https://github.com/gukt
  */
 @Sharable
 public class JsonToMessageDecoder extends MessageToMessageDecoder<ByteBuf> {
 
+  private final ObjectMapper mapper;
+
+  public JsonToMessageDecoder() {
+    this(new ObjectMapper());
+  }
+
+  public JsonToMessageDecoder(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
-    String json = msg.toString(StandardCharsets.UTF_8);
-    System.out.println(json);
-    out.add(json);
+    if (msg.hasArray()) {
+      int offset = msg.arrayOffset() + msg.readerIndex();
+      out.add(mapper.readTree(msg.array(), offset, msg.readableBytes()));
+    } else {
+      out.add(mapper.readTree(new ByteBufInputStream(msg)));
+    }
   }
 }
@@ -0,0 +1,160 @@
+package demos.line;
+
+import demos.handler.BatchFlushHandler;
+import demos.transport.Transport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.ByteProcessor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of the line echo server with pipelining clients, flushing every line versus batching
+ * the flushes with a {@link BatchFlushHandler}.
+ *
+ * <p>Every client connection keeps {@code pipeline} lines in flight, so most reads of the server
+ * carry many lines; without batching each of them costs the server a {@code write(2)}.
+ *
+ * <pre>
+ *   java demos.line.LineEchoBenchmark [connections] [pipeline] [seconds]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class LineEchoBenchmark {
+
+  private static final ByteBuf LINE =
+      Unpooled.unreleasableBuffer(
+          Unpooled.directBuffer().writeBytes("hello\n".getBytes(StandardCharsets.US_ASCII)));
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+    int pipeline = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+    Transport transport = Transport.auto();
+    System.out.printf(
+        "connections=%d, pipeline=%d, duration=%ds, transport=%s%n",
+        connections, pipeline, seconds, transport);
+    System.out.printf("%-12s %15s%n", "flushBatch", "lines/s");
+    for (int flushBatch : new int[] {0, 16, BatchFlushHandler.DEFAULT_MAX_BATCH}) {
+      double rate = run(transport, flushBatch, connections, pipeline, seconds);
+      System.out.printf("%-12s %15.0f%n", flushBatch == 0 ? "off" : flushBatch, rate);
+    }
+  }
+
+  private static double run(
+      Transport transport, int flushBatch, int connections, int pipeline, int seconds)
+      throws InterruptedException {
+    EventLoopGroup bossGroup = transport.newBossGroup();
+    EventLoopGroup serverGroup = transport.newEventLoopGroup(0);
+    EventLoopGroup clientGroup = transport.newEventLoopGroup(0);
+    LongAdder lines = new LongAdder();
+    AtomicBoolean running = new AtomicBoolean(true);
+    try {
+      ServerBootstrap sb = new ServerBootstrap();
+      transport
+          .configure(sb.group(bossGroup, serverGroup))
+          .childHandler(new EchoServerInitializer(flushBatch));
+      Channel server = transport.bind(sb, 0);
+
+      Bootstrap cb = new Bootstrap();
+      transport
+          .configure(cb.group(clientGroup))
+          .handler(
+              new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                  ch.pipeline().addLast(new PipeliningClient(pipeline, lines, running));
+                }
+              });
+      List<Channel> clients = new ArrayList<>();
+      for (int i = 0; i < connections; i++) {
+        clients.add(cb.connect(server.localAddress()).sync().channel());
+      }
+
+      Thread.sleep(1000);
+      long before = lines.sum();
+      long start = System.nanoTime();
+      Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+      double rate = (lines.sum() - before) / ((System.nanoTime() - start) / 1e9);
+
+      running.set(false);
+      Thread.sleep(200);
+      for (Channel client : clients) {
+        client.close().sync();
+      }
+      server.close().sync();
+      return rate;
+    } finally {
+      clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+  }
+
+  /** Keeps {@code pipeline} lines in flight, sending one more per answer. */
+  private static class PipeliningClient extends ChannelInboundHandlerAdapter
+      implements ByteProcessor {
+    private final int pipeline;
+    private final LongAdder lines;
+    private final AtomicBoolean running;
+    private int answers;
+
+    PipeliningClient(int pipeline, LongAdder lines, AtomicBoolean running) {
+      this.pipeline = pipeline;
+      this.lines = lines;
+      this.running = running;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+      for (int i = 0; i < pipeline; i++) {
+        ctx.write(LINE.duplicate());
+      }
+      ctx.flush();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ByteBuf buf = (ByteBuf) msg;
+      answers = 0;
+      buf.forEachByte(this);
+      buf.release();
+      lines.add(answers);
+      for (int i = 0; i < answers && running.get(); i++) {
+        ctx.write(LINE.duplicate());
+      }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+      ctx.flush();
+    }
+
+    @Override
+    public boolean process(byte value) {
+      if (value == '\n') {
+        answers++;
+      }
+      return true;
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      cause.printStackTrace();
+      ctx.close();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package demos.metrics;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the messages going into and out of the handler right behind it, and times a sample of
+ * the inbound ones: from the moment a message is passed on until {@code channelRead} returns. For
+ * a handler that answers inline that is the handler plus the writes it issued; what it hands to
+ * another thread is not included. The time is inclusive: it covers every handler behind the
+ * timer that the message reaches, so put it in front of the last one to time that handler alone.
+ *
+ * <p>One in {@code 2^sampleShift} messages is timed, picked with {@code ThreadLocalRandom}, so
+ * the counters are the only shared state touched per message.
+ *
+ * @author https://github.com/gukt
+ */
+@Sharable
+public class HandlerTimer extends ChannelDuplexHandler {
+
+  private final String name;
+  private final int sampleMask;
+  final LongAdder messagesIn = new LongAdder();
+  final LongAdder messagesOut = new LongAdder();
+  final LongAdder samples = new LongAdder();
+  final LongAdder sampledNanos = new LongAdder();
+  final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  // Updated once a second by NettyMetrics.
+  volatile double messagesInRate;
+  volatile double messagesOutRate;
+  volatile double meanMicros;
+  volatile long maxMicros;
+  private long lastIn;
+  private long lastOut;
+
+  HandlerTimer(String name, int sampleShift) {
+    this.name = name;
+    this.sampleMask = (1 << sampleShift) - 1;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /** Messages that went into the timed handler so far. */
+  public long messagesIn() {
+    return messagesIn.sum();
+  }
+
+  /** Messages the timed handler, and those behind it, wrote so far. */
+  public long messagesOut() {
+    return messagesOut.sum();
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    messagesIn.increment();
+    if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+      ctx.fireChannelRead(msg);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      ctx.fireChannelRead(msg);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      samples.increment();
+      sampledNanos.add(elapsed);
+      maxNanos.accumulate(elapsed);
+    }
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+    messagesOut.increment();
+    ctx.write(msg, promise);
+  }
+
+  /** Turns the counters of the last {@code seconds} into rates. */
+  void sample(double seconds) {
+    long in = messagesIn.sum();
+    long out = messagesOut.sum();
+    messagesInRate = (in - lastIn) / seconds;
+    messagesOutRate = (out - lastOut) / seconds;
+    lastIn = in;
+    lastOut = out;
+    long n = samples.sumThenReset();
+    long nanos = sampledNanos.sumThenReset();
+    meanMicros = n == 0 ? 0 : nanos / 1000.0 / n;
+    maxMicros = maxNanos.getThenReset() / 1000;
+  }
+}
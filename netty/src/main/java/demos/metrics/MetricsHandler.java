@@ -0,0 +1,97 @@
+package demos.metrics;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+
+/**
+ * Counts the bytes of one channel, in and out, and adds them to its {@link NettyMetrics}. Goes
+ * first in the pipeline (in front of the {@code SslHandler} too), where it sees the bytes as they
+ * are read from and written to the socket.
+ *
+ * <p>The per-channel counters are only written from the channel's event loop; they are volatile
+ * so the JMX thread reads them whole.
+ *
+ * @author https://github.com/gukt
+ */
+public class MetricsHandler extends ChannelDuplexHandler {
+
+  private final NettyMetrics metrics;
+  private Channel channel;
+  private volatile long bytesIn;
+  private volatile long bytesOut;
+
+  MetricsHandler(NettyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void channelActive(ChannelHandlerContext ctx) {
+    channel = ctx.channel();
+    metrics.opened(this);
+    ctx.fireChannelActive();
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) {
+    metrics.closed(this);
+    ctx.fireChannelInactive();
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    long n = size(msg);
+    bytesIn += n;
+    metrics.read(n);
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+    // Counted when written to the pipeline, not when the socket took it; see pendingOutboundBytes.
+    long n = size(msg);
+    bytesOut += n;
+    metrics.written(n);
+    ctx.write(msg, promise);
+  }
+
+  long bytesIn() {
+    return bytesIn;
+  }
+
+  long bytesOut() {
+    return bytesOut;
+  }
+
+  /** Bytes written to the channel and not flushed to the socket yet. */
+  long pendingOutboundBytes() {
+    ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+    return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+  }
+
+  @Override
+  public String toString() {
+    return channel.remoteAddress()
+        + " in=" + bytesIn
+        + " out=" + bytesOut
+        + " pending=" + pendingOutboundBytes();
+  }
+
+  private static long size(Object msg) {
+    if (msg instanceof ByteBuf) {
+      return ((ByteBuf) msg).readableBytes();
+    }
+    if (msg instanceof ByteBufHolder) {
+      return ((ByteBufHolder) msg).content().readableBytes();
+    }
+    if (msg instanceof FileRegion) {
+      return ((FileRegion) msg).count();
+    }
+    return 0;
+  }
+}
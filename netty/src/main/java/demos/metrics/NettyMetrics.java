@@ -0,0 +1,293 @@
+package demos.metrics;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of one netty server, registered as an MXBean on the platform MBean server (jconsole,
+ * jmc, or any JMX client), whichever way the server was started: from its own {@code main} or
+ * inside the Spring Boot {@code demos.Application}.
+ *
+ * <pre>
+ *   NettyMetrics metrics = NettyMetrics.register("WorldClockServer", workerGroup);
+ *   b.childHandler(metrics.instrument(new WorldClockServerInitializer(sslCtx)));
+ * </pre>
+ *
+ * <p>{@link #instrument} puts a {@link MetricsHandler} (bytes per channel) first in every child
+ * pipeline and a {@link HandlerTimer} (messages and sampled processing time) in front of the last
+ * handler, the one the application wrote. Once a second a probe task turns the counters into
+ * rates, reads the task queue length of every event loop and submits a task to each of them to
+ * see how long it waits. All of it is a few counter increments per read and write, cheap enough
+ * to leave on.
+ *
+ * @author https://github.com/gukt
+ */
+public final class NettyMetrics implements NettyMetricsMXBean {
+
+  /** One in 64 messages is timed. */
+  public static final int DEFAULT_SAMPLE_SHIFT = 6;
+
+  private final String name;
+  private final Set<MetricsHandler> channels = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<String, HandlerTimer> timers = new ConcurrentHashMap<>();
+  private final List<EventExecutor> loops = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<EventExecutor, Long> lagNanos = new ConcurrentHashMap<>();
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+  private final LongAdder reads = new LongAdder();
+  private volatile double bytesInRate;
+  private volatile double bytesOutRate;
+  private volatile double readsRate;
+  private long lastBytesIn;
+  private long lastBytesOut;
+  private long lastReads;
+  private long lastNanos = System.nanoTime();
+  private ObjectName objectName;
+  private ScheduledFuture<?> probe;
+
+  private NettyMetrics(String name, EventLoopGroup group) {
+    this.name = name;
+    for (EventExecutor loop : group) {
+      loops.add(loop);
+    }
+  }
+
+  /**
+   * Starts the probe of {@code group} (the child, i.e. worker, group) and registers the metrics
+   * under {@code demos.netty:type=Metrics,name=<name>}.
+   */
+  public static NettyMetrics register(String name, EventLoopGroup group) {
+    NettyMetrics metrics = new NettyMetrics(name, group);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      metrics.objectName =
+          new ObjectName("demos.netty:type=Metrics,name=" + ObjectName.quote(name));
+      server.registerMBean(metrics, metrics.objectName);
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register the metrics of " + name, e);
+    }
+    metrics.probe = group.next().scheduleAtFixedRate(metrics::sample, 1, 1, TimeUnit.SECONDS);
+    return metrics;
+  }
+
+  /** Stops the probe and unregisters the MXBean. */
+  public void unregister() {
+    probe.cancel(false);
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException ignore) {
+      // Already gone.
+    }
+  }
+
+  /**
+   * Wraps the child handler of a server: the pipeline it sets up gets a {@link MetricsHandler}
+   * first and a {@link HandlerTimer}, named after the handler's class, in front of its last
+   * handler: the application's, behind the codecs. One timer per pipeline keeps the cost to a hop
+   * and a few counter increments per message; time other handlers with {@link #timer}.
+   */
+  public ChannelHandler instrument(ChannelHandler childHandler) {
+    return new ChannelInitializer<Channel>() {
+      @Override
+      protected void initChannel(Channel ch) {
+        ChannelPipeline p = ch.pipeline();
+        p.addLast(new MetricsHandler(NettyMetrics.this));
+        // A ChannelInitializer runs right away, the channel is registered already.
+        p.addLast(childHandler);
+        ChannelHandlerContext last = p.lastContext();
+        if (last != null && !(last.handler() instanceof MetricsHandler)) {
+          p.addBefore(last.name(), null, timer(handlerName(last.handler())));
+        }
+      }
+    };
+  }
+
+  /** The timer of {@code handlerName}, to add in front of that handler; one per name. */
+  public HandlerTimer timer(String handlerName) {
+    return timers.computeIfAbsent(
+        handlerName, n -> new HandlerTimer(n, DEFAULT_SAMPLE_SHIFT));
+  }
+
+  void opened(MetricsHandler channel) {
+    channels.add(channel);
+  }
+
+  void closed(MetricsHandler channel) {
+    channels.remove(channel);
+  }
+
+  void read(long bytes) {
+    bytesIn.add(bytes);
+    reads.increment();
+  }
+
+  void written(long bytes) {
+    bytesOut.add(bytes);
+  }
+
+  /** Runs once a second on one of the event loops. */
+  private void sample() {
+    long now = System.nanoTime();
+    double seconds = (now - lastNanos) / 1e9;
+    lastNanos = now;
+    long in = bytesIn.sum();
+    long out = bytesOut.sum();
+    long r = reads.sum();
+    bytesInRate = (in - lastBytesIn) / seconds;
+    bytesOutRate = (out - lastBytesOut) / seconds;
+    readsRate = (r - lastReads) / seconds;
+    lastBytesIn = in;
+    lastBytesOut = out;
+    lastReads = r;
+    for (HandlerTimer timer : timers.values()) {
+      timer.sample(seconds);
+    }
+    for (EventExecutor loop : loops) {
+      long submitted = System.nanoTime();
+      loop.execute(() -> lagNanos.put(loop, System.nanoTime() - submitted));
+    }
+  }
+
+  @Override
+  public int getOpenChannels() {
+    return channels.size();
+  }
+
+  @Override
+  public long getBytesIn() {
+    return bytesIn.sum();
+  }
+
+  @Override
+  public long getBytesOut() {
+    return bytesOut.sum();
+  }
+
+  @Override
+  public double getBytesInPerSecond() {
+    return bytesInRate;
+  }
+
+  @Override
+  public double getBytesOutPerSecond() {
+    return bytesOutRate;
+  }
+
+  @Override
+  public double getReadsPerSecond() {
+    return readsRate;
+  }
+
+  @Override
+  public long getPendingOutboundBytes() {
+    long pending = 0;
+    for (MetricsHandler channel : channels) {
+      pending += channel.pendingOutboundBytes();
+    }
+    return pending;
+  }
+
+  @Override
+  public Map<String, Integer> getTaskQueueLengths() {
+    Map<String, Integer> lengths = new LinkedHashMap<>();
+    for (int i = 0; i < loops.size(); i++) {
+      EventExecutor loop = loops.get(i);
+      if (loop instanceof SingleThreadEventExecutor) {
+        lengths.put(loopName(i), ((SingleThreadEventExecutor) loop).pendingTasks());
+      }
+    }
+    return lengths;
+  }
+
+  @Override
+  public Map<String, Long> getEventLoopLagMicros() {
+    Map<String, Long> lags = new LinkedHashMap<>();
+    for (int i = 0; i < loops.size(); i++) {
+      Long lag = lagNanos.get(loops.get(i));
+      lags.put(loopName(i), lag == null ? 0 : lag / 1000);
+    }
+    return lags;
+  }
+
+  @Override
+  public Map<String, Double> getMessagesInPerSecond() {
+    Map<String, Double> rates = new LinkedHashMap<>();
+    timers.forEach((n, timer) -> rates.put(n, timer.messagesInRate));
+    return rates;
+  }
+
+  @Override
+  public Map<String, Double> getMessagesOutPerSecond() {
+    Map<String, Double> rates = new LinkedHashMap<>();
+    timers.forEach((n, timer) -> rates.put(n, timer.messagesOutRate));
+    return rates;
+  }
+
+  @Override
+  public Map<String, Double> getHandlerMeanMicros() {
+    Map<String, Double> means = new LinkedHashMap<>();
+    timers.forEach((n, timer) -> means.put(n, timer.meanMicros));
+    return means;
+  }
+
+  @Override
+  public Map<String, Long> getHandlerMaxMicros() {
+    Map<String, Long> maxima = new LinkedHashMap<>();
+    timers.forEach((n, timer) -> maxima.put(n, timer.maxMicros));
+    return maxima;
+  }
+
+  @Override
+  public List<String> getChannels() {
+    List<String> lines = new ArrayList<>();
+    for (MetricsHandler channel : channels) {
+      lines.add(channel.toString());
+    }
+    return lines;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s: %d channels, in %.1f KB/s, out %.1f KB/s, %.0f reads/s, pending %d bytes,"
+            + " handlers %s us, lag %s us",
+        name,
+        getOpenChannels(),
+        bytesInRate / 1024,
+        bytesOutRate / 1024,
+        readsRate,
+        getPendingOutboundBytes(),
+        getHandlerMeanMicros(),
+        getEventLoopLagMicros());
+  }
+
+  private String loopName(int i) {
+    return "loop-" + i;
+  }
+
+  private static String handlerName(ChannelHandler handler) {
+    Class<?> type = handler.getClass();
+    return type.isAnonymousClass() ? type.getName() : type.getSimpleName();
+  }
+}
@@ -0,0 +1,52 @@
+package demos.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@link NettyMetrics} shows over JMX, under {@code demos.netty:type=Metrics,name=<server>}.
+ * Rates, means and maxima are over the last second.
+ *
+ * @author https://github.com/gukt
+ */
+public interface NettyMetricsMXBean {
+
+  int getOpenChannels();
+
+  long getBytesIn();
+
+  long getBytesOut();
+
+  double getBytesInPerSecond();
+
+  double getBytesOutPerSecond();
+
+  /** Socket reads, i.e. buffers handed to the pipeline, per second. */
+  double getReadsPerSecond();
+
+  /** Bytes written but not flushed to the sockets yet, over all channels. */
+  long getPendingOutboundBytes();
+
+  /** Tasks waiting in the queue of each event loop. */
+  Map<String, Integer> getTaskQueueLengths();
+
+  /** How long a task submitted to each event loop waited before it ran. */
+  Map<String, Long> getEventLoopLagMicros();
+
+  /** Messages per second reaching each timed handler. */
+  Map<String, Double> getMessagesInPerSecond();
+
+  /** Messages per second written by each timed handler. */
+  Map<String, Double> getMessagesOutPerSecond();
+
+  /**
+   * Sampled time per message in each timed handler, the handlers behind it included, see {@link
+   * HandlerTimer}.
+   */
+  Map<String, Double> getHandlerMeanMicros();
+
+  Map<String, Long> getHandlerMaxMicros();
+
+  /** One line per open channel: remote address, bytes in and out, pending outbound bytes. */
+  List<String> getChannels();
+}
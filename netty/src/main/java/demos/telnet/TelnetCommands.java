@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.telnet;
+
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The dispatch table of a {@link TelnetServerHandler}: the command names,
+ * built once into a map, and what each of them does.  A line is
+ * {@code <command> [arguments]}; the command is looked up in the table, in
+ * any case, and answers with one line.
+ *
+ * <p>Commands run on the channel's event loop and answer before the next
+ * line is read, which keeps the answers in the order of the commands even
+ * when a client sends many of them without waiting.  They must not block.
+ */
+public final class TelnetCommands {
+
+    /**
+     * A command of the table.
+     */
+    public interface Command {
+
+        /**
+         * Answers {@code args}, the rest of the line after the command name
+         * (empty if none), by writing to {@code ctx}.
+         */
+        void execute(ChannelHandlerContext ctx, String args);
+    }
+
+    // Set by bye: the lines pipelined after it are not answered.
+    private static final AttributeKey<Boolean> CLOSING =
+            AttributeKey.valueOf(TelnetCommands.class, "CLOSING");
+
+    private final Map<String, Command> commands;
+    private final String help;
+
+    private TelnetCommands(Map<String, Command> commands) {
+        Map<String, Command> table = new LinkedHashMap<>();
+        table.put("help", this::help);
+        table.putAll(commands);
+        this.commands = Collections.unmodifiableMap(table);
+        this.help = "Commands: " + String.join(", ", table.keySet()) + ".";
+    }
+
+    /**
+     * {@code help}, {@code echo}, {@code time}, {@code uptime} and
+     * {@code bye}.
+     */
+    public static TelnetCommands defaults() {
+        final long startTime = System.currentTimeMillis();
+        Map<String, Command> commands = new LinkedHashMap<>();
+        commands.put("echo", (ctx, args) -> ctx.writeAndFlush(args));
+        commands.put("time", (ctx, args) -> ctx.writeAndFlush("It is " + new Date() + " now."));
+        commands.put("uptime", (ctx, args) ->
+                ctx.writeAndFlush("Up " + (System.currentTimeMillis() - startTime) / 1000 + "s."));
+        commands.put("bye", (ctx, args) -> {
+            ctx.channel().attr(CLOSING).set(Boolean.TRUE);
+            ctx.writeAndFlush("Have a good day!").addListener(ChannelFutureListener.CLOSE);
+        });
+        return with(commands);
+    }
+
+    /**
+     * {@code commands}, names in lower case, and a {@code help} command
+     * listing them.
+     */
+    public static TelnetCommands with(Map<String, Command> commands) {
+        return new TelnetCommands(commands);
+    }
+
+    private void help(ChannelHandlerContext ctx, String args) {
+        ctx.writeAndFlush(help);
+    }
+
+    /**
+     * Runs the command of {@code line}.
+     */
+    public void dispatch(ChannelHandlerContext ctx, String line) {
+        if (ctx.channel().hasAttr(CLOSING)) {
+            return;
+        }
+        if (line.isEmpty()) {
+            ctx.writeAndFlush("Please type something.");
+            return;
+        }
+        int space = line.indexOf(' ');
+        String name = space < 0 ? line : line.substring(0, space);
+        Command command = commands.get(name);
+        if (command == null) {
+            // Only the names not typed in lower case pay for the conversion.
+            command = commands.get(name.toLowerCase(Locale.ROOT));
+        }
+        if (command == null) {
+            ctx.writeAndFlush("Unknown command: " + name + ". " + help);
+        } else {
+            command.execute(ctx, space < 0 ? "" : line.substring(space + 1).trim());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.telnet;
+
+import demos.metrics.NettyMetrics;
+import demos.tls.Tls;
+import demos.transport.Transport;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.logging.LogLevel;
+import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+
+/**
+ * Line-based admin console: answers the {@link TelnetCommands} typed in a
+ * telnet session or piped in by a script, one answer line per command line.
+ */
+public final class TelnetServer {
+
+    static final boolean SSL = System.getProperty("ssl") != null;
+    static final int PORT = Integer.parseInt(System.getProperty("port", SSL? "8992" : "8023"));
+
+    public static void main(String[] args) throws Exception {
+        // Configure SSL.
+        final SslContext sslCtx;
+        if (SSL) {
+            sslCtx = Tls.fromSystemProperties().forServer(new SelfSignedCertificate());
+        } else {
+            sslCtx = null;
+        }
+
+        Transport transport = Transport.fromSystemProperties();
+        EventLoopGroup bossGroup = transport.newBossGroup();
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+        // Over JMX, under demos.netty:type=Metrics.
+        NettyMetrics metrics = NettyMetrics.register("TelnetServer", workerGroup);
+        try {
+            ServerBootstrap b = new ServerBootstrap();
+            transport.configure(b.group(bossGroup, workerGroup))
+             .handler(new LoggingHandler(LogLevel.INFO))
+             .childHandler(metrics.instrument(
+                     new TelnetServerInitializer(TelnetCommands.defaults(), sslCtx)));
+
+            transport.bind(b, PORT).closeFuture().sync();
+        } finally {
+            metrics.unregister();
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully();
+        }
+    }
+}
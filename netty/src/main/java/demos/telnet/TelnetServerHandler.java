@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.telnet;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Date;
+
+/**
+ * Handles a server-side channel: greets the client and hands every line to
+ * the {@link TelnetCommands} dispatch table.  It keeps no per-channel state,
+ * so one instance serves all the channels.
+ */
+@Sharable
+public class TelnetServerHandler extends SimpleChannelInboundHandler<String> {
+
+    private final TelnetCommands commands;
+    private final String welcome;
+
+    public TelnetServerHandler(TelnetCommands commands) {
+        this.commands = commands;
+        // Looked up once, here: the host name may take a DNS query, which
+        // must not run on the event loop for every connection.
+        this.welcome = "Welcome to " + hostName() + "!";
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        // Send greeting for a new connection.
+        ctx.write(welcome);
+        ctx.writeAndFlush("It is " + new Date() + " now.");
+    }
+
+    @Override
+    public void channelRead0(ChannelHandlerContext ctx, String request) {
+        commands.dispatch(ctx, request);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        cause.printStackTrace();
+        ctx.close();
+    }
+}
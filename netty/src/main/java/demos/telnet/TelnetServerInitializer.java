@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.telnet;
+
+import demos.handler.BatchFlushHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+import io.netty.handler.codec.Delimiters;
+import io.netty.handler.codec.string.LineEncoder;
+import io.netty.handler.codec.string.LineSeparator;
+import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.ssl.SslContext;
+
+/**
+ * Creates a newly configured {@link ChannelPipeline} for a new channel.
+ *
+ * <p>The codecs and the handler are shared by all the channels; only the
+ * frame decoder and the {@link BatchFlushHandler} keep per-channel state.
+ * A client that pipelines commands gets its answers in order and, thanks to
+ * the {@code BatchFlushHandler}, in one flush per read rather than one per
+ * line.
+ */
+public class TelnetServerInitializer extends ChannelInitializer<SocketChannel> {
+
+    private static final StringDecoder DECODER = new StringDecoder();
+    // Ends every answer with CRLF, as telnet expects.
+    private static final LineEncoder ENCODER = new LineEncoder(LineSeparator.WINDOWS);
+
+    private final TelnetServerHandler serverHandler;
+    private final SslContext sslCtx;
+
+    public TelnetServerInitializer(TelnetCommands commands, SslContext sslCtx) {
+        this.serverHandler = new TelnetServerHandler(commands);
+        this.sslCtx = sslCtx;
+    }
+
+    @Override
+    public void initChannel(SocketChannel ch) {
+        ChannelPipeline pipeline = ch.pipeline();
+
+        if (sslCtx != null) {
+            pipeline.addLast(sslCtx.newHandler(ch.alloc()));
+        }
+
+        pipeline.addLast(new BatchFlushHandler());
+
+        // Add the text line codec combination first,
+        pipeline.addLast(new DelimiterBasedFrameDecoder(8192, Delimiters.lineDelimiter()));
+        pipeline.addLast(DECODER);
+        pipeline.addLast(ENCODER);
+
+        // and then business logic.
+        pipeline.addLast(serverHandler);
+    }
+}
@@ -0,0 +1,202 @@
+package demos.tls;
+
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolConfig.Protocol;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectedListenerFailureBehavior;
+import io.netty.handler.ssl.ApplicationProtocolConfig.SelectorFailureBehavior;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * Builds the {@code SslContext}s of the demo servers and clients: the OpenSSL engine
+ * (netty-tcnative with BoringSSL) when it is on the class path and loads, the JDK engine otherwise,
+ * with session resumption and ALPN set up the same way on both.
+ *
+ * <p>A full handshake costs the server a private key operation, the bulk of the CPU a new TLS
+ * connection takes, and OpenSSL does it several times faster than the JDK. A client that comes back
+ * resumes its session instead and skips it:
+ *
+ * <ul>
+ *   <li>{@link #sessionCacheSize(long)} and {@link #sessionTimeout(long)}: the sessions the server
+ *       keeps for resumption by session id (TLS 1.2), and those a client keeps to offer again;
+ *   <li>{@link #sessionTickets(boolean)}: stateless resumption, the session encrypted into a ticket
+ *       the client holds. OpenSSL makes and rotates the ticket keys itself; the JDK engine ignores
+ *       it and follows {@code -Djdk.tls.server.enableSessionTicketExtension} (on since JDK 13);
+ *   <li>{@link #alpn(String...)}: the application protocols negotiated in the handshake, so a
+ *       client learns what the server speaks without an extra round trip. Left out when the engine
+ *       has no ALPN support (JDK 8 before 8u252).
+ * </ul>
+ *
+ * <p>Clients resume only with an {@code SslHandler} made by {@code newHandler(alloc, host, port)},
+ * the session cache being keyed by peer.
+ *
+ * <pre>
+ *   Tls tls = Tls.fromSystemProperties().alpn("echo");
+ *   SslContext sslCtx = tls.forServer(new SelfSignedCertificate());
+ *   // in initChannel
+ *   p.addLast(sslCtx.newHandler(ch.alloc()));
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public final class Tls {
+
+  public static final long DEFAULT_SESSION_CACHE_SIZE = 20_000;
+  public static final long DEFAULT_SESSION_TIMEOUT_SECONDS = 300;
+
+  private final SslProvider provider;
+  private long sessionCacheSize = DEFAULT_SESSION_CACHE_SIZE;
+  private long sessionTimeout = DEFAULT_SESSION_TIMEOUT_SECONDS;
+  private boolean sessionTickets = true;
+  private List<String> alpn = Collections.emptyList();
+
+  private Tls(SslProvider provider) {
+    this.provider = provider;
+  }
+
+  /** OpenSSL if netty-tcnative loads here, the JDK engine otherwise. */
+  public static Tls auto() {
+    return new Tls(OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK);
+  }
+
+  public static Tls jdk() {
+    return new Tls(SslProvider.JDK);
+  }
+
+  /**
+   * The OpenSSL engine.
+   *
+   * @throws UnsatisfiedLinkError if netty-tcnative is not available here
+   */
+  public static Tls openSsl() {
+    OpenSsl.ensureAvailability();
+    return new Tls(SslProvider.OPENSSL);
+  }
+
+  /**
+   * Configured by system properties: {@code -Dtls.provider=auto|openssl|jdk} (default {@code
+   * auto}), {@code -Dtls.sessionCache=<sessions>}, {@code -Dtls.sessionTimeout=<seconds>} and
+   * {@code -Dtls.noTickets}.
+   */
+  public static Tls fromSystemProperties() {
+    String name = System.getProperty("tls.provider", "auto");
+    Tls tls;
+    switch (name) {
+      case "auto":
+        tls = auto();
+        break;
+      case "openssl":
+        tls = openSsl();
+        break;
+      case "jdk":
+        tls = jdk();
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "tls.provider: " + name + " (expected: auto, openssl, jdk)");
+    }
+    return tls.sessionCacheSize(Long.getLong("tls.sessionCache", DEFAULT_SESSION_CACHE_SIZE))
+        .sessionTimeout(Long.getLong("tls.sessionTimeout", DEFAULT_SESSION_TIMEOUT_SECONDS))
+        .sessionTickets(!Boolean.getBoolean("tls.noTickets"));
+  }
+
+  /** Sessions kept for resumption, {@code 0} for the engine's default. */
+  public Tls sessionCacheSize(long sessionCacheSize) {
+    if (sessionCacheSize < 0) {
+      throw new IllegalArgumentException(
+          "sessionCacheSize: " + sessionCacheSize + " (expected: >= 0)");
+    }
+    this.sessionCacheSize = sessionCacheSize;
+    return this;
+  }
+
+  /** Seconds a session can be resumed for, {@code 0} for the engine's default. */
+  public Tls sessionTimeout(long seconds) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("sessionTimeout: " + seconds + " (expected: >= 0)");
+    }
+    this.sessionTimeout = seconds;
+    return this;
+  }
+
+  /** Session tickets, OpenSSL only; see the class comment for the JDK engine. */
+  public Tls sessionTickets(boolean sessionTickets) {
+    this.sessionTickets = sessionTickets;
+    return this;
+  }
+
+  /** The application protocols, in order of preference. */
+  public Tls alpn(String... protocols) {
+    this.alpn = Collections.unmodifiableList(Arrays.asList(protocols.clone()));
+    return this;
+  }
+
+  public SslProvider provider() {
+    return provider;
+  }
+
+  public boolean isOpenSsl() {
+    return provider != SslProvider.JDK;
+  }
+
+  /** A server context presenting {@code certificate}, for tests and demos. */
+  public SslContext forServer(SelfSignedCertificate certificate) throws SSLException {
+    return forServer(certificate.certificate(), certificate.privateKey());
+  }
+
+  /** A server context presenting the PEM certificate chain and PKCS#8 private key. */
+  public SslContext forServer(File certChain, File key) throws SSLException {
+    SslContext sslCtx = configure(SslContextBuilder.forServer(certChain, key)).build();
+    if (sslCtx.sessionContext() instanceof OpenSslSessionContext) {
+      OpenSslSessionContext sessions = (OpenSslSessionContext) sslCtx.sessionContext();
+      if (sessionTickets) {
+        // No keys: BoringSSL makes and rotates its own.
+        sessions.setTicketKeys();
+      }
+    }
+    return sslCtx;
+  }
+
+  /** A client context checking the server certificate with {@code trustManager}. */
+  public SslContext forClient(TrustManagerFactory trustManager) throws SSLException {
+    return configure(SslContextBuilder.forClient().trustManager(trustManager)).build();
+  }
+
+  private SslContextBuilder configure(SslContextBuilder builder) {
+    builder.sslProvider(provider).sessionCacheSize(sessionCacheSize).sessionTimeout(sessionTimeout);
+    if (!alpn.isEmpty() && SslProvider.isAlpnSupported(provider)) {
+      builder.applicationProtocolConfig(
+          new ApplicationProtocolConfig(
+              Protocol.ALPN,
+              // Peers without ALPN, or with none of our protocols, still connect.
+              SelectorFailureBehavior.NO_ADVERTISE,
+              SelectedListenerFailureBehavior.ACCEPT,
+              alpn));
+    }
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return provider
+        + "(sessionCache="
+        + sessionCacheSize
+        + ", sessionTimeout="
+        + sessionTimeout
+        + "s, tickets="
+        + (isOpenSsl() ? sessionTickets : "jdk")
+        + ", alpn="
+        + alpn
+        + ")";
+  }
+}
@@ -0,0 +1,199 @@
+package demos.tls;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handshake rate of a {@link Tls} server on localhost with a self-signed certificate: {@code
+ * connections} TLS connections, {@code concurrency} at a time. The server answers the handshake
+ * with one byte and the client closes on reading it, after the session ticket that comes first
+ * (TLS 1.3). Full handshakes first, then with clients that resume their session, for the JDK
+ * engine and for OpenSSL when netty-tcnative is on the class path.
+ *
+ * <pre>
+ *   java demos.tls.TlsHandshakeBenchmark [connections] [concurrency]
+ * </pre>
+ *
+ * <p>On JDK 16 and later without Bouncy Castle, {@code SelfSignedCertificate} needs {@code
+ * --add-exports java.base/sun.security.x509=ALL-UNNAMED}.
+ *
+ * @author https://github.com/gukt
+ */
+public class TlsHandshakeBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+    int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+    List<Tls> engines = new ArrayList<>();
+    engines.add(Tls.jdk());
+    if (OpenSsl.isAvailable()) {
+      engines.add(Tls.openSsl());
+    } else {
+      System.out.println("OpenSSL not available: " + OpenSsl.unavailabilityCause());
+    }
+
+    SelfSignedCertificate certificate = new SelfSignedCertificate("localhost");
+    EventLoopGroup serverGroup = new NioEventLoopGroup();
+    EventLoopGroup clientGroup = new NioEventLoopGroup();
+    try {
+      System.out.printf(
+          "connections=%d, concurrency=%d, java=%s%n",
+          connections, concurrency, System.getProperty("java.version"));
+      System.out.printf("%-10s %-8s %10s %14s%n", "engine", "session", "ms", "handshakes/s");
+      for (Tls tls : engines) {
+        tls.alpn("benchmark");
+        SslContext serverCtx = tls.forServer(certificate);
+        SslContext clientCtx = tls.forClient(InsecureTrustManagerFactory.INSTANCE);
+        Channel server = bind(serverGroup, serverCtx);
+        int port = ((InetSocketAddress) server.localAddress()).getPort();
+        for (boolean resume : new boolean[] {false, true}) {
+          // The first run warms up.
+          run(clientGroup, clientCtx, port, resume, connections, concurrency);
+          long nanos = run(clientGroup, clientCtx, port, resume, connections, concurrency);
+          System.out.printf(
+              "%-10s %-8s %10d %14.0f%n",
+              tls.provider(),
+              resume ? "resumed" : "full",
+              nanos / 1_000_000,
+              connections / (nanos / 1e9));
+        }
+        server.close().sync();
+      }
+    } finally {
+      clientGroup.shutdownGracefully();
+      serverGroup.shutdownGracefully();
+      certificate.delete();
+    }
+  }
+
+  private static Channel bind(EventLoopGroup group, SslContext sslCtx) throws InterruptedException {
+    return new ServerBootstrap()
+        .group(group)
+        .channel(NioServerSocketChannel.class)
+        .childHandler(
+            new ChannelInitializer<SocketChannel>() {
+              @Override
+              protected void initChannel(SocketChannel ch) {
+                ch.pipeline().addLast(sslCtx.newHandler(ch.alloc()), new Greeting());
+              }
+            })
+        .bind("127.0.0.1", 0)
+        .sync()
+        .channel();
+  }
+
+  /** Nanoseconds until all the handshakes are done. */
+  private static long run(
+      EventLoopGroup group,
+      SslContext sslCtx,
+      int port,
+      boolean resume,
+      int connections,
+      int concurrency)
+      throws InterruptedException {
+    Bootstrap b =
+        new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .handler(
+                new ChannelInitializer<SocketChannel>() {
+                  @Override
+                  protected void initChannel(SocketChannel ch) {
+                    // Sessions are cached by peer: without it the client has none to offer.
+                    SslHandler ssl =
+                        resume
+                            ? sslCtx.newHandler(ch.alloc(), "localhost", port)
+                            : sslCtx.newHandler(ch.alloc());
+                    ch.pipeline().addLast(ssl, new CloseOnRead());
+                  }
+                });
+    Semaphore inFlight = new Semaphore(concurrency);
+    CountDownLatch done = new CountDownLatch(connections);
+    AtomicInteger failed = new AtomicInteger();
+    long start = System.nanoTime();
+    for (int i = 0; i < connections; i++) {
+      inFlight.acquire();
+      ChannelFuture connect = b.connect("127.0.0.1", port);
+      connect.addListener(
+          f -> {
+            if (!f.isSuccess()) {
+              failed.incrementAndGet();
+              inFlight.release();
+              done.countDown();
+              return;
+            }
+            Channel ch = connect.channel();
+            Future<Channel> handshake = ch.pipeline().get(SslHandler.class).handshakeFuture();
+            ch.closeFuture()
+                .addListener(
+                    c -> {
+                      if (!handshake.isSuccess()) {
+                        failed.incrementAndGet();
+                      }
+                      inFlight.release();
+                      done.countDown();
+                    });
+          });
+    }
+    done.await(5, TimeUnit.MINUTES);
+    long nanos = System.nanoTime() - start;
+    if (failed.get() > 0) {
+      throw new IllegalStateException(failed.get() + " handshakes failed");
+    }
+    return nanos;
+  }
+
+  /** Sends one byte once the handshake is done. */
+  private static final class Greeting extends ChannelInboundHandlerAdapter {
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+      if (evt instanceof SslHandshakeCompletionEvent) {
+        if (((SslHandshakeCompletionEvent) evt).isSuccess()) {
+          ctx.writeAndFlush(ctx.alloc().buffer(1).writeByte('!'));
+        } else {
+          ctx.close();
+        }
+      }
+      ctx.fireUserEventTriggered(evt);
+    }
+  }
+
+  private static final class CloseOnRead extends ChannelInboundHandlerAdapter {
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ReferenceCountUtil.release(msg);
+      ctx.close();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      ctx.close();
+    }
+  }
+}
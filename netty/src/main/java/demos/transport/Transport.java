@@ -0,0 +1,208 @@
+package demos.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.net.InetSocketAddress;
+
+/**
+ * Picks the channel implementation for the demo servers and clients: the native epoll transport
+ * when it is available (Linux), NIO everywhere else.
+ *
+ * <p>Epoll talks to the kernel through JNI instead of the JDK selector, which saves syscalls per
+ * event loop iteration and the garbage of the selected-key set, and it exposes Linux-only socket
+ * options. The options below are applied where they exist and silently ignored by NIO:
+ *
+ * <ul>
+ *   <li>{@link #edgeTriggered(boolean)}: edge-triggered epoll (netty's default) or level-triggered;
+ *   <li>{@link #tcpNoDelay(boolean)}: disables Nagle's algorithm, both transports;
+ *   <li>{@link #tcpQuickAck(boolean)}: ACKs right away instead of delaying them, epoll only;
+ *   <li>{@link #reusePort(int)}: binds several listeners to the port with {@code SO_REUSEPORT},
+ *       so accepting is spread over as many boss threads, epoll only.
+ * </ul>
+ *
+ * <pre>
+ *   Transport transport = Transport.fromSystemProperties();
+ *   EventLoopGroup bossGroup = transport.newBossGroup();
+ *   EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+ *   ServerBootstrap b = transport.configure(new ServerBootstrap().group(bossGroup, workerGroup));
+ *   transport.bind(b, port).closeFuture().sync();
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public final class Transport {
+
+  private final boolean epoll;
+  private boolean edgeTriggered = true;
+  private boolean tcpNoDelay = true;
+  private boolean tcpQuickAck;
+  private int listeners = 1;
+
+  private Transport(boolean epoll) {
+    this.epoll = epoll;
+  }
+
+  /** Epoll if the native library loads on this machine, NIO otherwise. */
+  public static Transport auto() {
+    return new Transport(Epoll.isAvailable());
+  }
+
+  public static Transport nio() {
+    return new Transport(false);
+  }
+
+  /**
+   * The native epoll transport.
+   *
+   * @throws UnsatisfiedLinkError if it is not available here
+   */
+  public static Transport epoll() {
+    Epoll.ensureAvailability();
+    return new Transport(true);
+  }
+
+  /**
+   * Configured by system properties, so every demo server can be switched without code changes:
+   * {@code -Dtransport=auto|epoll|nio} (default {@code auto}), {@code -Dtransport.levelTriggered},
+   * {@code -Dtransport.noTcpNoDelay}, {@code -Dtransport.quickAck} and {@code
+   * -Dtransport.reusePort=<listeners>}.
+   */
+  public static Transport fromSystemProperties() {
+    String name = System.getProperty("transport", "auto");
+    Transport transport;
+    switch (name) {
+      case "auto":
+        transport = auto();
+        break;
+      case "epoll":
+        transport = epoll();
+        break;
+      case "nio":
+        transport = nio();
+        break;
+      default:
+        throw new IllegalArgumentException("transport: " + name + " (expected: auto, epoll, nio)");
+    }
+    return transport
+        .edgeTriggered(!Boolean.getBoolean("transport.levelTriggered"))
+        .tcpNoDelay(!Boolean.getBoolean("transport.noTcpNoDelay"))
+        .tcpQuickAck(Boolean.getBoolean("transport.quickAck"))
+        .reusePort(Integer.getInteger("transport.reusePort", 1));
+  }
+
+  public Transport edgeTriggered(boolean edgeTriggered) {
+    this.edgeTriggered = edgeTriggered;
+    return this;
+  }
+
+  public Transport tcpNoDelay(boolean tcpNoDelay) {
+    this.tcpNoDelay = tcpNoDelay;
+    return this;
+  }
+
+  public Transport tcpQuickAck(boolean tcpQuickAck) {
+    this.tcpQuickAck = tcpQuickAck;
+    return this;
+  }
+
+  /**
+   * Number of {@code SO_REUSEPORT} listeners {@link #bind} opens on the port, {@code 1} (the
+   * default) is a plain single listener. Needs epoll, NIO always binds one listener.
+   */
+  public Transport reusePort(int listeners) {
+    if (listeners < 1) {
+      throw new IllegalArgumentException("listeners: " + listeners + " (expected: >= 1)");
+    }
+    this.listeners = listeners;
+    return this;
+  }
+
+  public boolean isEpoll() {
+    return epoll;
+  }
+
+  /** {@code 0} threads means netty's default, twice the number of cores. */
+  public EventLoopGroup newEventLoopGroup(int threads) {
+    return epoll ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+  }
+
+  /** One accepting thread per listener. */
+  public EventLoopGroup newBossGroup() {
+    return newEventLoopGroup(epoll ? listeners : 1);
+  }
+
+  public Class<? extends ServerChannel> serverChannelClass() {
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  public Class<? extends Channel> channelClass() {
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /** Sets the server channel class and the options of this transport on {@code b}. */
+  public ServerBootstrap configure(ServerBootstrap b) {
+    b.channel(serverChannelClass()).childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    if (epoll) {
+      EpollMode mode = edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+      b.option(EpollChannelOption.EPOLL_MODE, mode)
+          .childOption(EpollChannelOption.EPOLL_MODE, mode)
+          .childOption(EpollChannelOption.TCP_QUICKACK, tcpQuickAck);
+      if (listeners > 1) {
+        b.option(EpollChannelOption.SO_REUSEPORT, true);
+      }
+    }
+    return b;
+  }
+
+  /** Sets the channel class and the options of this transport on a client bootstrap. */
+  public Bootstrap configure(Bootstrap b) {
+    b.channel(channelClass()).option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    if (epoll) {
+      b.option(
+              EpollChannelOption.EPOLL_MODE,
+              edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED)
+          .option(EpollChannelOption.TCP_QUICKACK, tcpQuickAck);
+    }
+    return b;
+  }
+
+  /**
+   * Binds {@code b} to {@code port}, once per listener with {@code SO_REUSEPORT}. Returns the first
+   * listener; the others go away with the boss group.
+   */
+  public Channel bind(ServerBootstrap b, int port) throws InterruptedException {
+    Channel first = b.bind(port).sync().channel();
+    // With port 0 the first listener picks the port, the others join it.
+    int boundPort = ((InetSocketAddress) first.localAddress()).getPort();
+    for (int i = 1; i < (epoll ? listeners : 1); i++) {
+      b.bind(boundPort).sync();
+    }
+    return first;
+  }
+
+  @Override
+  public String toString() {
+    if (!epoll) {
+      return "nio(tcpNoDelay=" + tcpNoDelay + ")";
+    }
+    return "epoll("
+        + (edgeTriggered ? "edge" : "level")
+        + "-triggered, tcpNoDelay=" + tcpNoDelay
+        + ", tcpQuickAck=" + tcpQuickAck
+        + ", listeners=" + listeners
+        + ")";
+  }
+}
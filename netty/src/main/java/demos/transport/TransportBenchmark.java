@@ -0,0 +1,187 @@
+package demos.transport;
+
+import demos.echo.EchoServerHandler;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the same echo workload over NIO and the native epoll transport (edge- and
+ * level-triggered) and prints throughput and the GC activity it caused.
+ *
+ * <p>Server and clients use the same transport. Every client connection keeps {@code pipeline}
+ * messages of {@code size} bytes in flight and sends the next one as soon as one comes back.
+ *
+ * <pre>
+ *   java demos.transport.TransportBenchmark [connections] [size] [pipeline] [seconds]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class TransportBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int size = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+    int pipeline = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+    List<Transport> transports = new ArrayList<>();
+    transports.add(Transport.nio());
+    if (Epoll.isAvailable()) {
+      transports.add(Transport.epoll());
+      transports.add(Transport.epoll().edgeTriggered(false));
+    } else {
+      System.out.println("epoll not available: " + Epoll.unavailabilityCause());
+    }
+
+    System.out.printf(
+        "connections=%d, size=%d, pipeline=%d, duration=%ds%n",
+        connections, size, pipeline, seconds);
+    System.out.printf(
+        "%-70s %12s %10s %8s %8s%n", "transport", "msgs/s", "MB/s", "gc", "gc(ms)");
+    for (Transport transport : transports) {
+      run(transport, connections, size, pipeline, seconds);
+    }
+  }
+
+  private static void run(Transport transport, int connections, int size, int pipeline, int seconds)
+      throws InterruptedException {
+    EventLoopGroup bossGroup = transport.newBossGroup();
+    EventLoopGroup serverGroup = transport.newEventLoopGroup(0);
+    EventLoopGroup clientGroup = transport.newEventLoopGroup(0);
+    LongAdder received = new LongAdder();
+    AtomicBoolean running = new AtomicBoolean(true);
+    try {
+      ServerBootstrap sb = new ServerBootstrap();
+      transport.configure(sb.group(bossGroup, serverGroup)).childHandler(new EchoServerHandler());
+      Channel server = transport.bind(sb, 0);
+
+      ByteBuf message = Unpooled.unreleasableBuffer(Unpooled.directBuffer(size).writeZero(size));
+      Bootstrap cb = new Bootstrap();
+      transport
+          .configure(cb.group(clientGroup))
+          .handler(
+              new ChannelInitializer<Channel>() {
+                @Override
+                protected void initChannel(Channel ch) {
+                  ch.pipeline()
+                      .addLast(new PingPongHandler(message, size, pipeline, received, running));
+                }
+              });
+      List<Channel> clients = new ArrayList<>();
+      for (int i = 0; i < connections; i++) {
+        clients.add(cb.connect(server.localAddress()).sync().channel());
+      }
+
+      // Warm up, then measure.
+      Thread.sleep(1000);
+      long gcCount = gcCount();
+      long gcTime = gcTime();
+      long before = received.sum();
+      long start = System.nanoTime();
+      Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+      long bytes = received.sum() - before;
+      double elapsed = (System.nanoTime() - start) / 1e9;
+      System.out.printf(
+          "%-70s %12.0f %10.1f %8d %8d%n",
+          transport,
+          bytes / size / elapsed,
+          bytes * 2 / elapsed / (1024 * 1024),
+          gcCount() - gcCount,
+          gcTime() - gcTime);
+
+      // Let the messages in flight come back, so closing does not reset busy connections.
+      running.set(false);
+      Thread.sleep(200);
+      for (Channel client : clients) {
+        client.close().sync();
+      }
+      server.close().sync();
+    } finally {
+      clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+  }
+
+  /** Keeps {@code pipeline} messages in flight, sending one more per message echoed. */
+  private static class PingPongHandler extends ChannelInboundHandlerAdapter {
+    private final ByteBuf message;
+    private final int size;
+    private final int pipeline;
+    private final LongAdder received;
+    private final AtomicBoolean running;
+    private long pendingBytes;
+
+    PingPongHandler(
+        ByteBuf message, int size, int pipeline, LongAdder received, AtomicBoolean running) {
+      this.message = message;
+      this.size = size;
+      this.pipeline = pipeline;
+      this.received = received;
+      this.running = running;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+      for (int i = 0; i < pipeline; i++) {
+        ctx.write(message.duplicate());
+      }
+      ctx.flush();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ByteBuf buf = (ByteBuf) msg;
+      int n = buf.readableBytes();
+      buf.release();
+      received.add(n);
+      pendingBytes += n;
+      for (; pendingBytes >= size && running.get(); pendingBytes -= size) {
+        ctx.write(message.duplicate());
+      }
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+      ctx.flush();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      cause.printStackTrace();
+      ctx.close();
+    }
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long gcTime() {
+    long time = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, gc.getCollectionTime());
+    }
+    return time;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.uptime;
+
+import demos.client.ReconnectingClient;
+import demos.transport.Transport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+
+/**
+ * Connects to a server periodically to measure and print the uptime of the
+ * server.  This example demonstrates how to implement reliable reconnection
+ * mechanism in Netty: the connections are kept up by a
+ * {@link ReconnectingClient}, with a warm standby connection ready to take
+ * over and jittered exponential backoff between the connect attempts, so the
+ * clients of a restarted server do not all come back at once.
+ */
+public final class UptimeClient {
+
+    static final String HOST = System.getProperty("host", "127.0.0.1");
+    static final int PORT = Integer.parseInt(System.getProperty("port", "8080"));
+    // Connections kept open besides the one in use.
+    static final int STANDBY = Integer.getInteger("standby", 1);
+    // First reconnect within 100 ms, doubling up to 10 s while the server stays down.
+    static final long BACKOFF_BASE = Long.getLong("backoff.base", 100);
+    static final long BACKOFF_MAX = Long.getLong("backoff.max", 10_000);
+    // Reconnect when nothing is read for 10 seconds.
+    static final int READ_TIMEOUT = Integer.parseInt(System.getProperty("readTimeout", "10"));
+    static final int CONNECT_TIMEOUT = Integer.parseInt(System.getProperty("connectTimeout", "2"));
+
+    private static final UptimeClientHandler handler = new UptimeClientHandler();
+
+    public static void main(String[] args) throws Exception {
+        Transport transport = Transport.fromSystemProperties();
+        EventLoopGroup group = transport.newEventLoopGroup(1);
+        Bootstrap b = new Bootstrap();
+        transport.configure(b.group(group))
+         .remoteAddress(HOST, PORT)
+         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT * 1000)
+         .handler(handler);
+
+        // The event loop threads keep running after main returns.
+        new ReconnectingClient(b, STANDBY)
+            .backoff(BACKOFF_BASE, BACKOFF_MAX)
+            .healthCheck(READ_TIMEOUT * 1000L, 0, null)
+            .start();
+    }
+}
@@ -15,19 +15,17 @@
  */
 package demos.uptime;
 
-import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
 
-import java.util.concurrent.TimeUnit;
-
 /**
- * Keep reconnecting to the server while printing out the current uptime and
- * connection attempt getStatus.
+ * Prints out the current uptime and the connection events of every connection
+ * of an {@link UptimeClient}. Reconnecting is up to its
+ * {@link demos.client.ReconnectingClient}, which also closes the connections
+ * that go quiet.
  */
 @Sharable
 public class UptimeClientHandler extends SimpleChannelInboundHandler<Object> {
@@ -57,7 +55,6 @@ public class UptimeClientHandler extends SimpleChannelInboundHandler<Object> {
         if (e.state() == IdleState.READER_IDLE) {
             // The connection was OK but there was no traffic for last period.
             println("Disconnecting due to no inbound traffic");
-            ctx.close();
         }
     }
 
@@ -66,20 +63,6 @@ public class UptimeClientHandler extends SimpleChannelInboundHandler<Object> {
         println("Disconnected from: " + ctx.channel().remoteAddress());
     }
 
-    @Override
-    public void channelUnregistered(final ChannelHandlerContext ctx) throws Exception {
-        println("Sleeping for: " + UptimeClient.RECONNECT_DELAY + 's');
-
-        final EventLoop loop = ctx.channel().eventLoop();
-        loop.schedule(new Runnable() {
-            @Override
-            public void run() {
-                println("Reconnecting to: " + UptimeClient.HOST + ':' + UptimeClient.PORT);
-                UptimeClient.connect(UptimeClient.configureBootstrap(new Bootstrap(), loop));
-            }
-        }, UptimeClient.RECONNECT_DELAY, TimeUnit.SECONDS);
-    }
-
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         cause.printStackTrace();
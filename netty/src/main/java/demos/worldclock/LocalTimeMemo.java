@@ -0,0 +1,101 @@
+package demos.worldclock;
+
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+import demos.worldclock.WorldClockZones.Zone;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the last {@link LocalTime} built for every zone, per event loop, for the second it was
+ * built in. Every later lookup of that zone in the same second, whether it is a duplicate city in
+ * the same request or a request from another connection on the same event loop, reuses the message
+ * (protobuf messages are immutable) instead of building a new one.
+ *
+ * <p>The tables are indexed by {@link Zone#index()} and belong to one event loop each, so lookups
+ * take no lock and share no cache lines between event loops. The counters are added once per
+ * request.
+ *
+ * @author https://github.com/gukt
+ */
+public final class LocalTimeMemo {
+
+  private final WorldClockZones zones;
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final FastThreadLocal<Table> tables =
+      new FastThreadLocal<Table>() {
+        @Override
+        protected Table initialValue() {
+          return new Table();
+        }
+      };
+
+  public LocalTimeMemo(WorldClockZones zones) {
+    this.zones = zones;
+  }
+
+  /** Adds the local time at {@code currentTime} of every location, in order, to {@code builder}. */
+  public void addLocalTimes(Locations locations, long currentTime, LocalTimes.Builder builder) {
+    long second = Math.floorDiv(currentTime, 1000);
+    Table table = tables.get();
+    int count = locations.getLocationCount();
+    int reused = 0;
+    for (int i = 0; i < count; i++) {
+      Location l = locations.getLocation(i);
+      Zone zone = zones.zone(l.getContinent(), l.getCity());
+      LocalTime localTime = table.get(zone, second);
+      if (localTime != null) {
+        reused++;
+      } else {
+        localTime = zone.localTime(currentTime);
+        table.put(zone, second, localTime);
+      }
+      builder.addLocalTime(localTime);
+    }
+    lookups.add(count);
+    hits.add(reused);
+  }
+
+  public long lookups() {
+    return lookups.sum();
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  /** Share of the lookups answered from the memo, {@code 0} before the first one. */
+  public double hitRatio() {
+    long n = lookups.sum();
+    return n == 0 ? 0 : (double) hits.sum() / n;
+  }
+
+  /** The memo of one event loop. */
+  private static final class Table {
+    private long[] seconds = new long[64];
+    private LocalTime[] times = new LocalTime[64];
+
+    LocalTime get(Zone zone, long second) {
+      int i = zone.index();
+      return i >= 0 && i < times.length && seconds[i] == second ? times[i] : null;
+    }
+
+    void put(Zone zone, long second, LocalTime localTime) {
+      int i = zone.index();
+      if (i < 0) {
+        return;
+      }
+      if (i >= times.length) {
+        int length = Math.max(times.length * 2, i + 1);
+        seconds = Arrays.copyOf(seconds, length);
+        times = Arrays.copyOf(times, length);
+      }
+      seconds[i] = second;
+      times[i] = localTime;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package demos.worldclock;
+
+import demos.tls.Tls;
+import demos.transport.Transport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sends a list of continent/city pairs to a {@link WorldClockServer} to
+ * get the local times of the specified cities.
+ */
+public final class WorldClockClient {
+
+    static final boolean SSL = System.getProperty("ssl") != null;
+    static final String HOST = System.getProperty("host", "127.0.0.1");
+    static final int PORT = Integer.parseInt(System.getProperty("port", "8463"));
+    static final List<String> CITIES = Arrays.asList(System.getProperty(
+            "cities", "Asia/Seoul,Europe/Berlin,America/Los_Angeles").split(","));
+
+    public static void main(String[] args) throws Exception {
+        // Configure SSL. New connections to the server resume an earlier session.
+        final SslContext sslCtx;
+        if (SSL) {
+            sslCtx = Tls.fromSystemProperties().alpn(WorldClockServer.ALPN)
+                .forClient(InsecureTrustManagerFactory.INSTANCE);
+        } else {
+            sslCtx = null;
+        }
+
+        Transport transport = Transport.fromSystemProperties();
+        EventLoopGroup group = transport.newEventLoopGroup(0);
+        Bootstrap b = new Bootstrap();
+        transport.configure(b.group(group))
+         .remoteAddress(HOST, PORT)
+         .handler(new WorldClockClientInitializer(sslCtx));
+
+        try (WorldClockClientPool pool = new WorldClockClientPool(b, 1)) {
+            // Request and get the response.
+            List<String> response = pool.getLocalTimes(CITIES).get();
+
+            // Print the response at last but not least.
+            for (int i = 0; i < CITIES.size(); i ++) {
+                System.out.format("%28s: %s%n", CITIES.get(i), response.get(i));
+            }
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package demos.worldclock;
+
+import demos.transport.Transport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lookups per second through a {@link WorldClockClientPool}: {@code threads} callers each waiting
+ * for their answer before the next request (one request in flight per thread), then the same
+ * threads pipelining up to {@code inFlight} requests in total.
+ *
+ * <pre>
+ *   java demos.worldclock.WorldClockClientBenchmark [connections] [threads] [inFlight] [seconds]
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public class WorldClockClientBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    int inFlight = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+    Transport transport = Transport.auto();
+    EventLoopGroup bossGroup = transport.newBossGroup();
+    EventLoopGroup serverGroup = transport.newEventLoopGroup(0);
+    EventLoopGroup clientGroup = transport.newEventLoopGroup(0);
+    try {
+      ServerBootstrap sb = new ServerBootstrap();
+      transport
+          .configure(sb.group(bossGroup, serverGroup))
+          .childHandler(new WorldClockServerInitializer(null));
+      Channel server = transport.bind(sb, 0);
+
+      Bootstrap b = new Bootstrap();
+      transport
+          .configure(b.group(clientGroup))
+          .remoteAddress(server.localAddress())
+          .handler(new WorldClockClientInitializer(null));
+      System.out.printf(
+          "connections=%d, threads=%d, duration=%ds, transport=%s%n",
+          connections, threads, seconds, transport);
+      try (WorldClockClientPool pool = new WorldClockClientPool(b, connections)) {
+        System.out.printf(
+            "%-22s %12.0f lookups/s%n", "blocking", run(pool, threads, threads, seconds));
+        System.out.printf(
+            "%-22s %12.0f lookups/s%n",
+            "pipelined, " + inFlight + " in flight",
+            run(pool, threads, inFlight, seconds));
+      }
+      server.close().sync();
+    } finally {
+      clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+      bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+  }
+
+  /** Keeps up to {@code inFlight} lookups going from {@code threads} threads. */
+  private static double run(WorldClockClientPool pool, int threads, int inFlight, int seconds)
+      throws InterruptedException {
+    Semaphore permits = new Semaphore(inFlight);
+    LongAdder answers = new LongAdder();
+    LongAdder failures = new LongAdder();
+    AtomicBoolean running = new AtomicBoolean(true);
+    List<Thread> callers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread caller =
+          new Thread(
+              () -> {
+                while (running.get()) {
+                  try {
+                    if (!permits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                      continue;
+                    }
+                  } catch (InterruptedException e) {
+                    return;
+                  }
+                  pool.getLocalTimes(WorldClockClient.CITIES)
+                      .whenComplete(
+                          (times, cause) -> {
+                            permits.release();
+                            (cause == null ? answers : failures).increment();
+                          });
+                }
+              },
+              "caller-" + t);
+      caller.start();
+      callers.add(caller);
+    }
+
+    // Warm up, then measure.
+    Thread.sleep(1000);
+    long before = answers.sum();
+    long start = System.nanoTime();
+    Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+    double rate = (answers.sum() - before) / ((System.nanoTime() - start) / 1e9);
+
+    running.set(false);
+    // Let the requests in flight come back before the next run.
+    for (Thread caller : callers) {
+      caller.join();
+    }
+    permits.acquire(inFlight);
+    if (failures.sum() > 0) {
+      System.out.println("failed lookups: " + failures.sum());
+    }
+    return rate;
+  }
+}
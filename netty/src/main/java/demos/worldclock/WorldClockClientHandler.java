@@ -17,35 +17,84 @@ package demos.worldclock;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
-import demos.netty.worldclock.WorldClockProtocol.Continent;
-import demos.netty.worldclock.WorldClockProtocol.LocalTime;
-import demos.netty.worldclock.WorldClockProtocol.LocalTimes;
-import demos.netty.worldclock.WorldClockProtocol.Location;
-import demos.netty.worldclock.WorldClockProtocol.Locations;
-
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+
+import java.nio.channels.ClosedChannelException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Formatter;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
+/**
+ * Pipelines {@link Locations} requests over one channel: every request gets an id, which the
+ * server copies into its {@link LocalTimes} answer, so any number of requests can be in flight and
+ * the answers are matched by id rather than by order.
+ *
+ * <p>The pending requests and the id counter are only touched from the channel's event loop, so
+ * they need no locking. Requests issued from other threads are handed over as tasks; their writes
+ * are flushed together by one flush task queued behind them.
+ */
 public class WorldClockClientHandler extends SimpleChannelInboundHandler<LocalTimes> {
 
     private static final Pattern DELIM = Pattern.compile("/");
 
     // Stateful properties
     private volatile Channel channel;
-    private final BlockingQueue<LocalTimes> answer = new LinkedBlockingQueue<LocalTimes>();
+    private final LongObjectMap<CompletableFuture<List<String>>> pending =
+            new LongObjectHashMap<CompletableFuture<List<String>>>();
+    private long nextId;
+    private boolean flushScheduled;
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled = false;
+            channel.flush();
+        }
+    };
 
     public WorldClockClientHandler() {
         super(false);
     }
 
+    /** Blocks until the answer arrives, see {@link #getLocalTimesAsync(Collection)}. */
     public List<String> getLocalTimes(Collection<String> cities) {
-        Locations.Builder builder = Locations.newBuilder();
+        CompletableFuture<List<String>> answer = getLocalTimesAsync(cities);
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    return answer.get();
+                } catch (InterruptedException ignore) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sends a request for the local times of {@code cities} ({@code "Continent/City"}) and returns
+     * without waiting. The future completes on the event loop, keep its callbacks short; it fails
+     * with a {@link ClosedChannelException} if the channel closes before the answer arrives.
+     */
+    public CompletableFuture<List<String>> getLocalTimesAsync(Collection<String> cities) {
+        final Locations.Builder builder = Locations.newBuilder();
 
         for (String c: cities) {
             String[] components = DELIM.split(c);
@@ -54,23 +103,71 @@ public class WorldClockClientHandler extends SimpleChannelInboundHandler<LocalTi
                 setCity(components[1]).build());
         }
 
-        channel.writeAndFlush(builder.build());
+        final CompletableFuture<List<String>> answer = new CompletableFuture<List<String>>();
+        EventLoop loop = channel.eventLoop();
+        if (loop.inEventLoop()) {
+            send(builder, answer);
+        } else {
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    send(builder, answer);
+                }
+            });
+        }
+        return answer;
+    }
 
-        LocalTimes localTimes;
-        boolean interrupted = false;
-        for (;;) {
-            try {
-                localTimes = answer.take();
-                break;
-            } catch (InterruptedException ignore) {
-                interrupted = true;
-            }
+    private void send(Locations.Builder builder, CompletableFuture<List<String>> answer) {
+        if (!channel.isActive()) {
+            answer.completeExceptionally(new ClosedChannelException());
+            return;
+        }
+        long id = nextId++;
+        pending.put(id, answer);
+        // A failed write fires exceptionCaught, which closes the channel and fails the request.
+        channel.write(builder.setId(id).build(), channel.voidPromise());
+        if (!flushScheduled) {
+            flushScheduled = true;
+            channel.eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void channelRegistered(ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+        ctx.fireChannelRegistered();
+    }
+
+    @Override
+    public void channelRead0(ChannelHandlerContext ctx, LocalTimes times) throws Exception {
+        CompletableFuture<List<String>> answer = times.hasId() ? pending.remove(times.getId()) : null;
+        if (answer == null) {
+            throw new IllegalStateException("Answer to no pending request, id: "
+                    + (times.hasId() ? times.getId() : "none"));
         }
+        answer.complete(format(times));
+    }
 
-        if (interrupted) {
-            Thread.currentThread().interrupt();
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        if (!pending.isEmpty()) {
+            ClosedChannelException cause = new ClosedChannelException();
+            for (CompletableFuture<List<String>> answer: pending.values()) {
+                answer.completeExceptionally(cause);
+            }
+            pending.clear();
         }
+        ctx.fireChannelInactive();
+    }
 
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        cause.printStackTrace();
+        ctx.close();
+    }
+
+    private static List<String> format(LocalTimes localTimes) {
         List<String> result = new ArrayList<String>();
         for (LocalTime lt: localTimes.getLocalTimeList()) {
             result.add(
@@ -87,20 +184,4 @@ public class WorldClockClientHandler extends SimpleChannelInboundHandler<LocalTi
 
         return result;
     }
-
-    @Override
-    public void channelRegistered(ChannelHandlerContext ctx) {
-        channel = ctx.channel();
-    }
-
-    @Override
-    public void channelRead0(ChannelHandlerContext ctx, LocalTimes times) throws Exception {
-        answer.add(times);
-    }
-
-    @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-        cause.printStackTrace();
-        ctx.close();
-    }
 }
@@ -15,17 +15,17 @@
  */
 package demos.worldclock;
 
+import demos.handler.ProtobufFrameDecoder;
+import demos.handler.ProtobufFrameEncoder;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.protobuf.ProtobufDecoder;
-import io.netty.handler.codec.protobuf.ProtobufEncoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import io.netty.handler.ssl.SslContext;
 
 public class WorldClockClientInitializer extends ChannelInitializer<SocketChannel> {
 
+    private static final ProtobufFrameEncoder ENCODER = new ProtobufFrameEncoder();
+
     private final SslContext sslCtx;
 
     public WorldClockClientInitializer(SslContext sslCtx) {
@@ -39,11 +39,10 @@ public class WorldClockClientInitializer extends ChannelInitializer<SocketChanne
             p.addLast(sslCtx.newHandler(ch.alloc(), WorldClockClient.HOST, WorldClockClient.PORT));
         }
 
-        p.addLast(new ProtobufVarint32FrameDecoder());
-        p.addLast(new ProtobufDecoder(WorldClockProtocol.LocalTimes.getDefaultInstance()));
-
-        p.addLast(new ProtobufVarint32LengthFieldPrepender());
-        p.addLast(new ProtobufEncoder());
+        // Same wire format as ProtobufVarint32FrameDecoder + ProtobufDecoder and
+        // ProtobufVarint32LengthFieldPrepender + ProtobufEncoder, without their copies.
+        p.addLast(new ProtobufFrameDecoder<>(WorldClockProtocol.LocalTimes.PARSER));
+        p.addLast(ENCODER);
 
         p.addLast(new WorldClockClientHandler());
     }
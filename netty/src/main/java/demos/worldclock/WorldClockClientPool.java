@@ -0,0 +1,121 @@
+package demos.worldclock;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed number of WorldClock connections shared by any number of threads.
+ *
+ * <p>Requests are pipelined (see {@link WorldClockClientHandler}), so a connection is not leased
+ * to one caller the way netty's {@code FixedChannelPool} does; every request goes to the next
+ * connection round robin. Connections are opened on first use and reopened when found closed, so
+ * the pool never holds more than {@code size} of them.
+ *
+ * <pre>
+ *   Bootstrap b = transport.configure(new Bootstrap().group(group))
+ *       .remoteAddress(host, port)
+ *       .handler(new WorldClockClientInitializer(sslCtx));
+ *   try (WorldClockClientPool pool = new WorldClockClientPool(b, 4)) {
+ *     pool.getLocalTimes(cities).thenAccept(System.out::println);
+ *   }
+ * </pre>
+ *
+ * @author https://github.com/gukt
+ */
+public final class WorldClockClientPool implements Closeable {
+
+  private final Bootstrap bootstrap;
+  private final AtomicReferenceArray<ChannelFuture> connections;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile boolean closed;
+
+  /**
+   * @param bootstrap has the remote address set and a pipeline ending in a {@link
+   *     WorldClockClientHandler}
+   */
+  public WorldClockClientPool(Bootstrap bootstrap, int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("size: " + size + " (expected: > 0)");
+    }
+    this.bootstrap = bootstrap.validate();
+    this.connections = new AtomicReferenceArray<>(size);
+  }
+
+  /**
+   * Looks up the local times of {@code cities} ({@code "Continent/City"}) on the next connection.
+   * Fails with the connect error if that connection cannot be opened.
+   */
+  public CompletableFuture<List<String>> getLocalTimes(Collection<String> cities) {
+    int i = Math.floorMod(next.getAndIncrement(), connections.length());
+    ChannelFuture connection = connection(i);
+    if (connection.isSuccess()) {
+      return handler(connection).getLocalTimesAsync(cities);
+    }
+    CompletableFuture<List<String>> answer = new CompletableFuture<>();
+    connection.addListener(
+        (ChannelFutureListener)
+            f -> {
+              if (!f.isSuccess()) {
+                answer.completeExceptionally(f.cause());
+                return;
+              }
+              handler(f)
+                  .getLocalTimesAsync(cities)
+                  .whenComplete(
+                      (times, cause) -> {
+                        if (cause != null) {
+                          answer.completeExceptionally(cause);
+                        } else {
+                          answer.complete(times);
+                        }
+                      });
+            });
+    return answer;
+  }
+
+  /** Closes the connections. The event loop group belongs to the caller and stays up. */
+  @Override
+  public void close() {
+    closed = true;
+    for (int i = 0; i < connections.length(); i++) {
+      ChannelFuture connection = connections.getAndSet(i, null);
+      if (connection != null) {
+        connection.channel().close();
+      }
+    }
+  }
+
+  private ChannelFuture connection(int i) {
+    for (; ; ) {
+      if (closed) {
+        throw new IllegalStateException("pool closed");
+      }
+      ChannelFuture current = connections.get(i);
+      // A connect in progress is as good as an open channel, requests wait for it.
+      if (current != null && (!current.isDone() || current.channel().isActive())) {
+        return current;
+      }
+      ChannelFuture opened = bootstrap.connect();
+      if (connections.compareAndSet(i, current, opened)) {
+        if (closed) {
+          // Raced with close(), which may have missed it.
+          opened.channel().close();
+        }
+        return opened;
+      }
+      // Another thread replaced the dead connection first, use its one.
+      opened.channel().close();
+    }
+  }
+
+  private static WorldClockClientHandler handler(ChannelFuture connection) {
+    return connection.channel().pipeline().get(WorldClockClientHandler.class);
+  }
+}
@@ -15,7 +15,7 @@
  */
 
 // Generated by the protocol buffer compiler.  DO NOT EDIT!
-// source: src/main/java/io/netty/example/worldclock/WorldClockProtocol.proto
+// source: src/main/java/demos/worldclock/WorldClockProtocol.proto
 
 package demos.worldclock;
 
@@ -163,7 +163,7 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.EnumDescriptor
         getDescriptor() {
-      return WorldClockProtocol.getDescriptor().getEnumTypes().get(0);
+      return demos.worldclock.WorldClockProtocol.getDescriptor().getEnumTypes().get(0);
     }
 
     private static final Continent[] VALUES = values();
@@ -171,7 +171,7 @@ public final class WorldClockProtocol {
     public static Continent valueOf(
         com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
       if (desc.getType() != getDescriptor()) {
-        throw new IllegalArgumentException(
+        throw new java.lang.IllegalArgumentException(
           "EnumValueDescriptor is not for this type.");
       }
       return VALUES[desc.getIndex()];
@@ -290,7 +290,7 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.EnumDescriptor
         getDescriptor() {
-      return WorldClockProtocol.getDescriptor().getEnumTypes().get(1);
+      return demos.worldclock.WorldClockProtocol.getDescriptor().getEnumTypes().get(1);
     }
 
     private static final DayOfWeek[] VALUES = values();
@@ -298,7 +298,7 @@ public final class WorldClockProtocol {
     public static DayOfWeek valueOf(
         com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
       if (desc.getType() != getDescriptor()) {
-        throw new IllegalArgumentException(
+        throw new java.lang.IllegalArgumentException(
           "EnumValueDescriptor is not for this type.");
       }
       return VALUES[desc.getIndex()];
@@ -315,10 +315,10 @@ public final class WorldClockProtocol {
     // @@protoc_insertion_point(enum_scope:io.netty.example.worldclock.DayOfWeek)
   }
 
-  public interface LocationOrBuilder
-      extends com.google.protobuf.MessageOrBuilder {
+  public interface LocationOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.netty.example.worldclock.Location)
+      com.google.protobuf.MessageOrBuilder {
 
-    // required .io.netty.example.worldclock.Continent continent = 1;
     /**
      * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
      */
@@ -326,9 +326,8 @@ public final class WorldClockProtocol {
     /**
      * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
      */
-    Continent getContinent();
+    demos.worldclock.WorldClockProtocol.Continent getContinent();
 
-    // required string city = 2;
     /**
      * <code>required string city = 2;</code>
      */
@@ -336,7 +335,7 @@ public final class WorldClockProtocol {
     /**
      * <code>required string city = 2;</code>
      */
-    String getCity();
+    java.lang.String getCity();
     /**
      * <code>required string city = 2;</code>
      */
@@ -347,8 +346,9 @@ public final class WorldClockProtocol {
    * Protobuf type {@code io.netty.example.worldclock.Location}
    */
   public static final class Location extends
-      com.google.protobuf.GeneratedMessage
-      implements LocationOrBuilder {
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:io.netty.example.worldclock.Location)
+      LocationOrBuilder {
     // Use Location.newBuilder() to construct.
     private Location(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
@@ -366,7 +366,7 @@ public final class WorldClockProtocol {
     }
 
     private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
+    @java.lang.Override
     public final com.google.protobuf.UnknownFieldSet
         getUnknownFields() {
       return this.unknownFields;
@@ -396,7 +396,7 @@ public final class WorldClockProtocol {
             }
             case 8: {
               int rawValue = input.readEnum();
-              Continent value = Continent.valueOf(rawValue);
+              demos.worldclock.WorldClockProtocol.Continent value = demos.worldclock.WorldClockProtocol.Continent.valueOf(rawValue);
               if (value == null) {
                 unknownFields.mergeVarintField(1, rawValue);
               } else {
@@ -406,8 +406,9 @@ public final class WorldClockProtocol {
               break;
             }
             case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
               bitField0_ |= 0x00000002;
-              city_ = input.readBytes();
+              city_ = bs;
               break;
             }
           }
@@ -424,14 +425,14 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
     }
 
-    protected FieldAccessorTable
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_fieldAccessorTable
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              Location.class, Builder.class);
+              demos.worldclock.WorldClockProtocol.Location.class, demos.worldclock.WorldClockProtocol.Location.Builder.class);
     }
 
     public static com.google.protobuf.Parser<Location> PARSER =
@@ -444,15 +445,14 @@ public final class WorldClockProtocol {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<Location> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // required .io.netty.example.worldclock.Continent continent = 1;
     public static final int CONTINENT_FIELD_NUMBER = 1;
-    private Continent continent_;
+    private demos.worldclock.WorldClockProtocol.Continent continent_;
     /**
      * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
      */
@@ -462,13 +462,12 @@ public final class WorldClockProtocol {
     /**
      * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
      */
-    public Continent getContinent() {
+    public demos.worldclock.WorldClockProtocol.Continent getContinent() {
       return continent_;
     }
 
-    // required string city = 2;
     public static final int CITY_FIELD_NUMBER = 2;
-    private Object city_;
+    private java.lang.Object city_;
     /**
      * <code>required string city = 2;</code>
      */
@@ -478,14 +477,14 @@ public final class WorldClockProtocol {
     /**
      * <code>required string city = 2;</code>
      */
-    public String getCity() {
-      Object ref = city_;
-      if (ref instanceof String) {
-        return (String) ref;
+    public java.lang.String getCity() {
+      java.lang.Object ref = city_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
       } else {
         com.google.protobuf.ByteString bs = 
             (com.google.protobuf.ByteString) ref;
-        String s = bs.toStringUtf8();
+        java.lang.String s = bs.toStringUtf8();
         if (bs.isValidUtf8()) {
           city_ = s;
         }
@@ -497,11 +496,11 @@ public final class WorldClockProtocol {
      */
     public com.google.protobuf.ByteString
         getCityBytes() {
-      Object ref = city_;
-      if (ref instanceof String) {
+      java.lang.Object ref = city_;
+      if (ref instanceof java.lang.String) {
         com.google.protobuf.ByteString b = 
             com.google.protobuf.ByteString.copyFromUtf8(
-                (String) ref);
+                (java.lang.String) ref);
         city_ = b;
         return b;
       } else {
@@ -510,13 +509,14 @@ public final class WorldClockProtocol {
     }
 
     private void initFields() {
-      continent_ = Continent.AFRICA;
+      continent_ = demos.worldclock.WorldClockProtocol.Continent.AFRICA;
       city_ = "";
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
-      if (isInitialized != -1) return isInitialized == 1;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
       if (!hasContinent()) {
         memoizedIsInitialized = 0;
@@ -562,59 +562,59 @@ public final class WorldClockProtocol {
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static Location parseFrom(byte[] data)
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static Location parseFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static Location parseDelimitedFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.Location parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static Location parseDelimitedFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static Location parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Location parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -623,14 +623,14 @@ public final class WorldClockProtocol {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(Location prototype) {
+    public static Builder newBuilder(demos.worldclock.WorldClockProtocol.Location prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
+    @java.lang.Override
     protected Builder newBuilderForType(
-        BuilderParent parent) {
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
       Builder builder = new Builder(parent);
       return builder;
     }
@@ -638,27 +638,28 @@ public final class WorldClockProtocol {
      * Protobuf type {@code io.netty.example.worldclock.Location}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements LocationOrBuilder {
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.netty.example.worldclock.Location)
+        demos.worldclock.WorldClockProtocol.LocationOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
       }
 
-      protected FieldAccessorTable
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_fieldAccessorTable
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                Location.class, Builder.class);
+                demos.worldclock.WorldClockProtocol.Location.class, demos.worldclock.WorldClockProtocol.Location.Builder.class);
       }
 
-      // Construct using WorldClockProtocol.Location.newBuilder()
+      // Construct using demos.worldclock.WorldClockProtocol.Location.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
       private Builder(
-          BuilderParent parent) {
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
         super(parent);
         maybeForceBuilderInitialization();
       }
@@ -672,7 +673,7 @@ public final class WorldClockProtocol {
 
       public Builder clear() {
         super.clear();
-        continent_ = Continent.AFRICA;
+        continent_ = demos.worldclock.WorldClockProtocol.Continent.AFRICA;
         bitField0_ = (bitField0_ & ~0x00000001);
         city_ = "";
         bitField0_ = (bitField0_ & ~0x00000002);
@@ -685,23 +686,23 @@ public final class WorldClockProtocol {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Location_descriptor;
       }
 
-      public Location getDefaultInstanceForType() {
-        return Location.getDefaultInstance();
+      public demos.worldclock.WorldClockProtocol.Location getDefaultInstanceForType() {
+        return demos.worldclock.WorldClockProtocol.Location.getDefaultInstance();
       }
 
-      public Location build() {
-        Location result = buildPartial();
+      public demos.worldclock.WorldClockProtocol.Location build() {
+        demos.worldclock.WorldClockProtocol.Location result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public Location buildPartial() {
-        Location result = new Location(this);
+      public demos.worldclock.WorldClockProtocol.Location buildPartial() {
+        demos.worldclock.WorldClockProtocol.Location result = new demos.worldclock.WorldClockProtocol.Location(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -718,16 +719,16 @@ public final class WorldClockProtocol {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof Location) {
-          return mergeFrom((Location)other);
+        if (other instanceof demos.worldclock.WorldClockProtocol.Location) {
+          return mergeFrom((demos.worldclock.WorldClockProtocol.Location)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(Location other) {
-        if (other == Location.getDefaultInstance()) return this;
+      public Builder mergeFrom(demos.worldclock.WorldClockProtocol.Location other) {
+        if (other == demos.worldclock.WorldClockProtocol.Location.getDefaultInstance()) return this;
         if (other.hasContinent()) {
           setContinent(other.getContinent());
         }
@@ -756,11 +757,11 @@ public final class WorldClockProtocol {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        Location parsedMessage = null;
+        demos.worldclock.WorldClockProtocol.Location parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (Location) e.getUnfinishedMessage();
+          parsedMessage = (demos.worldclock.WorldClockProtocol.Location) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -771,8 +772,7 @@ public final class WorldClockProtocol {
       }
       private int bitField0_;
 
-      // required .io.netty.example.worldclock.Continent continent = 1;
-      private Continent continent_ = Continent.AFRICA;
+      private demos.worldclock.WorldClockProtocol.Continent continent_ = demos.worldclock.WorldClockProtocol.Continent.AFRICA;
       /**
        * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
        */
@@ -782,13 +782,13 @@ public final class WorldClockProtocol {
       /**
        * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
        */
-      public Continent getContinent() {
+      public demos.worldclock.WorldClockProtocol.Continent getContinent() {
         return continent_;
       }
       /**
        * <code>required .io.netty.example.worldclock.Continent continent = 1;</code>
        */
-      public Builder setContinent(Continent value) {
+      public Builder setContinent(demos.worldclock.WorldClockProtocol.Continent value) {
         if (value == null) {
           throw new NullPointerException();
         }
@@ -802,13 +802,12 @@ public final class WorldClockProtocol {
        */
       public Builder clearContinent() {
         bitField0_ = (bitField0_ & ~0x00000001);
-        continent_ = Continent.AFRICA;
+        continent_ = demos.worldclock.WorldClockProtocol.Continent.AFRICA;
         onChanged();
         return this;
       }
 
-      // required string city = 2;
-      private Object city_ = "";
+      private java.lang.Object city_ = "";
       /**
        * <code>required string city = 2;</code>
        */
@@ -818,15 +817,18 @@ public final class WorldClockProtocol {
       /**
        * <code>required string city = 2;</code>
        */
-      public String getCity() {
-        Object ref = city_;
-        if (!(ref instanceof String)) {
-          String s = ((com.google.protobuf.ByteString) ref)
-              .toStringUtf8();
-          city_ = s;
+      public java.lang.String getCity() {
+        java.lang.Object ref = city_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            city_ = s;
+          }
           return s;
         } else {
-          return (String) ref;
+          return (java.lang.String) ref;
         }
       }
       /**
@@ -834,11 +836,11 @@ public final class WorldClockProtocol {
        */
       public com.google.protobuf.ByteString
           getCityBytes() {
-        Object ref = city_;
+        java.lang.Object ref = city_;
         if (ref instanceof String) {
           com.google.protobuf.ByteString b = 
               com.google.protobuf.ByteString.copyFromUtf8(
-                  (String) ref);
+                  (java.lang.String) ref);
           city_ = b;
           return b;
         } else {
@@ -849,7 +851,7 @@ public final class WorldClockProtocol {
        * <code>required string city = 2;</code>
        */
       public Builder setCity(
-          String value) {
+          java.lang.String value) {
         if (value == null) {
     throw new NullPointerException();
   }
@@ -892,19 +894,19 @@ public final class WorldClockProtocol {
     // @@protoc_insertion_point(class_scope:io.netty.example.worldclock.Location)
   }
 
-  public interface LocationsOrBuilder
-      extends com.google.protobuf.MessageOrBuilder {
+  public interface LocationsOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.netty.example.worldclock.Locations)
+      com.google.protobuf.MessageOrBuilder {
 
-    // repeated .io.netty.example.worldclock.Location location = 1;
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    java.util.List<Location>
+    java.util.List<demos.worldclock.WorldClockProtocol.Location> 
         getLocationList();
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    Location getLocation(int index);
+    demos.worldclock.WorldClockProtocol.Location getLocation(int index);
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
@@ -912,20 +914,38 @@ public final class WorldClockProtocol {
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    java.util.List<? extends LocationOrBuilder>
+    java.util.List<? extends demos.worldclock.WorldClockProtocol.LocationOrBuilder> 
         getLocationOrBuilderList();
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    LocationOrBuilder getLocationOrBuilder(
-            int index);
+    demos.worldclock.WorldClockProtocol.LocationOrBuilder getLocationOrBuilder(
+        int index);
+
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+     * </pre>
+     */
+    boolean hasId();
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+     * </pre>
+     */
+    long getId();
   }
   /**
    * Protobuf type {@code io.netty.example.worldclock.Locations}
    */
   public static final class Locations extends
-      com.google.protobuf.GeneratedMessage
-      implements LocationsOrBuilder {
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:io.netty.example.worldclock.Locations)
+      LocationsOrBuilder {
     // Use Locations.newBuilder() to construct.
     private Locations(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
@@ -943,7 +963,7 @@ public final class WorldClockProtocol {
     }
 
     private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
+    @java.lang.Override
     public final com.google.protobuf.UnknownFieldSet
         getUnknownFields() {
       return this.unknownFields;
@@ -973,10 +993,15 @@ public final class WorldClockProtocol {
             }
             case 10: {
               if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
-                location_ = new java.util.ArrayList<Location>();
+                location_ = new java.util.ArrayList<demos.worldclock.WorldClockProtocol.Location>();
                 mutable_bitField0_ |= 0x00000001;
               }
-              location_.add(input.readMessage(Location.PARSER, extensionRegistry));
+              location_.add(input.readMessage(demos.worldclock.WorldClockProtocol.Location.PARSER, extensionRegistry));
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              id_ = input.readUInt64();
               break;
             }
           }
@@ -996,14 +1021,14 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
     }
 
-    protected FieldAccessorTable
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              Locations.class, Builder.class);
+              demos.worldclock.WorldClockProtocol.Locations.class, demos.worldclock.WorldClockProtocol.Locations.Builder.class);
     }
 
     public static com.google.protobuf.Parser<Locations> PARSER =
@@ -1016,24 +1041,24 @@ public final class WorldClockProtocol {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<Locations> getParserForType() {
       return PARSER;
     }
 
-    // repeated .io.netty.example.worldclock.Location location = 1;
+    private int bitField0_;
     public static final int LOCATION_FIELD_NUMBER = 1;
-    private java.util.List<Location> location_;
+    private java.util.List<demos.worldclock.WorldClockProtocol.Location> location_;
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    public java.util.List<Location> getLocationList() {
+    public java.util.List<demos.worldclock.WorldClockProtocol.Location> getLocationList() {
       return location_;
     }
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    public java.util.List<? extends LocationOrBuilder>
+    public java.util.List<? extends demos.worldclock.WorldClockProtocol.LocationOrBuilder> 
         getLocationOrBuilderList() {
       return location_;
     }
@@ -1046,24 +1071,49 @@ public final class WorldClockProtocol {
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    public Location getLocation(int index) {
+    public demos.worldclock.WorldClockProtocol.Location getLocation(int index) {
       return location_.get(index);
     }
     /**
      * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
      */
-    public LocationOrBuilder getLocationOrBuilder(
+    public demos.worldclock.WorldClockProtocol.LocationOrBuilder getLocationOrBuilder(
         int index) {
       return location_.get(index);
     }
 
+    public static final int ID_FIELD_NUMBER = 2;
+    private long id_;
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+     * </pre>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+     * </pre>
+     */
+    public long getId() {
+      return id_;
+    }
+
     private void initFields() {
       location_ = java.util.Collections.emptyList();
+      id_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
-      if (isInitialized != -1) return isInitialized == 1;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
       for (int i = 0; i < getLocationCount(); i++) {
         if (!getLocation(i).isInitialized()) {
@@ -1081,6 +1131,9 @@ public final class WorldClockProtocol {
       for (int i = 0; i < location_.size(); i++) {
         output.writeMessage(1, location_.get(i));
       }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(2, id_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1094,65 +1147,69 @@ public final class WorldClockProtocol {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(1, location_.get(i));
       }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, id_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static Locations parseFrom(byte[] data)
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static Locations parseFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static Locations parseDelimitedFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.Locations parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static Locations parseDelimitedFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static Locations parseFrom(
+    public static demos.worldclock.WorldClockProtocol.Locations parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -1161,14 +1218,14 @@ public final class WorldClockProtocol {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(Locations prototype) {
+    public static Builder newBuilder(demos.worldclock.WorldClockProtocol.Locations prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
+    @java.lang.Override
     protected Builder newBuilderForType(
-        BuilderParent parent) {
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
       Builder builder = new Builder(parent);
       return builder;
     }
@@ -1176,27 +1233,28 @@ public final class WorldClockProtocol {
      * Protobuf type {@code io.netty.example.worldclock.Locations}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements LocationsOrBuilder {
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.netty.example.worldclock.Locations)
+        demos.worldclock.WorldClockProtocol.LocationsOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
       }
 
-      protected FieldAccessorTable
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                Locations.class, Builder.class);
+                demos.worldclock.WorldClockProtocol.Locations.class, demos.worldclock.WorldClockProtocol.Locations.Builder.class);
       }
 
-      // Construct using WorldClockProtocol.Locations.newBuilder()
+      // Construct using demos.worldclock.WorldClockProtocol.Locations.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
       private Builder(
-          BuilderParent parent) {
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
         super(parent);
         maybeForceBuilderInitialization();
       }
@@ -1217,6 +1275,8 @@ public final class WorldClockProtocol {
         } else {
           locationBuilder_.clear();
         }
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -1226,24 +1286,25 @@ public final class WorldClockProtocol {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_Locations_descriptor;
       }
 
-      public Locations getDefaultInstanceForType() {
-        return Locations.getDefaultInstance();
+      public demos.worldclock.WorldClockProtocol.Locations getDefaultInstanceForType() {
+        return demos.worldclock.WorldClockProtocol.Locations.getDefaultInstance();
       }
 
-      public Locations build() {
-        Locations result = buildPartial();
+      public demos.worldclock.WorldClockProtocol.Locations build() {
+        demos.worldclock.WorldClockProtocol.Locations result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public Locations buildPartial() {
-        Locations result = new Locations(this);
+      public demos.worldclock.WorldClockProtocol.Locations buildPartial() {
+        demos.worldclock.WorldClockProtocol.Locations result = new demos.worldclock.WorldClockProtocol.Locations(this);
         int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
         if (locationBuilder_ == null) {
           if (((bitField0_ & 0x00000001) == 0x00000001)) {
             location_ = java.util.Collections.unmodifiableList(location_);
@@ -1253,21 +1314,26 @@ public final class WorldClockProtocol {
         } else {
           result.location_ = locationBuilder_.build();
         }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.id_ = id_;
+        result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof Locations) {
-          return mergeFrom((Locations)other);
+        if (other instanceof demos.worldclock.WorldClockProtocol.Locations) {
+          return mergeFrom((demos.worldclock.WorldClockProtocol.Locations)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(Locations other) {
-        if (other == Locations.getDefaultInstance()) return this;
+      public Builder mergeFrom(demos.worldclock.WorldClockProtocol.Locations other) {
+        if (other == demos.worldclock.WorldClockProtocol.Locations.getDefaultInstance()) return this;
         if (locationBuilder_ == null) {
           if (!other.location_.isEmpty()) {
             if (location_.isEmpty()) {
@@ -1294,6 +1360,9 @@ public final class WorldClockProtocol {
             }
           }
         }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -1312,11 +1381,11 @@ public final class WorldClockProtocol {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        Locations parsedMessage = null;
+        demos.worldclock.WorldClockProtocol.Locations parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (Locations) e.getUnfinishedMessage();
+          parsedMessage = (demos.worldclock.WorldClockProtocol.Locations) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -1327,23 +1396,22 @@ public final class WorldClockProtocol {
       }
       private int bitField0_;
 
-      // repeated .io.netty.example.worldclock.Location location = 1;
-      private java.util.List<Location> location_ =
+      private java.util.List<demos.worldclock.WorldClockProtocol.Location> location_ =
         java.util.Collections.emptyList();
       private void ensureLocationIsMutable() {
         if (!((bitField0_ & 0x00000001) == 0x00000001)) {
-          location_ = new java.util.ArrayList<Location>(location_);
+          location_ = new java.util.ArrayList<demos.worldclock.WorldClockProtocol.Location>(location_);
           bitField0_ |= 0x00000001;
          }
       }
 
       private com.google.protobuf.RepeatedFieldBuilder<
-          Location, Location.Builder, LocationOrBuilder> locationBuilder_;
+          demos.worldclock.WorldClockProtocol.Location, demos.worldclock.WorldClockProtocol.Location.Builder, demos.worldclock.WorldClockProtocol.LocationOrBuilder> locationBuilder_;
 
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public java.util.List<Location> getLocationList() {
+      public java.util.List<demos.worldclock.WorldClockProtocol.Location> getLocationList() {
         if (locationBuilder_ == null) {
           return java.util.Collections.unmodifiableList(location_);
         } else {
@@ -1363,7 +1431,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public Location getLocation(int index) {
+      public demos.worldclock.WorldClockProtocol.Location getLocation(int index) {
         if (locationBuilder_ == null) {
           return location_.get(index);
         } else {
@@ -1374,7 +1442,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder setLocation(
-          int index, Location value) {
+          int index, demos.worldclock.WorldClockProtocol.Location value) {
         if (locationBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -1391,7 +1459,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder setLocation(
-          int index, Location.Builder builderForValue) {
+          int index, demos.worldclock.WorldClockProtocol.Location.Builder builderForValue) {
         if (locationBuilder_ == null) {
           ensureLocationIsMutable();
           location_.set(index, builderForValue.build());
@@ -1404,7 +1472,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public Builder addLocation(Location value) {
+      public Builder addLocation(demos.worldclock.WorldClockProtocol.Location value) {
         if (locationBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -1421,7 +1489,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder addLocation(
-          int index, Location value) {
+          int index, demos.worldclock.WorldClockProtocol.Location value) {
         if (locationBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -1438,7 +1506,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder addLocation(
-          Location.Builder builderForValue) {
+          demos.worldclock.WorldClockProtocol.Location.Builder builderForValue) {
         if (locationBuilder_ == null) {
           ensureLocationIsMutable();
           location_.add(builderForValue.build());
@@ -1452,7 +1520,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder addLocation(
-          int index, Location.Builder builderForValue) {
+          int index, demos.worldclock.WorldClockProtocol.Location.Builder builderForValue) {
         if (locationBuilder_ == null) {
           ensureLocationIsMutable();
           location_.add(index, builderForValue.build());
@@ -1466,10 +1534,11 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
       public Builder addAllLocation(
-          Iterable<? extends Location> values) {
+          java.lang.Iterable<? extends demos.worldclock.WorldClockProtocol.Location> values) {
         if (locationBuilder_ == null) {
           ensureLocationIsMutable();
-          super.addAll(values, location_);
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, location_);
           onChanged();
         } else {
           locationBuilder_.addAllMessages(values);
@@ -1505,14 +1574,14 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public Location.Builder getLocationBuilder(
+      public demos.worldclock.WorldClockProtocol.Location.Builder getLocationBuilder(
           int index) {
         return getLocationFieldBuilder().getBuilder(index);
       }
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public LocationOrBuilder getLocationOrBuilder(
+      public demos.worldclock.WorldClockProtocol.LocationOrBuilder getLocationOrBuilder(
           int index) {
         if (locationBuilder_ == null) {
           return location_.get(index);  } else {
@@ -1522,7 +1591,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public java.util.List<? extends LocationOrBuilder>
+      public java.util.List<? extends demos.worldclock.WorldClockProtocol.LocationOrBuilder> 
            getLocationOrBuilderList() {
         if (locationBuilder_ != null) {
           return locationBuilder_.getMessageOrBuilderList();
@@ -1533,31 +1602,31 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public Location.Builder addLocationBuilder() {
+      public demos.worldclock.WorldClockProtocol.Location.Builder addLocationBuilder() {
         return getLocationFieldBuilder().addBuilder(
-            Location.getDefaultInstance());
+            demos.worldclock.WorldClockProtocol.Location.getDefaultInstance());
       }
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public Location.Builder addLocationBuilder(
+      public demos.worldclock.WorldClockProtocol.Location.Builder addLocationBuilder(
           int index) {
         return getLocationFieldBuilder().addBuilder(
-            index, Location.getDefaultInstance());
+            index, demos.worldclock.WorldClockProtocol.Location.getDefaultInstance());
       }
       /**
        * <code>repeated .io.netty.example.worldclock.Location location = 1;</code>
        */
-      public java.util.List<Location.Builder>
+      public java.util.List<demos.worldclock.WorldClockProtocol.Location.Builder> 
            getLocationBuilderList() {
         return getLocationFieldBuilder().getBuilderList();
       }
       private com.google.protobuf.RepeatedFieldBuilder<
-          Location, Location.Builder, LocationOrBuilder>
+          demos.worldclock.WorldClockProtocol.Location, demos.worldclock.WorldClockProtocol.Location.Builder, demos.worldclock.WorldClockProtocol.LocationOrBuilder> 
           getLocationFieldBuilder() {
         if (locationBuilder_ == null) {
           locationBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
-              Location, Location.Builder, LocationOrBuilder>(
+              demos.worldclock.WorldClockProtocol.Location, demos.worldclock.WorldClockProtocol.Location.Builder, demos.worldclock.WorldClockProtocol.LocationOrBuilder>(
                   location_,
                   ((bitField0_ & 0x00000001) == 0x00000001),
                   getParentForChildren(),
@@ -1567,6 +1636,54 @@ public final class WorldClockProtocol {
         return locationBuilder_;
       }
 
+      private long id_ ;
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+       * </pre>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+       * </pre>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+       * </pre>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000002;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Set by pipelining clients; the answer carries it back in LocalTimes.id.
+       * </pre>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:io.netty.example.worldclock.Locations)
     }
 
@@ -1578,10 +1695,10 @@ public final class WorldClockProtocol {
     // @@protoc_insertion_point(class_scope:io.netty.example.worldclock.Locations)
   }
 
-  public interface LocalTimeOrBuilder
-      extends com.google.protobuf.MessageOrBuilder {
+  public interface LocalTimeOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.netty.example.worldclock.LocalTime)
+      com.google.protobuf.MessageOrBuilder {
 
-    // required uint32 year = 1;
     /**
      * <code>required uint32 year = 1;</code>
      */
@@ -1591,7 +1708,6 @@ public final class WorldClockProtocol {
      */
     int getYear();
 
-    // required uint32 month = 2;
     /**
      * <code>required uint32 month = 2;</code>
      */
@@ -1601,7 +1717,6 @@ public final class WorldClockProtocol {
      */
     int getMonth();
 
-    // required uint32 dayOfMonth = 4;
     /**
      * <code>required uint32 dayOfMonth = 4;</code>
      */
@@ -1611,7 +1726,6 @@ public final class WorldClockProtocol {
      */
     int getDayOfMonth();
 
-    // required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;
     /**
      * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
      */
@@ -1619,9 +1733,8 @@ public final class WorldClockProtocol {
     /**
      * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
      */
-    DayOfWeek getDayOfWeek();
+    demos.worldclock.WorldClockProtocol.DayOfWeek getDayOfWeek();
 
-    // required uint32 hour = 6;
     /**
      * <code>required uint32 hour = 6;</code>
      */
@@ -1631,7 +1744,6 @@ public final class WorldClockProtocol {
      */
     int getHour();
 
-    // required uint32 minute = 7;
     /**
      * <code>required uint32 minute = 7;</code>
      */
@@ -1641,7 +1753,6 @@ public final class WorldClockProtocol {
      */
     int getMinute();
 
-    // required uint32 second = 8;
     /**
      * <code>required uint32 second = 8;</code>
      */
@@ -1655,8 +1766,9 @@ public final class WorldClockProtocol {
    * Protobuf type {@code io.netty.example.worldclock.LocalTime}
    */
   public static final class LocalTime extends
-      com.google.protobuf.GeneratedMessage
-      implements LocalTimeOrBuilder {
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:io.netty.example.worldclock.LocalTime)
+      LocalTimeOrBuilder {
     // Use LocalTime.newBuilder() to construct.
     private LocalTime(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
@@ -1674,7 +1786,7 @@ public final class WorldClockProtocol {
     }
 
     private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
+    @java.lang.Override
     public final com.google.protobuf.UnknownFieldSet
         getUnknownFields() {
       return this.unknownFields;
@@ -1719,7 +1831,7 @@ public final class WorldClockProtocol {
             }
             case 40: {
               int rawValue = input.readEnum();
-              DayOfWeek value = DayOfWeek.valueOf(rawValue);
+              demos.worldclock.WorldClockProtocol.DayOfWeek value = demos.worldclock.WorldClockProtocol.DayOfWeek.valueOf(rawValue);
               if (value == null) {
                 unknownFields.mergeVarintField(5, rawValue);
               } else {
@@ -1757,14 +1869,14 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
     }
 
-    protected FieldAccessorTable
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              LocalTime.class, Builder.class);
+              demos.worldclock.WorldClockProtocol.LocalTime.class, demos.worldclock.WorldClockProtocol.LocalTime.Builder.class);
     }
 
     public static com.google.protobuf.Parser<LocalTime> PARSER =
@@ -1777,13 +1889,12 @@ public final class WorldClockProtocol {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<LocalTime> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // required uint32 year = 1;
     public static final int YEAR_FIELD_NUMBER = 1;
     private int year_;
     /**
@@ -1799,7 +1910,6 @@ public final class WorldClockProtocol {
       return year_;
     }
 
-    // required uint32 month = 2;
     public static final int MONTH_FIELD_NUMBER = 2;
     private int month_;
     /**
@@ -1815,7 +1925,6 @@ public final class WorldClockProtocol {
       return month_;
     }
 
-    // required uint32 dayOfMonth = 4;
     public static final int DAYOFMONTH_FIELD_NUMBER = 4;
     private int dayOfMonth_;
     /**
@@ -1831,9 +1940,8 @@ public final class WorldClockProtocol {
       return dayOfMonth_;
     }
 
-    // required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;
     public static final int DAYOFWEEK_FIELD_NUMBER = 5;
-    private DayOfWeek dayOfWeek_;
+    private demos.worldclock.WorldClockProtocol.DayOfWeek dayOfWeek_;
     /**
      * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
      */
@@ -1843,11 +1951,10 @@ public final class WorldClockProtocol {
     /**
      * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
      */
-    public DayOfWeek getDayOfWeek() {
+    public demos.worldclock.WorldClockProtocol.DayOfWeek getDayOfWeek() {
       return dayOfWeek_;
     }
 
-    // required uint32 hour = 6;
     public static final int HOUR_FIELD_NUMBER = 6;
     private int hour_;
     /**
@@ -1863,7 +1970,6 @@ public final class WorldClockProtocol {
       return hour_;
     }
 
-    // required uint32 minute = 7;
     public static final int MINUTE_FIELD_NUMBER = 7;
     private int minute_;
     /**
@@ -1879,7 +1985,6 @@ public final class WorldClockProtocol {
       return minute_;
     }
 
-    // required uint32 second = 8;
     public static final int SECOND_FIELD_NUMBER = 8;
     private int second_;
     /**
@@ -1899,7 +2004,7 @@ public final class WorldClockProtocol {
       year_ = 0;
       month_ = 0;
       dayOfMonth_ = 0;
-      dayOfWeek_ = DayOfWeek.SUNDAY;
+      dayOfWeek_ = demos.worldclock.WorldClockProtocol.DayOfWeek.SUNDAY;
       hour_ = 0;
       minute_ = 0;
       second_ = 0;
@@ -1907,7 +2012,8 @@ public final class WorldClockProtocol {
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
-      if (isInitialized != -1) return isInitialized == 1;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
       if (!hasYear()) {
         memoizedIsInitialized = 0;
@@ -2008,59 +2114,59 @@ public final class WorldClockProtocol {
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static LocalTime parseFrom(byte[] data)
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static LocalTime parseFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static LocalTime parseDelimitedFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static LocalTime parseDelimitedFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static LocalTime parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTime parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -2069,14 +2175,14 @@ public final class WorldClockProtocol {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(LocalTime prototype) {
+    public static Builder newBuilder(demos.worldclock.WorldClockProtocol.LocalTime prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
+    @java.lang.Override
     protected Builder newBuilderForType(
-        BuilderParent parent) {
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
       Builder builder = new Builder(parent);
       return builder;
     }
@@ -2084,27 +2190,28 @@ public final class WorldClockProtocol {
      * Protobuf type {@code io.netty.example.worldclock.LocalTime}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements LocalTimeOrBuilder {
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.netty.example.worldclock.LocalTime)
+        demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
       }
 
-      protected FieldAccessorTable
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                LocalTime.class, Builder.class);
+                demos.worldclock.WorldClockProtocol.LocalTime.class, demos.worldclock.WorldClockProtocol.LocalTime.Builder.class);
       }
 
-      // Construct using WorldClockProtocol.LocalTime.newBuilder()
+      // Construct using demos.worldclock.WorldClockProtocol.LocalTime.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
       private Builder(
-          BuilderParent parent) {
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
         super(parent);
         maybeForceBuilderInitialization();
       }
@@ -2124,7 +2231,7 @@ public final class WorldClockProtocol {
         bitField0_ = (bitField0_ & ~0x00000002);
         dayOfMonth_ = 0;
         bitField0_ = (bitField0_ & ~0x00000004);
-        dayOfWeek_ = DayOfWeek.SUNDAY;
+        dayOfWeek_ = demos.worldclock.WorldClockProtocol.DayOfWeek.SUNDAY;
         bitField0_ = (bitField0_ & ~0x00000008);
         hour_ = 0;
         bitField0_ = (bitField0_ & ~0x00000010);
@@ -2141,23 +2248,23 @@ public final class WorldClockProtocol {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTime_descriptor;
       }
 
-      public LocalTime getDefaultInstanceForType() {
-        return LocalTime.getDefaultInstance();
+      public demos.worldclock.WorldClockProtocol.LocalTime getDefaultInstanceForType() {
+        return demos.worldclock.WorldClockProtocol.LocalTime.getDefaultInstance();
       }
 
-      public LocalTime build() {
-        LocalTime result = buildPartial();
+      public demos.worldclock.WorldClockProtocol.LocalTime build() {
+        demos.worldclock.WorldClockProtocol.LocalTime result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public LocalTime buildPartial() {
-        LocalTime result = new LocalTime(this);
+      public demos.worldclock.WorldClockProtocol.LocalTime buildPartial() {
+        demos.worldclock.WorldClockProtocol.LocalTime result = new demos.worldclock.WorldClockProtocol.LocalTime(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
@@ -2194,16 +2301,16 @@ public final class WorldClockProtocol {
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof LocalTime) {
-          return mergeFrom((LocalTime)other);
+        if (other instanceof demos.worldclock.WorldClockProtocol.LocalTime) {
+          return mergeFrom((demos.worldclock.WorldClockProtocol.LocalTime)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(LocalTime other) {
-        if (other == LocalTime.getDefaultInstance()) return this;
+      public Builder mergeFrom(demos.worldclock.WorldClockProtocol.LocalTime other) {
+        if (other == demos.worldclock.WorldClockProtocol.LocalTime.getDefaultInstance()) return this;
         if (other.hasYear()) {
           setYear(other.getYear());
         }
@@ -2265,11 +2372,11 @@ public final class WorldClockProtocol {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        LocalTime parsedMessage = null;
+        demos.worldclock.WorldClockProtocol.LocalTime parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (LocalTime) e.getUnfinishedMessage();
+          parsedMessage = (demos.worldclock.WorldClockProtocol.LocalTime) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -2280,7 +2387,6 @@ public final class WorldClockProtocol {
       }
       private int bitField0_;
 
-      // required uint32 year = 1;
       private int year_ ;
       /**
        * <code>required uint32 year = 1;</code>
@@ -2313,7 +2419,6 @@ public final class WorldClockProtocol {
         return this;
       }
 
-      // required uint32 month = 2;
       private int month_ ;
       /**
        * <code>required uint32 month = 2;</code>
@@ -2346,7 +2451,6 @@ public final class WorldClockProtocol {
         return this;
       }
 
-      // required uint32 dayOfMonth = 4;
       private int dayOfMonth_ ;
       /**
        * <code>required uint32 dayOfMonth = 4;</code>
@@ -2379,8 +2483,7 @@ public final class WorldClockProtocol {
         return this;
       }
 
-      // required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;
-      private DayOfWeek dayOfWeek_ = DayOfWeek.SUNDAY;
+      private demos.worldclock.WorldClockProtocol.DayOfWeek dayOfWeek_ = demos.worldclock.WorldClockProtocol.DayOfWeek.SUNDAY;
       /**
        * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
        */
@@ -2390,13 +2493,13 @@ public final class WorldClockProtocol {
       /**
        * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
        */
-      public DayOfWeek getDayOfWeek() {
+      public demos.worldclock.WorldClockProtocol.DayOfWeek getDayOfWeek() {
         return dayOfWeek_;
       }
       /**
        * <code>required .io.netty.example.worldclock.DayOfWeek dayOfWeek = 5;</code>
        */
-      public Builder setDayOfWeek(DayOfWeek value) {
+      public Builder setDayOfWeek(demos.worldclock.WorldClockProtocol.DayOfWeek value) {
         if (value == null) {
           throw new NullPointerException();
         }
@@ -2410,12 +2513,11 @@ public final class WorldClockProtocol {
        */
       public Builder clearDayOfWeek() {
         bitField0_ = (bitField0_ & ~0x00000008);
-        dayOfWeek_ = DayOfWeek.SUNDAY;
+        dayOfWeek_ = demos.worldclock.WorldClockProtocol.DayOfWeek.SUNDAY;
         onChanged();
         return this;
       }
 
-      // required uint32 hour = 6;
       private int hour_ ;
       /**
        * <code>required uint32 hour = 6;</code>
@@ -2448,7 +2550,6 @@ public final class WorldClockProtocol {
         return this;
       }
 
-      // required uint32 minute = 7;
       private int minute_ ;
       /**
        * <code>required uint32 minute = 7;</code>
@@ -2481,7 +2582,6 @@ public final class WorldClockProtocol {
         return this;
       }
 
-      // required uint32 second = 8;
       private int second_ ;
       /**
        * <code>required uint32 second = 8;</code>
@@ -2525,19 +2625,19 @@ public final class WorldClockProtocol {
     // @@protoc_insertion_point(class_scope:io.netty.example.worldclock.LocalTime)
   }
 
-  public interface LocalTimesOrBuilder
-      extends com.google.protobuf.MessageOrBuilder {
+  public interface LocalTimesOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:io.netty.example.worldclock.LocalTimes)
+      com.google.protobuf.MessageOrBuilder {
 
-    // repeated .io.netty.example.worldclock.LocalTime localTime = 1;
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    java.util.List<LocalTime>
+    java.util.List<demos.worldclock.WorldClockProtocol.LocalTime> 
         getLocalTimeList();
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    LocalTime getLocalTime(int index);
+    demos.worldclock.WorldClockProtocol.LocalTime getLocalTime(int index);
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
@@ -2545,20 +2645,38 @@ public final class WorldClockProtocol {
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    java.util.List<? extends LocalTimeOrBuilder>
+    java.util.List<? extends demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder> 
         getLocalTimeOrBuilderList();
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    LocalTimeOrBuilder getLocalTimeOrBuilder(
-            int index);
+    demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder getLocalTimeOrBuilder(
+        int index);
+
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Id of the Locations request this answers, if it had one.
+     * </pre>
+     */
+    boolean hasId();
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Id of the Locations request this answers, if it had one.
+     * </pre>
+     */
+    long getId();
   }
   /**
    * Protobuf type {@code io.netty.example.worldclock.LocalTimes}
    */
   public static final class LocalTimes extends
-      com.google.protobuf.GeneratedMessage
-      implements LocalTimesOrBuilder {
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:io.netty.example.worldclock.LocalTimes)
+      LocalTimesOrBuilder {
     // Use LocalTimes.newBuilder() to construct.
     private LocalTimes(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
@@ -2576,7 +2694,7 @@ public final class WorldClockProtocol {
     }
 
     private final com.google.protobuf.UnknownFieldSet unknownFields;
-    @Override
+    @java.lang.Override
     public final com.google.protobuf.UnknownFieldSet
         getUnknownFields() {
       return this.unknownFields;
@@ -2606,10 +2724,15 @@ public final class WorldClockProtocol {
             }
             case 10: {
               if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
-                localTime_ = new java.util.ArrayList<LocalTime>();
+                localTime_ = new java.util.ArrayList<demos.worldclock.WorldClockProtocol.LocalTime>();
                 mutable_bitField0_ |= 0x00000001;
               }
-              localTime_.add(input.readMessage(LocalTime.PARSER, extensionRegistry));
+              localTime_.add(input.readMessage(demos.worldclock.WorldClockProtocol.LocalTime.PARSER, extensionRegistry));
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              id_ = input.readUInt64();
               break;
             }
           }
@@ -2629,14 +2752,14 @@ public final class WorldClockProtocol {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
     }
 
-    protected FieldAccessorTable
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable
+      return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              LocalTimes.class, Builder.class);
+              demos.worldclock.WorldClockProtocol.LocalTimes.class, demos.worldclock.WorldClockProtocol.LocalTimes.Builder.class);
     }
 
     public static com.google.protobuf.Parser<LocalTimes> PARSER =
@@ -2649,24 +2772,24 @@ public final class WorldClockProtocol {
       }
     };
 
-    @Override
+    @java.lang.Override
     public com.google.protobuf.Parser<LocalTimes> getParserForType() {
       return PARSER;
     }
 
-    // repeated .io.netty.example.worldclock.LocalTime localTime = 1;
+    private int bitField0_;
     public static final int LOCALTIME_FIELD_NUMBER = 1;
-    private java.util.List<LocalTime> localTime_;
+    private java.util.List<demos.worldclock.WorldClockProtocol.LocalTime> localTime_;
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    public java.util.List<LocalTime> getLocalTimeList() {
+    public java.util.List<demos.worldclock.WorldClockProtocol.LocalTime> getLocalTimeList() {
       return localTime_;
     }
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    public java.util.List<? extends LocalTimeOrBuilder>
+    public java.util.List<? extends demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder> 
         getLocalTimeOrBuilderList() {
       return localTime_;
     }
@@ -2679,24 +2802,49 @@ public final class WorldClockProtocol {
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    public LocalTime getLocalTime(int index) {
+    public demos.worldclock.WorldClockProtocol.LocalTime getLocalTime(int index) {
       return localTime_.get(index);
     }
     /**
      * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
      */
-    public LocalTimeOrBuilder getLocalTimeOrBuilder(
+    public demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder getLocalTimeOrBuilder(
         int index) {
       return localTime_.get(index);
     }
 
+    public static final int ID_FIELD_NUMBER = 2;
+    private long id_;
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Id of the Locations request this answers, if it had one.
+     * </pre>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint64 id = 2;</code>
+     *
+     * <pre>
+     * Id of the Locations request this answers, if it had one.
+     * </pre>
+     */
+    public long getId() {
+      return id_;
+    }
+
     private void initFields() {
       localTime_ = java.util.Collections.emptyList();
+      id_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
       byte isInitialized = memoizedIsInitialized;
-      if (isInitialized != -1) return isInitialized == 1;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
       for (int i = 0; i < getLocalTimeCount(); i++) {
         if (!getLocalTime(i).isInitialized()) {
@@ -2714,6 +2862,9 @@ public final class WorldClockProtocol {
       for (int i = 0; i < localTime_.size(); i++) {
         output.writeMessage(1, localTime_.get(i));
       }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt64(2, id_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -2727,65 +2878,69 @@ public final class WorldClockProtocol {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(1, localTime_.get(i));
       }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, id_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
     }
 
     private static final long serialVersionUID = 0L;
-    @Override
-    protected Object writeReplace()
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
         throws java.io.ObjectStreamException {
       return super.writeReplace();
     }
 
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static LocalTimes parseFrom(byte[] data)
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static LocalTimes parseFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static LocalTimes parseDelimitedFrom(java.io.InputStream input)
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static LocalTimes parseDelimitedFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static LocalTimes parseFrom(
+    public static demos.worldclock.WorldClockProtocol.LocalTimes parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -2794,14 +2949,14 @@ public final class WorldClockProtocol {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(LocalTimes prototype) {
+    public static Builder newBuilder(demos.worldclock.WorldClockProtocol.LocalTimes prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
 
-    @Override
+    @java.lang.Override
     protected Builder newBuilderForType(
-        BuilderParent parent) {
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
       Builder builder = new Builder(parent);
       return builder;
     }
@@ -2809,27 +2964,28 @@ public final class WorldClockProtocol {
      * Protobuf type {@code io.netty.example.worldclock.LocalTimes}
      */
     public static final class Builder extends
-        com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements LocalTimesOrBuilder {
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:io.netty.example.worldclock.LocalTimes)
+        demos.worldclock.WorldClockProtocol.LocalTimesOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
       }
 
-      protected FieldAccessorTable
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                LocalTimes.class, Builder.class);
+                demos.worldclock.WorldClockProtocol.LocalTimes.class, demos.worldclock.WorldClockProtocol.LocalTimes.Builder.class);
       }
 
-      // Construct using WorldClockProtocol.LocalTimes.newBuilder()
+      // Construct using demos.worldclock.WorldClockProtocol.LocalTimes.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
 
       private Builder(
-          BuilderParent parent) {
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
         super(parent);
         maybeForceBuilderInitialization();
       }
@@ -2850,6 +3006,8 @@ public final class WorldClockProtocol {
         } else {
           localTimeBuilder_.clear();
         }
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -2859,24 +3017,25 @@ public final class WorldClockProtocol {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
+        return demos.worldclock.WorldClockProtocol.internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
       }
 
-      public LocalTimes getDefaultInstanceForType() {
-        return LocalTimes.getDefaultInstance();
+      public demos.worldclock.WorldClockProtocol.LocalTimes getDefaultInstanceForType() {
+        return demos.worldclock.WorldClockProtocol.LocalTimes.getDefaultInstance();
       }
 
-      public LocalTimes build() {
-        LocalTimes result = buildPartial();
+      public demos.worldclock.WorldClockProtocol.LocalTimes build() {
+        demos.worldclock.WorldClockProtocol.LocalTimes result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public LocalTimes buildPartial() {
-        LocalTimes result = new LocalTimes(this);
+      public demos.worldclock.WorldClockProtocol.LocalTimes buildPartial() {
+        demos.worldclock.WorldClockProtocol.LocalTimes result = new demos.worldclock.WorldClockProtocol.LocalTimes(this);
         int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
         if (localTimeBuilder_ == null) {
           if (((bitField0_ & 0x00000001) == 0x00000001)) {
             localTime_ = java.util.Collections.unmodifiableList(localTime_);
@@ -2886,21 +3045,26 @@ public final class WorldClockProtocol {
         } else {
           result.localTime_ = localTimeBuilder_.build();
         }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.id_ = id_;
+        result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof LocalTimes) {
-          return mergeFrom((LocalTimes)other);
+        if (other instanceof demos.worldclock.WorldClockProtocol.LocalTimes) {
+          return mergeFrom((demos.worldclock.WorldClockProtocol.LocalTimes)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(LocalTimes other) {
-        if (other == LocalTimes.getDefaultInstance()) return this;
+      public Builder mergeFrom(demos.worldclock.WorldClockProtocol.LocalTimes other) {
+        if (other == demos.worldclock.WorldClockProtocol.LocalTimes.getDefaultInstance()) return this;
         if (localTimeBuilder_ == null) {
           if (!other.localTime_.isEmpty()) {
             if (localTime_.isEmpty()) {
@@ -2927,6 +3091,9 @@ public final class WorldClockProtocol {
             }
           }
         }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -2945,11 +3112,11 @@ public final class WorldClockProtocol {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        LocalTimes parsedMessage = null;
+        demos.worldclock.WorldClockProtocol.LocalTimes parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (LocalTimes) e.getUnfinishedMessage();
+          parsedMessage = (demos.worldclock.WorldClockProtocol.LocalTimes) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -2960,23 +3127,22 @@ public final class WorldClockProtocol {
       }
       private int bitField0_;
 
-      // repeated .io.netty.example.worldclock.LocalTime localTime = 1;
-      private java.util.List<LocalTime> localTime_ =
+      private java.util.List<demos.worldclock.WorldClockProtocol.LocalTime> localTime_ =
         java.util.Collections.emptyList();
       private void ensureLocalTimeIsMutable() {
         if (!((bitField0_ & 0x00000001) == 0x00000001)) {
-          localTime_ = new java.util.ArrayList<LocalTime>(localTime_);
+          localTime_ = new java.util.ArrayList<demos.worldclock.WorldClockProtocol.LocalTime>(localTime_);
           bitField0_ |= 0x00000001;
          }
       }
 
       private com.google.protobuf.RepeatedFieldBuilder<
-          LocalTime, LocalTime.Builder, LocalTimeOrBuilder> localTimeBuilder_;
+          demos.worldclock.WorldClockProtocol.LocalTime, demos.worldclock.WorldClockProtocol.LocalTime.Builder, demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder> localTimeBuilder_;
 
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public java.util.List<LocalTime> getLocalTimeList() {
+      public java.util.List<demos.worldclock.WorldClockProtocol.LocalTime> getLocalTimeList() {
         if (localTimeBuilder_ == null) {
           return java.util.Collections.unmodifiableList(localTime_);
         } else {
@@ -2996,7 +3162,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public LocalTime getLocalTime(int index) {
+      public demos.worldclock.WorldClockProtocol.LocalTime getLocalTime(int index) {
         if (localTimeBuilder_ == null) {
           return localTime_.get(index);
         } else {
@@ -3007,7 +3173,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder setLocalTime(
-          int index, LocalTime value) {
+          int index, demos.worldclock.WorldClockProtocol.LocalTime value) {
         if (localTimeBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -3024,7 +3190,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder setLocalTime(
-          int index, LocalTime.Builder builderForValue) {
+          int index, demos.worldclock.WorldClockProtocol.LocalTime.Builder builderForValue) {
         if (localTimeBuilder_ == null) {
           ensureLocalTimeIsMutable();
           localTime_.set(index, builderForValue.build());
@@ -3037,7 +3203,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public Builder addLocalTime(LocalTime value) {
+      public Builder addLocalTime(demos.worldclock.WorldClockProtocol.LocalTime value) {
         if (localTimeBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -3054,7 +3220,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder addLocalTime(
-          int index, LocalTime value) {
+          int index, demos.worldclock.WorldClockProtocol.LocalTime value) {
         if (localTimeBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
@@ -3071,7 +3237,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder addLocalTime(
-          LocalTime.Builder builderForValue) {
+          demos.worldclock.WorldClockProtocol.LocalTime.Builder builderForValue) {
         if (localTimeBuilder_ == null) {
           ensureLocalTimeIsMutable();
           localTime_.add(builderForValue.build());
@@ -3085,7 +3251,7 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder addLocalTime(
-          int index, LocalTime.Builder builderForValue) {
+          int index, demos.worldclock.WorldClockProtocol.LocalTime.Builder builderForValue) {
         if (localTimeBuilder_ == null) {
           ensureLocalTimeIsMutable();
           localTime_.add(index, builderForValue.build());
@@ -3099,10 +3265,11 @@ public final class WorldClockProtocol {
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
       public Builder addAllLocalTime(
-          Iterable<? extends LocalTime> values) {
+          java.lang.Iterable<? extends demos.worldclock.WorldClockProtocol.LocalTime> values) {
         if (localTimeBuilder_ == null) {
           ensureLocalTimeIsMutable();
-          super.addAll(values, localTime_);
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, localTime_);
           onChanged();
         } else {
           localTimeBuilder_.addAllMessages(values);
@@ -3138,14 +3305,14 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public LocalTime.Builder getLocalTimeBuilder(
+      public demos.worldclock.WorldClockProtocol.LocalTime.Builder getLocalTimeBuilder(
           int index) {
         return getLocalTimeFieldBuilder().getBuilder(index);
       }
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public LocalTimeOrBuilder getLocalTimeOrBuilder(
+      public demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder getLocalTimeOrBuilder(
           int index) {
         if (localTimeBuilder_ == null) {
           return localTime_.get(index);  } else {
@@ -3155,7 +3322,7 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public java.util.List<? extends LocalTimeOrBuilder>
+      public java.util.List<? extends demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder> 
            getLocalTimeOrBuilderList() {
         if (localTimeBuilder_ != null) {
           return localTimeBuilder_.getMessageOrBuilderList();
@@ -3166,31 +3333,31 @@ public final class WorldClockProtocol {
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public LocalTime.Builder addLocalTimeBuilder() {
+      public demos.worldclock.WorldClockProtocol.LocalTime.Builder addLocalTimeBuilder() {
         return getLocalTimeFieldBuilder().addBuilder(
-            LocalTime.getDefaultInstance());
+            demos.worldclock.WorldClockProtocol.LocalTime.getDefaultInstance());
       }
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public LocalTime.Builder addLocalTimeBuilder(
+      public demos.worldclock.WorldClockProtocol.LocalTime.Builder addLocalTimeBuilder(
           int index) {
         return getLocalTimeFieldBuilder().addBuilder(
-            index, LocalTime.getDefaultInstance());
+            index, demos.worldclock.WorldClockProtocol.LocalTime.getDefaultInstance());
       }
       /**
        * <code>repeated .io.netty.example.worldclock.LocalTime localTime = 1;</code>
        */
-      public java.util.List<LocalTime.Builder>
+      public java.util.List<demos.worldclock.WorldClockProtocol.LocalTime.Builder> 
            getLocalTimeBuilderList() {
         return getLocalTimeFieldBuilder().getBuilderList();
       }
       private com.google.protobuf.RepeatedFieldBuilder<
-          LocalTime, LocalTime.Builder, LocalTimeOrBuilder>
+          demos.worldclock.WorldClockProtocol.LocalTime, demos.worldclock.WorldClockProtocol.LocalTime.Builder, demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder> 
           getLocalTimeFieldBuilder() {
         if (localTimeBuilder_ == null) {
           localTimeBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
-              LocalTime, LocalTime.Builder, LocalTimeOrBuilder>(
+              demos.worldclock.WorldClockProtocol.LocalTime, demos.worldclock.WorldClockProtocol.LocalTime.Builder, demos.worldclock.WorldClockProtocol.LocalTimeOrBuilder>(
                   localTime_,
                   ((bitField0_ & 0x00000001) == 0x00000001),
                   getParentForChildren(),
@@ -3200,6 +3367,54 @@ public final class WorldClockProtocol {
         return localTimeBuilder_;
       }
 
+      private long id_ ;
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Id of the Locations request this answers, if it had one.
+       * </pre>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Id of the Locations request this answers, if it had one.
+       * </pre>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Id of the Locations request this answers, if it had one.
+       * </pre>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000002;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 id = 2;</code>
+       *
+       * <pre>
+       * Id of the Locations request this answers, if it had one.
+       * </pre>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:io.netty.example.worldclock.LocalTimes)
     }
 
@@ -3211,22 +3426,22 @@ public final class WorldClockProtocol {
     // @@protoc_insertion_point(class_scope:io.netty.example.worldclock.LocalTimes)
   }
 
-  private static com.google.protobuf.Descriptors.Descriptor
+  private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_io_netty_example_worldclock_Location_descriptor;
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_io_netty_example_worldclock_Location_fieldAccessorTable;
-  private static com.google.protobuf.Descriptors.Descriptor
+  private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_io_netty_example_worldclock_Locations_descriptor;
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable;
-  private static com.google.protobuf.Descriptors.Descriptor
+  private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_io_netty_example_worldclock_LocalTime_descriptor;
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable;
-  private static com.google.protobuf.Descriptors.Descriptor
+  private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_io_netty_example_worldclock_LocalTimes_descriptor;
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
@@ -3239,63 +3454,64 @@ public final class WorldClockProtocol {
   private static com.google.protobuf.Descriptors.FileDescriptor
       descriptor;
   static {
-    String[] descriptorData = {
-      "\nBsrc/main/java/io/netty/example/worldcl" +
-      "ock/WorldClockProtocol.proto\022\033io.netty.e" +
-      "xample.worldclock\"S\n\010Location\0229\n\tcontine" +
-      "nt\030\001 \002(\0162&.io.netty.example.worldclock.C" +
-      "ontinent\022\014\n\004city\030\002 \002(\t\"D\n\tLocations\0227\n\010l" +
-      "ocation\030\001 \003(\0132%.io.netty.example.worldcl" +
-      "ock.Location\"\245\001\n\tLocalTime\022\014\n\004year\030\001 \002(\r" +
-      "\022\r\n\005month\030\002 \002(\r\022\022\n\ndayOfMonth\030\004 \002(\r\0229\n\td" +
-      "ayOfWeek\030\005 \002(\0162&.io.netty.example.worldc" +
-      "lock.DayOfWeek\022\014\n\004hour\030\006 \002(\r\022\016\n\006minute\030\007",
-      " \002(\r\022\016\n\006second\030\010 \002(\r\"G\n\nLocalTimes\0229\n\tlo" +
-      "calTime\030\001 \003(\0132&.io.netty.example.worldcl" +
-      "ock.LocalTime*\231\001\n\tContinent\022\n\n\006AFRICA\020\000\022" +
-      "\013\n\007AMERICA\020\001\022\016\n\nANTARCTICA\020\002\022\n\n\006ARCTIC\020\003" +
-      "\022\010\n\004ASIA\020\004\022\014\n\010ATLANTIC\020\005\022\r\n\tAUSTRALIA\020\006\022" +
-      "\n\n\006EUROPE\020\007\022\n\n\006INDIAN\020\010\022\013\n\007MIDEAST\020\t\022\013\n\007" +
-      "PACIFIC\020\n*g\n\tDayOfWeek\022\n\n\006SUNDAY\020\001\022\n\n\006MO" +
-      "NDAY\020\002\022\013\n\007TUESDAY\020\003\022\r\n\tWEDNESDAY\020\004\022\014\n\010TH" +
-      "URSDAY\020\005\022\n\n\006FRIDAY\020\006\022\014\n\010SATURDAY\020\007B\002H\001"
+    java.lang.String[] descriptorData = {
+      "\n7src/main/java/demos/worldclock/WorldCl" +
+      "ockProtocol.proto\022\033io.netty.example.worl" +
+      "dclock\"S\n\010Location\0229\n\tcontinent\030\001 \002(\0162&." +
+      "io.netty.example.worldclock.Continent\022\014\n" +
+      "\004city\030\002 \002(\t\"P\n\tLocations\0227\n\010location\030\001 \003" +
+      "(\0132%.io.netty.example.worldclock.Locatio" +
+      "n\022\n\n\002id\030\002 \001(\004\"\245\001\n\tLocalTime\022\014\n\004year\030\001 \002(" +
+      "\r\022\r\n\005month\030\002 \002(\r\022\022\n\ndayOfMonth\030\004 \002(\r\0229\n\t" +
+      "dayOfWeek\030\005 \002(\0162&.io.netty.example.world" +
+      "clock.DayOfWeek\022\014\n\004hour\030\006 \002(\r\022\016\n\006minute\030",
+      "\007 \002(\r\022\016\n\006second\030\010 \002(\r\"S\n\nLocalTimes\0229\n\tl" +
+      "ocalTime\030\001 \003(\0132&.io.netty.example.worldc" +
+      "lock.LocalTime\022\n\n\002id\030\002 \001(\004*\231\001\n\tContinent" +
+      "\022\n\n\006AFRICA\020\000\022\013\n\007AMERICA\020\001\022\016\n\nANTARCTICA\020" +
+      "\002\022\n\n\006ARCTIC\020\003\022\010\n\004ASIA\020\004\022\014\n\010ATLANTIC\020\005\022\r\n" +
+      "\tAUSTRALIA\020\006\022\n\n\006EUROPE\020\007\022\n\n\006INDIAN\020\010\022\013\n\007" +
+      "MIDEAST\020\t\022\013\n\007PACIFIC\020\n*g\n\tDayOfWeek\022\n\n\006S" +
+      "UNDAY\020\001\022\n\n\006MONDAY\020\002\022\013\n\007TUESDAY\020\003\022\r\n\tWEDN" +
+      "ESDAY\020\004\022\014\n\010THURSDAY\020\005\022\n\n\006FRIDAY\020\006\022\014\n\010SAT" +
+      "URDAY\020\007B\024\n\020demos.worldclockH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-      new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
-        public com.google.protobuf.ExtensionRegistry assignDescriptors(
-            com.google.protobuf.Descriptors.FileDescriptor root) {
-          descriptor = root;
-          internal_static_io_netty_example_worldclock_Location_descriptor =
-            getDescriptor().getMessageTypes().get(0);
-          internal_static_io_netty_example_worldclock_Location_fieldAccessorTable = new
-            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-              internal_static_io_netty_example_worldclock_Location_descriptor,
-              new String[] { "Continent", "City", });
-          internal_static_io_netty_example_worldclock_Locations_descriptor =
-            getDescriptor().getMessageTypes().get(1);
-          internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable = new
-            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-              internal_static_io_netty_example_worldclock_Locations_descriptor,
-              new String[] { "Location", });
-          internal_static_io_netty_example_worldclock_LocalTime_descriptor =
-            getDescriptor().getMessageTypes().get(2);
-          internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable = new
-            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-              internal_static_io_netty_example_worldclock_LocalTime_descriptor,
-              new String[] { "Year", "Month", "DayOfMonth", "DayOfWeek", "Hour", "Minute", "Second", });
-          internal_static_io_netty_example_worldclock_LocalTimes_descriptor =
-            getDescriptor().getMessageTypes().get(3);
-          internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable = new
-            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
-              internal_static_io_netty_example_worldclock_LocalTimes_descriptor,
-              new String[] { "LocalTime", });
-          return null;
-        }
-      };
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
+        };
     com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
         new com.google.protobuf.Descriptors.FileDescriptor[] {
         }, assigner);
+    internal_static_io_netty_example_worldclock_Location_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_io_netty_example_worldclock_Location_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_io_netty_example_worldclock_Location_descriptor,
+        new java.lang.String[] { "Continent", "City", });
+    internal_static_io_netty_example_worldclock_Locations_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_io_netty_example_worldclock_Locations_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_io_netty_example_worldclock_Locations_descriptor,
+        new java.lang.String[] { "Location", "Id", });
+    internal_static_io_netty_example_worldclock_LocalTime_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_io_netty_example_worldclock_LocalTime_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_io_netty_example_worldclock_LocalTime_descriptor,
+        new java.lang.String[] { "Year", "Month", "DayOfMonth", "DayOfWeek", "Hour", "Minute", "Second", });
+    internal_static_io_netty_example_worldclock_LocalTimes_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_io_netty_example_worldclock_LocalTimes_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_io_netty_example_worldclock_LocalTimes_descriptor,
+        new java.lang.String[] { "LocalTime", "Id", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
@@ -15,16 +15,18 @@
  */
 package demos.worldclock;
 
+import demos.metrics.NettyMetrics;
+import demos.tls.Tls;
+import demos.transport.Transport;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Receives a list of continent/city pairs from a {@link WorldClockClient} to
  * get the local times of the specified cities.
@@ -33,28 +35,45 @@ public final class WorldClockServer {
 
     static final boolean SSL = System.getProperty("ssl") != null;
     static final int PORT = Integer.parseInt(System.getProperty("port", "8463"));
+    // Application protocol name negotiated in the TLS handshake.
+    static final String ALPN = "worldclock";
 
     public static void main(String[] args) throws Exception {
-        // Configure SSL.
+        // Configure SSL: OpenSSL if netty-tcnative is there, with session resumption and ALPN.
         final SslContext sslCtx;
         if (SSL) {
-            SelfSignedCertificate ssc = new SelfSignedCertificate();
-            sslCtx = SslContextBuilder.forServer(ssc.certificate(), ssc.privateKey()).build();
+            Tls tls = Tls.fromSystemProperties().alpn(ALPN);
+            sslCtx = tls.forServer(new SelfSignedCertificate());
+            System.out.println("TLS: " + tls);
         } else {
             sslCtx = null;
         }
 
-        EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        LocalTimeMemo localTimes = new LocalTimeMemo(new WorldClockZones());
+
+        Transport transport = Transport.fromSystemProperties();
+        EventLoopGroup bossGroup = transport.newBossGroup();
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(0);
+        // Over JMX, under demos.netty:type=Metrics.
+        NettyMetrics metrics = NettyMetrics.register("WorldClockServer", workerGroup);
         try {
             ServerBootstrap b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-             .channel(NioServerSocketChannel.class)
+            transport.configure(b.group(bossGroup, workerGroup))
              .handler(new LoggingHandler(LogLevel.INFO))
-             .childHandler(new WorldClockServerInitializer(sslCtx));
+             .childHandler(metrics.instrument(new WorldClockServerInitializer(sslCtx, localTimes)));
+
+            // Share of the lookups served from the memo, every -Dstats.interval seconds (0: off).
+            long interval = Long.getLong("stats.interval", 10);
+            if (interval > 0) {
+                bossGroup.scheduleAtFixedRate(() -> System.out.printf(
+                        "WorldClockServer: %d lookups, memo hit ratio %.1f%%%n",
+                        localTimes.lookups(), localTimes.hitRatio() * 100),
+                        interval, interval, TimeUnit.SECONDS);
+            }
 
-            b.bind(PORT).sync().channel().closeFuture().sync();
+            transport.bind(b, PORT).closeFuture().sync();
         } finally {
+            metrics.unregister();
             bossGroup.shutdownGracefully();
             workerGroup.shutdownGracefully();
         }
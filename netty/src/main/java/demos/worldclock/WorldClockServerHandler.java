@@ -17,40 +17,28 @@ package demos.worldclock;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import demos.netty.worldclock.WorldClockProtocol.Continent;
-import demos.netty.worldclock.WorldClockProtocol.DayOfWeek;
-import demos.netty.worldclock.WorldClockProtocol.LocalTime;
-import demos.netty.worldclock.WorldClockProtocol.LocalTimes;
-import demos.netty.worldclock.WorldClockProtocol.Location;
-import demos.netty.worldclock.WorldClockProtocol.Locations;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Locations;
 
-import java.util.Calendar;
-import java.util.TimeZone;
+public class WorldClockServerHandler extends SimpleChannelInboundHandler<Locations> {
 
-import static java.util.Calendar.*;
+    private final LocalTimeMemo localTimes;
 
-public class WorldClockServerHandler extends SimpleChannelInboundHandler<Locations> {
+    public WorldClockServerHandler(LocalTimeMemo localTimes) {
+        this.localTimes = localTimes;
+    }
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Locations locations) throws Exception {
         long currentTime = System.currentTimeMillis();
 
         LocalTimes.Builder builder = LocalTimes.newBuilder();
-        for (Location l: locations.getLocationList()) {
-            TimeZone tz = TimeZone.getTimeZone(
-                    toString(l.getContinent()) + '/' + l.getCity());
-            Calendar calendar = getInstance(tz);
-            calendar.setTimeInMillis(currentTime);
-
-            builder.addLocalTime(LocalTime.newBuilder().
-                    setYear(calendar.get(YEAR)).
-                    setMonth(calendar.get(MONTH) + 1).
-                    setDayOfMonth(calendar.get(DAY_OF_MONTH)).
-                    setDayOfWeek(DayOfWeek.valueOf(calendar.get(DAY_OF_WEEK))).
-                    setHour(calendar.get(HOUR_OF_DAY)).
-                    setMinute(calendar.get(MINUTE)).
-                    setSecond(calendar.get(SECOND)).build());
+        if (locations.hasId()) {
+            // Lets a pipelining client match the answer to its request.
+            builder.setId(locations.getId());
         }
+        // Duplicate cities and repeated lookups within the same second reuse the same message.
+        localTimes.addLocalTimes(locations, currentTime, builder);
 
         ctx.write(builder.build());
     }
@@ -65,8 +53,4 @@ public class WorldClockServerHandler extends SimpleChannelInboundHandler<Locatio
         cause.printStackTrace();
         ctx.close();
     }
-
-    private static String toString(Continent c) {
-        return c.name().charAt(0) + c.name().toLowerCase().substring(1);
-    }
 }
@@ -15,21 +15,29 @@
  */
 package demos.worldclock;
 
+import demos.handler.BatchFlushHandler;
+import demos.handler.ProtobufFrameDecoder;
+import demos.handler.ProtobufFrameEncoder;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.protobuf.ProtobufDecoder;
-import io.netty.handler.codec.protobuf.ProtobufEncoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
-import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import io.netty.handler.ssl.SslContext;
 
 public class WorldClockServerInitializer extends ChannelInitializer<SocketChannel> {
 
+    private static final ProtobufFrameEncoder ENCODER = new ProtobufFrameEncoder();
+
     private final SslContext sslCtx;
+    // Shared by all the connections of the server.
+    private final LocalTimeMemo localTimes;
 
     public WorldClockServerInitializer(SslContext sslCtx) {
+        this(sslCtx, new LocalTimeMemo(new WorldClockZones()));
+    }
+
+    public WorldClockServerInitializer(SslContext sslCtx, LocalTimeMemo localTimes) {
         this.sslCtx = sslCtx;
+        this.localTimes = localTimes;
     }
 
     @Override
@@ -38,13 +46,14 @@ public class WorldClockServerInitializer extends ChannelInitializer<SocketChanne
         if (sslCtx != null) {
             p.addLast(sslCtx.newHandler(ch.alloc()));
         }
+        // Folds the handler's flush into one per read, or one every 256 answers.
+        p.addLast(new BatchFlushHandler());
 
-        p.addLast(new ProtobufVarint32FrameDecoder());
-        p.addLast(new ProtobufDecoder(WorldClockProtocol.Locations.getDefaultInstance()));
-
-        p.addLast(new ProtobufVarint32LengthFieldPrepender());
-        p.addLast(new ProtobufEncoder());
+        // Same wire format as ProtobufVarint32FrameDecoder + ProtobufDecoder and
+        // ProtobufVarint32LengthFieldPrepender + ProtobufEncoder, without their copies.
+        p.addLast(new ProtobufFrameDecoder<>(WorldClockProtocol.Locations.PARSER));
+        p.addLast(ENCODER);
 
-        p.addLast(new WorldClockServerHandler());
+        p.addLast(new WorldClockServerHandler(localTimes));
     }
 }
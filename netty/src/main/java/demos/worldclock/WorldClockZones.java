@@ -0,0 +1,163 @@
+package demos.worldclock;
+
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.DayOfWeek;
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolved time zones of the WorldClock server, keyed by (continent, city).
+ *
+ * <p>Every zone is resolved once, and it keeps the UTC offset it had the last time it was asked,
+ * together with the interval between the two transitions around it. Until the clock leaves that
+ * interval (a DST change, i.e. twice a year at most), the local time is plain arithmetic on the
+ * epoch second: no {@code TimeZone} lookup, no {@code Calendar}, no string concatenation.
+ *
+ * <p>Like {@code TimeZone.getTimeZone}, unknown zones resolve to UTC. They are cached too, but the
+ * cache stops growing at {@link #MAX_ZONES} entries, so clients sending made-up cities cannot grow
+ * it without bounds; further ones are resolved on every request.
+ *
+ * @author https://github.com/gukt
+ */
+public final class WorldClockZones {
+
+  /** Far more than the zone database has (about 600). */
+  public static final int MAX_ZONES = 4096;
+
+  private static final int SECONDS_PER_DAY = 86400;
+
+  private final Map<Continent, ConcurrentHashMap<String, Zone>> zones =
+      new EnumMap<>(Continent.class);
+  private final Map<Continent, String> prefixes = new EnumMap<>(Continent.class);
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger nextIndex = new AtomicInteger();
+
+  public WorldClockZones() {
+    for (Continent c : Continent.values()) {
+      zones.put(c, new ConcurrentHashMap<>());
+      // AMERICA -> "America/", the region names of the zone database.
+      prefixes.put(c, c.name().charAt(0) + c.name().toLowerCase().substring(1) + '/');
+    }
+  }
+
+  public Zone zone(Continent continent, String city) {
+    ConcurrentHashMap<String, Zone> cities = zones.get(continent);
+    Zone zone = cities.get(city);
+    if (zone != null) {
+      return zone;
+    }
+    ZoneId id = resolve(prefixes.get(continent) + city);
+    if (size.get() >= MAX_ZONES) {
+      return new Zone(id, -1);
+    }
+    zone = new Zone(id, nextIndex.getAndIncrement());
+    Zone raced = cities.putIfAbsent(city, zone);
+    if (raced != null) {
+      return raced;
+    }
+    size.incrementAndGet();
+    return zone;
+  }
+
+  /** Number of cached zones. */
+  public int size() {
+    return size.get();
+  }
+
+  private static ZoneId resolve(String id) {
+    try {
+      return ZoneId.of(id);
+    } catch (DateTimeException e) {
+      return ZoneOffset.UTC;
+    }
+  }
+
+  /** A resolved zone with its offset cached until the next transition. */
+  public static final class Zone {
+    private final ZoneId id;
+    private final ZoneRules rules;
+    private final int index;
+    // Replaced as a whole, so readers on other event loops never see a torn interval.
+    private volatile Offset offset = new Offset(0, 0, -1);
+
+    Zone(ZoneId id, int index) {
+      this.id = id;
+      this.rules = id.getRules();
+      this.index = index;
+    }
+
+    public ZoneId id() {
+      return id;
+    }
+
+    /**
+     * Small dense number of a cached zone, for per-zone tables; {@code -1} for the zones resolved
+     * past {@link #MAX_ZONES}, which are not cached.
+     */
+    public int index() {
+      return index;
+    }
+
+    /** Offset from UTC in seconds at {@code epochSecond}. */
+    public int offsetSeconds(long epochSecond) {
+      Offset o = offset;
+      if (epochSecond < o.from || epochSecond >= o.until) {
+        o = offset = offsetAt(epochSecond);
+      }
+      return o.seconds;
+    }
+
+    /** Local date and time at {@code epochMillis}, the same fields a {@code Calendar} gives. */
+    public LocalTime localTime(long epochMillis) {
+      long epochSecond = Math.floorDiv(epochMillis, 1000);
+      long localSecond = epochSecond + offsetSeconds(epochSecond);
+      long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+      int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+      LocalDate date = LocalDate.ofEpochDay(epochDay);
+      return LocalTime.newBuilder()
+          .setYear(date.getYear())
+          .setMonth(date.getMonthValue())
+          .setDayOfMonth(date.getDayOfMonth())
+          // 1970-01-01 was a Thursday, Calendar numbers the days from SUNDAY = 1.
+          .setDayOfWeek(DayOfWeek.valueOf((int) Math.floorMod(epochDay + 4, 7) + 1))
+          .setHour(secondOfDay / 3600)
+          .setMinute(secondOfDay / 60 % 60)
+          .setSecond(secondOfDay % 60)
+          .build();
+    }
+
+    private Offset offsetAt(long epochSecond) {
+      Instant instant = Instant.ofEpochSecond(epochSecond);
+      // The last transition at or before instant, previousTransition() is strictly before it.
+      ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+      ZoneOffsetTransition next = rules.nextTransition(instant);
+      return new Offset(
+          rules.getOffset(instant).getTotalSeconds(),
+          previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+          next == null ? Long.MAX_VALUE : next.toEpochSecond());
+    }
+  }
+
+  /** An offset and the interval {@code [from, until)} in epoch seconds it holds for. */
+  private static final class Offset {
+    final int seconds;
+    final long from;
+    final long until;
+
+    Offset(int seconds, long from, long until) {
+      this.seconds = seconds;
+      this.from = from;
+      this.until = until;
+    }
+  }
+}
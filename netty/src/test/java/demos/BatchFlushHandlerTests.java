@@ -0,0 +1,110 @@
+package demos;
+
+import demos.handler.BatchFlushHandler;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BatchFlushHandlerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class BatchFlushHandlerTests {
+
+    @Test
+    void testFlushesOncePerRead() {
+        FlushCounter flushes = new FlushCounter();
+        // 每条都 writeAndFlush，channelReadComplete 里还再 flush 一次
+        EmbeddedChannel ch =
+                new EmbeddedChannel(flushes, new BatchFlushHandler(), new Answer(true));
+        ch.writeInbound("a", "b", "c");
+        Assertions.assertEquals(1, flushes.count);
+        assertOutbound(ch, "a", "b", "c");
+        Assertions.assertFalse(ch.finish());
+    }
+
+    @Test
+    void testFlushesEveryMaxBatchWrites() {
+        FlushCounter flushes = new FlushCounter();
+        // handler 自己不 flush，也会每 2 条出去一次，剩下的在读完时出去
+        EmbeddedChannel ch =
+                new EmbeddedChannel(flushes, new BatchFlushHandler(2), new Answer(false));
+        ch.writeInbound("a", "b", "c", "d", "e");
+        Assertions.assertEquals(3, flushes.count);
+        assertOutbound(ch, "a", "b", "c", "d", "e");
+        Assertions.assertFalse(ch.finish());
+    }
+
+    @Test
+    void testPassesFlushesOutsideAReadOn() {
+        FlushCounter flushes = new FlushCounter();
+        EmbeddedChannel ch =
+                new EmbeddedChannel(flushes, new BatchFlushHandler(), new Answer(true));
+        ch.writeAndFlush("x");
+        Assertions.assertEquals(1, flushes.count);
+        assertOutbound(ch, "x");
+        Assertions.assertFalse(ch.finish());
+    }
+
+    @Test
+    void testFlushesBeforeClose() {
+        FlushCounter flushes = new FlushCounter();
+        EmbeddedChannel ch =
+                new EmbeddedChannel(flushes, new BatchFlushHandler(), new Answer(false));
+        // 读的过程中写了没 flush 就关闭，写出去的内容不能丢
+        ch.writeInbound("a", "close");
+        Assertions.assertFalse(ch.isOpen());
+        Assertions.assertEquals(1, flushes.count);
+        assertOutbound(ch, "a", "close");
+    }
+
+    private static void assertOutbound(EmbeddedChannel ch, String... expected) {
+        for (String msg : expected) {
+            Assertions.assertEquals(msg, ch.readOutbound());
+        }
+        Assertions.assertNull(ch.readOutbound());
+    }
+
+    /** 数 flush 到了 BatchFlushHandler 前面几次 */
+    private static final class FlushCounter extends ChannelDuplexHandler {
+        int count;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            count++;
+            ctx.flush();
+        }
+    }
+
+    /** 原样写回，"close" 写回后关闭连接 */
+    private static final class Answer extends ChannelInboundHandlerAdapter {
+        private final boolean flush;
+
+        Answer(boolean flush) {
+            this.flush = flush;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (flush) {
+                ctx.writeAndFlush(msg);
+            } else {
+                ctx.write(msg);
+            }
+            if ("close".equals(msg)) {
+                ctx.close();
+            }
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            if (flush) {
+                ctx.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package demos;
+
+import demos.blocking.Blocking;
+import demos.blocking.BlockingExecutorGroup;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * BlockingExecutorGroupTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class BlockingExecutorGroupTests {
+
+    private BlockingExecutorGroup group;
+
+    @BeforeEach
+    void setUp() {
+        group = BlockingExecutorGroup.platformThreads(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void testTasksOfOneExecutorRunInOrder() throws Exception {
+        EventExecutor executor = group.next();
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            executor.execute(() -> {
+                // 同一个 executor 的任务不会并发
+                Assertions.assertTrue(executor.inEventLoop());
+                order.add(n);
+                done.countDown();
+            });
+        }
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void testBlockedExecutorDoesNotStallOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        group.next().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // 第一个 executor 卡住了，其他的照常跑
+        CountDownLatch others = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            group.next().execute(others::countDown);
+        }
+        Assertions.assertTrue(others.await(1, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testOnlyBlockingHandlersLeaveTheEventLoop() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        Lookup lookup = new Lookup(read);
+        Plain plain = new Plain();
+        EmbeddedChannel ch = new EmbeddedChannel();
+        group.addLast(ch.pipeline(), plain, lookup);
+
+        Assertions.assertSame(ch.eventLoop(), ch.pipeline().context(plain).executor());
+        EventExecutor executor = ch.pipeline().context(lookup).executor();
+        Assertions.assertNotSame(ch.eventLoop(), executor);
+
+        ch.writeInbound("query");
+        Assertions.assertTrue(read.await(1, TimeUnit.SECONDS));
+        // EmbeddedChannel 的 eventLoop 总说自己 inEventLoop，所以看线程名
+        Assertions.assertTrue(lookup.thread.startsWith("blocking"), lookup.thread);
+        Assertions.assertTrue(lookup.onExecutor);
+    }
+
+    @Test
+    void testRejectsTasksAfterShutdown() throws Exception {
+        EventExecutor executor = group.next();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        Assertions.assertTrue(group.isShutdown());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    @Test
+    void testScheduledTasksRunOnTheExecutor() throws Exception {
+        EventExecutor executor = group.next();
+        Assertions.assertEquals("done", executor.schedule(() -> {
+            Assertions.assertTrue(executor.inEventLoop());
+            return "done";
+        }, 10, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+
+        // 周期任务：跑够三次后取消
+        CountDownLatch fixedRate = new CountDownLatch(3);
+        CountDownLatch fixedDelay = new CountDownLatch(3);
+        ScheduledFuture<?> rate = executor.scheduleAtFixedRate(() -> {
+            Assertions.assertTrue(executor.inEventLoop());
+            fixedRate.countDown();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> delay = executor.scheduleWithFixedDelay(
+                fixedDelay::countDown, 10, 10, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(fixedRate.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(fixedDelay.await(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(rate.cancel(false));
+        Assertions.assertTrue(delay.cancel(false));
+    }
+
+    @Test
+    void testQueuedTasksRunAfterShutdown() throws Exception {
+        EventExecutor executor = group.next();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // 排队的任务比一轮能跑的多，关闭以后剩下的也要跑完，不能悄悄丢掉
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            executor.execute(ran::incrementAndGet);
+        }
+        Future<?> terminated = group.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+        release.countDown();
+        terminated.sync();
+        Assertions.assertEquals(200, ran.get());
+    }
+
+    @Blocking
+    private static final class Lookup extends ChannelInboundHandlerAdapter {
+        private final CountDownLatch read;
+        volatile String thread;
+        volatile boolean onExecutor;
+
+        Lookup(CountDownLatch read) {
+            this.read = read;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            thread = Thread.currentThread().getName();
+            onExecutor = ctx.executor().inEventLoop();
+            read.countDown();
+        }
+    }
+
+    @Sharable
+    private static final class Plain extends ChannelInboundHandlerAdapter {
+    }
+}
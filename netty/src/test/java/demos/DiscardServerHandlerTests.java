@@ -0,0 +1,68 @@
+package demos;
+
+import demos.discard.DiscardServerHandler;
+import demos.discard.DiscardStats;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DiscardServerHandlerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class DiscardServerHandlerTests {
+
+    @Test
+    void testCountsAndReleasesWithoutReplying() {
+        DiscardStats stats = new DiscardStats();
+        FlushCounter flushes = new FlushCounter();
+        EmbeddedChannel ch = new EmbeddedChannel(flushes, new DiscardServerHandler(stats, false));
+        ByteBuf first = Unpooled.buffer().writeZero(100);
+        ByteBuf second = Unpooled.directBuffer().writeZero(28);
+        Assertions.assertFalse(ch.writeInbound(first, second));
+        // 收到的 buffer 都被释放
+        Assertions.assertEquals(0, first.refCnt());
+        Assertions.assertEquals(0, second.refCnt());
+        Assertions.assertEquals(128, stats.bytes());
+        Assertions.assertEquals(2, stats.messages());
+        Assertions.assertNull(ch.readOutbound());
+        Assertions.assertEquals(0, flushes.count);
+        Assertions.assertFalse(ch.finish());
+    }
+
+    @Test
+    void testRepliesFlushedOncePerRead() {
+        DiscardStats stats = new DiscardStats();
+        FlushCounter flushes = new FlushCounter();
+        EmbeddedChannel ch = new EmbeddedChannel(flushes, new DiscardServerHandler(stats, true));
+        // 一次读里三条消息，三个回复，一次 flush
+        ch.writeInbound(Unpooled.buffer().writeZero(1), Unpooled.buffer().writeZero(2),
+                Unpooled.buffer().writeZero(3));
+        Assertions.assertEquals(6, stats.bytes());
+        Assertions.assertEquals(3, stats.messages());
+        Assertions.assertEquals(1, flushes.count);
+        for (int i = 0; i < 3; i++) {
+            ByteBuf reply = ch.readOutbound();
+            Assertions.assertTrue(reply.isReadable());
+            reply.release();
+        }
+        Assertions.assertNull(ch.readOutbound());
+        Assertions.assertFalse(ch.finish());
+    }
+
+    /** 数 flush 的次数 */
+    private static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+        int count;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            count++;
+            ctx.flush();
+        }
+    }
+}
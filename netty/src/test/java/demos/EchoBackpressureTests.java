@@ -0,0 +1,109 @@
+package demos;
+
+import demos.echo.EchoServerHandler;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EchoBackpressureTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class EchoBackpressureTests {
+
+    private static final int HIGH = 64 * 1024;
+    private static final int LOW = 32 * 1024;
+    private static final int TOTAL = 4 * 1024 * 1024;
+
+    @Test
+    void testSlowConsumerKeepsOutboundBufferBounded() throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        AtomicLong maxPending = new AtomicLong();
+        AtomicBoolean pausedReading = new AtomicBoolean();
+        try {
+            ServerBootstrap b = new ServerBootstrap()
+                    .group(group)
+                    .channel(NioServerSocketChannel.class)
+                    .childOption(ChannelOption.TCP_NODELAY, true)
+                    // 发送缓冲区也调小，积压的数据只能留在 netty 的 outbound buffer 里
+                    .childOption(ChannelOption.SO_SNDBUF, 16 * 1024)
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                            new WriteBufferWaterMark(LOW, HIGH))
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            ch.pipeline().addLast(new EchoServerHandler());
+                            // 每毫秒看一次服务端还有多少字节没写出去
+                            ch.eventLoop().scheduleAtFixedRate(() -> {
+                                ChannelOutboundBuffer buffer = ch.unsafe().outboundBuffer();
+                                if (buffer != null) {
+                                    long pending = buffer.totalPendingWriteBytes();
+                                    maxPending.accumulateAndGet(pending, Math::max);
+                                }
+                                if (!ch.config().isAutoRead()) {
+                                    pausedReading.set(true);
+                                }
+                            }, 1, 1, TimeUnit.MILLISECONDS);
+                        }
+                    });
+            Channel server = b.bind("127.0.0.1", 0).sync().channel();
+            int port = ((InetSocketAddress) server.localAddress()).getPort();
+
+            try (Socket socket = new Socket()) {
+                // 接收缓冲区要在连接前设置，否则内核会替慢客户端吞下几 MB
+                socket.setReceiveBufferSize(16 * 1024);
+                socket.setTcpNoDelay(true);
+                socket.connect(new InetSocketAddress("127.0.0.1", port));
+                // 客户端一直发
+                CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                    try {
+                        OutputStream out = socket.getOutputStream();
+                        byte[] chunk = new byte[8 * 1024];
+                        for (int sent = 0; sent < TOTAL; sent += chunk.length) {
+                            out.write(chunk);
+                        }
+                        out.flush();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                // 先一个字节都不读，再慢慢读完，回显的数据一个都不能少
+                Thread.sleep(500);
+                InputStream in = socket.getInputStream();
+                byte[] buf = new byte[4 * 1024];
+                long received = 0;
+                while (received < TOTAL) {
+                    int n = in.read(buf);
+                    Assertions.assertTrue(n > 0, "closed after " + received + " bytes");
+                    received += n;
+                }
+                writer.get(10, TimeUnit.SECONDS);
+                Assertions.assertEquals(TOTAL, received);
+            }
+            server.close().sync();
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        }
+        // 高水位加上一次 read 的量，远小于发出去的 4MB
+        Assertions.assertTrue(maxPending.get() < HIGH + 256 * 1024, "pending: " + maxPending);
+        Assertions.assertTrue(pausedReading.get());
+    }
+}
@@ -0,0 +1,205 @@
+package demos;
+
+import demos.handler.FusedHandler;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FusedHandlerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class FusedHandlerTests {
+
+    @Test
+    void testSameEventOrderAsPipeline() {
+        List<String> expected = new ArrayList<>();
+        EmbeddedChannel plain = new EmbeddedChannel(handlers(expected));
+        run(plain);
+
+        List<String> actual = new ArrayList<>();
+        EmbeddedChannel fused = new EmbeddedChannel(new FusedHandler(handlers(actual)));
+        run(fused);
+
+        Assertions.assertEquals(expected, actual);
+        // 写出去的消息也一样
+        for (Object msg; (msg = plain.readOutbound()) != null; ) {
+            Assertions.assertEquals(msg, fused.readOutbound());
+        }
+        Assertions.assertNull(fused.readOutbound());
+        Assertions.assertEquals((Object) plain.readInbound(), fused.readInbound());
+    }
+
+    @Test
+    void testHandlerExceptionGoesToItsOwnExceptionCaught() {
+        List<String> events = new ArrayList<>();
+        EmbeddedChannel ch = new EmbeddedChannel(new FusedHandler(
+                new Inbound("in1", events),
+                new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        throw new IllegalStateException("boom");
+                    }
+
+                    @Override
+                    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                        events.add("thrower: " + cause.getMessage());
+                        ctx.fireExceptionCaught(cause);
+                    }
+                },
+                new Inbound("in2", events)));
+        events.clear();
+        // 最后到了 EmbeddedChannel 的尾部，writeInbound 把它抛出来
+        Assertions.assertThrows(IllegalStateException.class, () -> ch.writeInbound("m"));
+        Assertions.assertEquals(
+                Arrays.asList("in1 read m", "thrower: boom", "in2 exception boom",
+                        "in1 readComplete", "in2 readComplete"),
+                events);
+    }
+
+    @Test
+    void testRejectsNothingAndInitializers() {
+        Assertions.assertThrows(IllegalArgumentException.class, FusedHandler::new);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new FusedHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                    }
+                }));
+    }
+
+    /** 跟 discard 包里演示的顺序一样：入站、出站交替，第一个入站 handler 自己回写 */
+    private static ChannelHandler[] handlers(List<String> events) {
+        return new ChannelHandler[] {
+            new Inbound("in1", events) {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    events.add("in1 writes " + msg);
+                    ctx.writeAndFlush("reply-to-" + msg);
+                    super.channelRead(ctx, msg);
+                }
+            },
+            new Outbound("out1", events),
+            new Inbound("in2", events),
+            new Outbound("out2", events),
+            new ChannelDuplexHandler() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    events.add("duplex read " + msg);
+                    // 从中间写：只经过前面的 out2、out1
+                    ctx.write("echo-" + msg);
+                    ctx.fireChannelRead(msg);
+                }
+
+                @Override
+                public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                    events.add("duplex write " + msg);
+                    ctx.write(msg, promise);
+                }
+            },
+            new Inbound("in3", events) {
+                @Override
+                public void channelReadComplete(ChannelHandlerContext ctx) {
+                    events.add("in3 flushes");
+                    ctx.flush();
+                    super.channelReadComplete(ctx);
+                }
+            },
+        };
+    }
+
+    private static void run(EmbeddedChannel ch) {
+        ch.writeInbound("a", "b");
+        ch.pipeline().fireUserEventTriggered("evt");
+        ch.writeOutbound("from-tail");
+        ch.pipeline().fireExceptionCaught(new RuntimeException("oops"));
+        Assertions.assertThrows(RuntimeException.class, ch::checkException);
+        ch.close();
+    }
+
+    private static class Inbound extends ChannelInboundHandlerAdapter {
+        final String name;
+        final List<String> events;
+
+        Inbound(String name, List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            events.add(name + " active");
+            ctx.fireChannelActive();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            events.add(name + " inactive");
+            ctx.fireChannelInactive();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            events.add(name + " read " + msg);
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            events.add(name + " readComplete");
+            ctx.fireChannelReadComplete();
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+            events.add(name + " event " + evt);
+            ctx.fireUserEventTriggered(evt);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            events.add(name + " exception " + cause.getMessage());
+            ctx.fireExceptionCaught(cause);
+        }
+    }
+
+    private static class Outbound extends ChannelOutboundHandlerAdapter {
+        final String name;
+        final List<String> events;
+
+        Outbound(String name, List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            events.add(name + " write " + msg);
+            ctx.write(name + "(" + msg + ")", promise);
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            events.add(name + " flush");
+            ctx.flush();
+        }
+
+        @Override
+        public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+            events.add(name + " close");
+            ctx.close(promise);
+        }
+    }
+}
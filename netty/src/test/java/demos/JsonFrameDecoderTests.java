@@ -0,0 +1,101 @@
+package demos;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demos.handler.JsonFrameDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JsonFrameDecoderTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class JsonFrameDecoderTests {
+
+    private static final String[] VALUES = {
+        "{\"a\":1}",
+        "[1,{\"b\":[2,3]},\"]\"]",
+        "{\"s\":\"} { \\\" ] [ \\\\\",\"t\":\"中文\"}",
+        "{}",
+    };
+
+    @Test
+    void testConcatenatedAndNewlineDelimited() {
+        for (String separator : new String[] {"", "\n", "\r\n", " \t\n"}) {
+            String stream = separator + String.join(separator, VALUES) + separator;
+            EmbeddedChannel ch = new EmbeddedChannel(new JsonFrameDecoder());
+            ch.writeInbound(Unpooled.copiedBuffer(stream, StandardCharsets.UTF_8));
+            assertSlices(ch);
+        }
+    }
+
+    @Test
+    void testValuesSplitAnywhere() {
+        byte[] stream = String.join("\n", VALUES).getBytes(StandardCharsets.UTF_8);
+        // 一次一个字节，heap 和 direct 各走一遍
+        for (boolean direct : new boolean[] {false, true}) {
+            EmbeddedChannel ch = new EmbeddedChannel(new JsonFrameDecoder());
+            for (byte b : stream) {
+                ByteBuf one = direct ? Unpooled.directBuffer(1) : Unpooled.buffer(1);
+                ch.writeInbound(one.writeByte(b));
+            }
+            assertSlices(ch);
+        }
+    }
+
+    @Test
+    void testParsesTrees() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String stream = String.join("\n", VALUES);
+        for (boolean direct : new boolean[] {false, true}) {
+            EmbeddedChannel ch = new EmbeddedChannel(new JsonFrameDecoder(mapper));
+            byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+            ByteBuf in = direct ? Unpooled.directBuffer() : Unpooled.buffer();
+            ch.writeInbound(in.writeBytes(bytes));
+            for (String value : VALUES) {
+                Assertions.assertEquals(mapper.readTree(value), ch.<JsonNode>readInbound());
+            }
+            Assertions.assertNull(ch.readInbound());
+        }
+    }
+
+    @Test
+    void testRejectsScalarsAndTooLongValues() {
+        EmbeddedChannel ch = new EmbeddedChannel(new JsonFrameDecoder());
+        Assertions.assertThrows(CorruptedFrameException.class,
+                () -> ch.writeInbound(Unpooled.copiedBuffer("42", StandardCharsets.UTF_8)));
+
+        EmbeddedChannel small = new EmbeddedChannel(new JsonFrameDecoder(null, 16));
+        ByteBuf tooLong =
+                Unpooled.copiedBuffer("{\"a\":\"0123456789abcdef", StandardCharsets.UTF_8);
+        Assertions.assertThrows(TooLongFrameException.class, () -> small.writeInbound(tooLong));
+        // 超长值剩下的部分被丢掉，字符串里的 {...} 不算新的值
+        small.writeInbound(
+                Unpooled.copiedBuffer("yy {\"evil\":1} zz\"}", StandardCharsets.UTF_8));
+        Assertions.assertNull(small.readInbound());
+        // 之后的值照常解出来
+        small.writeInbound(Unpooled.copiedBuffer(" {\"b\":2}", StandardCharsets.UTF_8));
+        ByteBuf next = small.readInbound();
+        Assertions.assertEquals("{\"b\":2}", next.toString(StandardCharsets.UTF_8));
+        next.release();
+        Assertions.assertNull(small.readInbound());
+        Assertions.assertFalse(small.finish());
+    }
+
+    private static void assertSlices(EmbeddedChannel ch) {
+        for (String value : VALUES) {
+            ByteBuf slice = ch.readInbound();
+            Assertions.assertEquals(value, slice.toString(StandardCharsets.UTF_8));
+            slice.release();
+        }
+        Assertions.assertNull(ch.readInbound());
+        Assertions.assertFalse(ch.finish());
+    }
+}
@@ -0,0 +1,96 @@
+package demos;
+
+import demos.metrics.HandlerTimer;
+import demos.metrics.MetricsHandler;
+import demos.metrics.NettyMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.FixedLengthFrameDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * NettyMetricsTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class NettyMetricsTests {
+
+    private EventLoopGroup group;
+    private NettyMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        group = new DefaultEventLoopGroup(1);
+        metrics = NettyMetrics.register("NettyMetricsTests", group);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        metrics.unregister();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void testCountsBytesAndMessages() {
+        EmbeddedChannel ch = new EmbeddedChannel(metrics.instrument(new Initializer()));
+        Assertions.assertEquals(1, metrics.getOpenChannels());
+        // 三次读共 12 字节，解出三个 4 字节的帧，每帧回写一次
+        ch.writeInbound(Unpooled.wrappedBuffer(new byte[] {1, 2, 3, 4, 5}));
+        ch.writeInbound(Unpooled.wrappedBuffer(new byte[] {6, 7, 8}));
+        ch.writeInbound(Unpooled.wrappedBuffer(new byte[] {9, 10, 11, 12}));
+        Assertions.assertEquals(12, metrics.getBytesIn());
+        Assertions.assertEquals(12, metrics.getBytesOut());
+
+        HandlerTimer timer = metrics.timer("Echo");
+        Assertions.assertEquals(3, timer.messagesIn());
+        Assertions.assertEquals(3, timer.messagesOut());
+        for (ByteBuf b; (b = ch.readOutbound()) != null; ) {
+            b.release();
+        }
+
+        Assertions.assertFalse(ch.finish());
+        Assertions.assertEquals(0, metrics.getOpenChannels());
+    }
+
+    @Test
+    void testInstrumentTimesOnlyTheLastHandler() {
+        EmbeddedChannel ch = new EmbeddedChannel(metrics.instrument(new Initializer()));
+        List<ChannelHandler> handlers = new ArrayList<>(ch.pipeline().toMap().values());
+        // MetricsHandler 在最前，计时器只在应用的 handler 前面
+        Assertions.assertEquals(4, handlers.size(), handlers.toString());
+        Assertions.assertTrue(handlers.get(0) instanceof MetricsHandler);
+        Assertions.assertTrue(handlers.get(1) instanceof FixedLengthFrameDecoder);
+        Assertions.assertSame(metrics.timer("Echo"), handlers.get(2));
+        Assertions.assertTrue(handlers.get(3) instanceof Echo);
+        Assertions.assertTrue(metrics.getHandlerMeanMicros().containsKey("Echo"));
+        Assertions.assertFalse(ch.finish());
+    }
+
+    private static final class Initializer extends ChannelInitializer<Channel> {
+        @Override
+        protected void initChannel(Channel ch) {
+            ch.pipeline().addLast(new FixedLengthFrameDecoder(4), new Echo());
+        }
+    }
+
+    private static final class Echo extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.writeAndFlush(msg);
+        }
+    }
+}
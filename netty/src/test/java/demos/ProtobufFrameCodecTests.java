@@ -0,0 +1,130 @@
+package demos;
+
+import demos.handler.ProtobufFrameDecoder;
+import demos.handler.ProtobufFrameEncoder;
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ProtobufFrameCodecTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class ProtobufFrameCodecTests {
+
+    @Test
+    void testSameWireFormatAsNettyCodecs() {
+        Locations locations = locations(200);
+        EmbeddedChannel netty = new EmbeddedChannel(
+                new ProtobufVarint32LengthFieldPrepender(), new ProtobufEncoder());
+        EmbeddedChannel frame = new EmbeddedChannel(new ProtobufFrameEncoder());
+        Assertions.assertTrue(netty.writeOutbound(locations));
+        Assertions.assertTrue(frame.writeOutbound(locations));
+        ByteBuf expected = Unpooled.buffer();
+        for (ByteBuf b; (b = netty.readOutbound()) != null; b.release()) {
+            expected.writeBytes(b);
+        }
+        ByteBuf actual = frame.readOutbound();
+        Assertions.assertEquals(expected, actual);
+
+        // netty 的 decoder 也能解开
+        EmbeddedChannel decoder = new EmbeddedChannel(
+                new ProtobufVarint32FrameDecoder(),
+                new ProtobufDecoder(Locations.getDefaultInstance()));
+        Assertions.assertTrue(decoder.writeInbound(actual));
+        Assertions.assertEquals(locations, decoder.readInbound());
+        expected.release();
+    }
+
+    @Test
+    void testDecodesFramesSplitAnywhere() {
+        ByteBuf wire = Unpooled.buffer();
+        EmbeddedChannel encoder = new EmbeddedChannel(new ProtobufFrameEncoder());
+        for (int n : new int[] {0, 1, 50, 200}) {
+            encoder.writeOutbound(locations(n));
+            ByteBuf b = encoder.readOutbound();
+            wire.writeBytes(b);
+            b.release();
+        }
+        // 一次喂一个字节，heap 和 direct 各走一遍
+        for (boolean direct : new boolean[] {false, true}) {
+            EmbeddedChannel decoder =
+                    new EmbeddedChannel(new ProtobufFrameDecoder<>(Locations.PARSER));
+            for (int i = 0; i < wire.readableBytes(); i++) {
+                ByteBuf one = direct ? Unpooled.directBuffer(1) : Unpooled.buffer(1);
+                decoder.writeInbound(one.writeByte(wire.getByte(i)));
+            }
+            for (int n : new int[] {0, 1, 50, 200}) {
+                Assertions.assertEquals(locations(n), decoder.readInbound());
+            }
+            Assertions.assertNull(decoder.readInbound());
+            Assertions.assertFalse(decoder.finish());
+        }
+        wire.release();
+    }
+
+    @Test
+    void testRejectsTooLongFrame() {
+        EmbeddedChannel decoder =
+                new EmbeddedChannel(new ProtobufFrameDecoder<>(Locations.PARSER, 100));
+        // varint 300
+        DecoderException e = Assertions.assertThrows(DecoderException.class,
+                () -> decoder.writeInbound(Unpooled.wrappedBuffer(new byte[] {(byte) 0xac, 0x02})));
+        Assertions.assertTrue(e instanceof TooLongFrameException);
+    }
+
+    @Test
+    void testSkipsTooLongFrameAndDecodesTheNextOne() {
+        EmbeddedChannel decoder =
+                new EmbeddedChannel(new ProtobufFrameDecoder<>(Locations.PARSER, 4));
+        ByteBuf tooLong = encode(locations(1));
+        ByteBuf valid = encode(Locations.newBuilder().setId(5).build());
+        // 超长帧的前三个字节先到：长度前缀一读完就报错
+        DecoderException e = Assertions.assertThrows(DecoderException.class,
+                () -> decoder.writeInbound(tooLong.readRetainedSlice(3)));
+        Assertions.assertTrue(e instanceof TooLongFrameException);
+        // 剩下的帧体被跳过，不会被当成新的长度前缀
+        decoder.writeInbound(Unpooled.wrappedBuffer(tooLong, valid));
+        Assertions.assertEquals(Locations.newBuilder().setId(5).build(), decoder.readInbound());
+        Assertions.assertNull(decoder.readInbound());
+        Assertions.assertFalse(decoder.finish());
+    }
+
+    @Test
+    void testRejectsOverlongLengthPrefix() {
+        EmbeddedChannel decoder = new EmbeddedChannel(new ProtobufFrameDecoder<>(Locations.PARSER));
+        // 第五个字节只能带 4 位
+        DecoderException e = Assertions.assertThrows(DecoderException.class,
+                () -> decoder.writeInbound(Unpooled.wrappedBuffer(
+                        new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10})));
+        Assertions.assertTrue(e instanceof CorruptedFrameException);
+    }
+
+    private static ByteBuf encode(Locations locations) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ProtobufFrameEncoder());
+        encoder.writeOutbound(locations);
+        return encoder.readOutbound();
+    }
+
+    private static Locations locations(int n) {
+        Locations.Builder builder = Locations.newBuilder().setId(n);
+        for (int i = 0; i < n; i++) {
+            builder.addLocation(Location.newBuilder()
+                    .setContinent(Continent.EUROPE).setCity("City" + i));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,172 @@
+package demos;
+
+import demos.client.Backoff;
+import demos.client.ReconnectingClient;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ReconnectingClientTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class ReconnectingClientTests {
+
+    private EventLoopGroup group;
+    private ChannelGroup accepted;
+
+    @BeforeEach
+    void setUp() {
+        group = new NioEventLoopGroup(2);
+        accepted = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        accepted.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheMaxWithJitter() {
+        Backoff backoff = new Backoff(100, 1000);
+        for (int n = 0; n < 20; n++) {
+            long delay = backoff.nextDelayMillis();
+            Assertions.assertTrue(delay >= 0 && delay <= Math.min(1000, 100L << Math.min(n, 10)));
+        }
+        Assertions.assertEquals(20, backoff.attempts());
+        // 抖动：同一档的延迟不会都一样
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            delays.add(backoff.nextDelayMillis());
+        }
+        Assertions.assertTrue(delays.size() > 10);
+        backoff.reset();
+        Assertions.assertTrue(backoff.nextDelayMillis() <= 100);
+    }
+
+    @Test
+    void testStandbyTakesOverInMilliseconds() throws Exception {
+        int port = bind(0);
+        ReconnectingClient client = new ReconnectingClient(bootstrap(port), 1).start();
+        try {
+            // 监听的 channel 加两个连接
+            await(() -> client.connected() == 2 && accepted.size() == 3, 2000);
+            Channel first = client.active();
+
+            // 服务端断开正在用的连接，备用连接马上顶上
+            serverSide(first).close();
+            long start = System.nanoTime();
+            await(() -> client.active() != null && client.active() != first, 1000);
+            long failoverMillis = (System.nanoTime() - start) / 1_000_000;
+            Assertions.assertTrue(client.active().isActive());
+            Assertions.assertTrue(failoverMillis < 100, "failover: " + failoverMillis + " ms");
+
+            // 断掉的那个在后台补上
+            await(() -> client.connected() == 2, 2000);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testReconnectsOnceTheServerIsBack() throws Exception {
+        // 先拿一个空闲端口，服务端还没起来
+        int port = bind(0);
+        accepted.close().sync();
+        ReconnectingClient client = new ReconnectingClient(bootstrap(port), 0)
+                .backoff(10, 100)
+                .start();
+        try {
+            Thread.sleep(300);
+            Assertions.assertNull(client.active());
+            bind(port);
+            await(() -> client.active() != null, 2000);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testQuietConnectionIsReplaced() throws Exception {
+        int port = bind(0);
+        ReconnectingClient client = new ReconnectingClient(bootstrap(port), 0)
+                .backoff(10, 100)
+                .healthCheck(200, 0, null)
+                .start();
+        try {
+            await(() -> client.active() != null, 2000);
+            Channel first = client.active();
+            // 服务端什么都不发，200ms 后被当成死连接关掉、重连
+            await(() -> client.active() != null && client.active() != first, 2000);
+            Assertions.assertFalse(first.isActive());
+        } finally {
+            client.close();
+        }
+    }
+
+    /** 服务端什么都不回，只记下接受的连接 */
+    private int bind(int port) throws InterruptedException {
+        Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        accepted.add(ch);
+                    }
+                })
+                .bind("127.0.0.1", port).sync().channel();
+        accepted.add(server);
+        return ((InetSocketAddress) server.localAddress()).getPort();
+    }
+
+    private Bootstrap bootstrap(int port) {
+        return new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .remoteAddress("127.0.0.1", port)
+                .handler(new Quiet());
+    }
+
+    private Channel serverSide(Channel client) {
+        for (Channel ch : accepted) {
+            if (client.localAddress().equals(ch.remoteAddress())) {
+                return ch;
+            }
+        }
+        throw new AssertionError("not accepted: " + client);
+    }
+
+    private static void await(BooleanSupplier condition, long timeoutMillis) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    @Sharable
+    private static final class Quiet extends ChannelInboundHandlerAdapter {
+    }
+}
@@ -0,0 +1,113 @@
+package demos;
+
+import demos.telnet.TelnetCommands;
+import demos.telnet.TelnetServerInitializer;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LineBasedFrameDecoder;
+import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.codec.string.StringEncoder;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TelnetServerTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class TelnetServerTests {
+
+    private EventLoopGroup group;
+    private Channel client;
+    private final BlockingQueue<String> answers = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        group = new NioEventLoopGroup(2);
+        Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new TelnetServerInitializer(TelnetCommands.defaults(), null))
+                .bind("127.0.0.1", 0).sync().channel();
+        client = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                new LineBasedFrameDecoder(8192),
+                                new StringDecoder(),
+                                new StringEncoder(),
+                                new SimpleChannelInboundHandler<String>() {
+                                    @Override
+                                    protected void channelRead0(ChannelHandlerContext ctx,
+                                                                String msg) {
+                                        answers.add(msg);
+                                    }
+                                });
+                    }
+                })
+                .connect(server.localAddress()).sync().channel();
+        // 欢迎语两行
+        Assertions.assertTrue(poll().startsWith("Welcome to "));
+        Assertions.assertTrue(poll().startsWith("It is "));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void testPipelinedCommandsAreAnsweredInOrder() throws Exception {
+        // 一次写出去一万条命令，不等回复
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            lines.append("echo ").append(i).append("\r\n");
+        }
+        client.writeAndFlush(lines.toString());
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(String.valueOf(i), poll());
+        }
+    }
+
+    @Test
+    void testCommandsAreLookedUpInAnyCase() throws Exception {
+        client.writeAndFlush("ECHO  hello \r\nUptime\r\n\r\nfoo bar\r\nhelp\r\n");
+        Assertions.assertEquals("hello", poll());
+        Assertions.assertTrue(poll().startsWith("Up "));
+        Assertions.assertEquals("Please type something.", poll());
+        Assertions.assertTrue(poll().startsWith("Unknown command: foo. Commands: help, echo"));
+        Assertions.assertEquals("Commands: help, echo, time, uptime, bye.", poll());
+    }
+
+    @Test
+    void testByeClosesTheConnection() throws Exception {
+        // bye 后面跟着的命令不再回复
+        client.writeAndFlush("bye\r\necho too late\r\n");
+        Assertions.assertEquals("Have a good day!", poll());
+        Assertions.assertTrue(client.closeFuture().await(1, TimeUnit.SECONDS));
+        Assertions.assertNull(answers.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private String poll() throws InterruptedException {
+        String answer = answers.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(answer, "no answer");
+        return answer;
+    }
+}
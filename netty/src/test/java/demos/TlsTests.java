@@ -0,0 +1,122 @@
+package demos;
+
+import demos.tls.Tls;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TlsTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class TlsTests {
+
+    private static final LocalAddress ADDRESS = new LocalAddress("tls-tests");
+
+    private EventLoopGroup group;
+    private SelfSignedCertificate certificate;
+
+    @BeforeEach
+    void setUp() {
+        group = new DefaultEventLoopGroup(2);
+        try {
+            certificate = new SelfSignedCertificate("localhost");
+        } catch (CertificateException e) {
+            // JDK 16+ 没有 Bouncy Castle 时需要 --add-exports java.base/sun.security.x509=ALL-UNNAMED
+            certificate = null;
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (certificate != null) {
+            certificate.delete();
+        }
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void testAlpnIsNegotiated() throws Exception {
+        Assumptions.assumeTrue(certificate != null, "cannot make a self-signed certificate");
+        SslContext server = Tls.auto().alpn("worldclock", "echo").forServer(certificate);
+        SslContext client = Tls.auto().alpn("echo").forClient(InsecureTrustManagerFactory.INSTANCE);
+        Assertions.assertEquals("echo", handshake(server, client).applicationProtocol());
+    }
+
+    @Test
+    void testClientWithoutAlpnStillConnects() throws Exception {
+        Assumptions.assumeTrue(certificate != null, "cannot make a self-signed certificate");
+        SslContext server = Tls.auto().alpn("echo").forServer(certificate);
+        SslContext client = Tls.auto().forClient(InsecureTrustManagerFactory.INSTANCE);
+        Assertions.assertNull(handshake(server, client).applicationProtocol());
+    }
+
+    @Test
+    void testProviderFromSystemProperties() {
+        try {
+            Assertions.assertEquals(OpenSsl.isAvailable(), Tls.fromSystemProperties().isOpenSsl());
+            System.setProperty("tls.provider", "jdk");
+            Assertions.assertEquals(SslProvider.JDK, Tls.fromSystemProperties().provider());
+            System.setProperty("tls.provider", "boringssl");
+            Assertions.assertThrows(IllegalArgumentException.class, Tls::fromSystemProperties);
+        } finally {
+            System.clearProperty("tls.provider");
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Tls.jdk().sessionCacheSize(-1));
+    }
+
+    /** 客户端握手完成后的 SslHandler */
+    private SslHandler handshake(SslContext server, SslContext client) throws Exception {
+        Channel listener = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        ch.pipeline().addLast(server.newHandler(ch.alloc()));
+                    }
+                })
+                .bind(ADDRESS).sync().channel();
+        try {
+            Channel ch = new Bootstrap()
+                    .group(group)
+                    .channel(LocalChannel.class)
+                    .handler(new ChannelInitializer<LocalChannel>() {
+                        @Override
+                        protected void initChannel(LocalChannel ch) {
+                            ch.pipeline().addLast(client.newHandler(ch.alloc(), "localhost", 0));
+                        }
+                    })
+                    .connect(ADDRESS).sync().channel();
+            SslHandler ssl = ch.pipeline().get(SslHandler.class);
+            Assertions.assertTrue(ssl.handshakeFuture().await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(ssl.handshakeFuture().isSuccess(),
+                    String.valueOf(ssl.handshakeFuture().cause()));
+            ch.close().sync();
+            return ssl;
+        } finally {
+            listener.close().sync();
+        }
+    }
+}
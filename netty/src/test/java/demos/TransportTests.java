@@ -0,0 +1,75 @@
+package demos;
+
+import demos.transport.Transport;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TransportTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class TransportTests {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("transport");
+        System.clearProperty("transport.noTcpNoDelay");
+        System.clearProperty("transport.reusePort");
+    }
+
+    @Test
+    void testFromSystemProperties() {
+        Assertions.assertEquals(Epoll.isAvailable(), Transport.fromSystemProperties().isEpoll());
+
+        System.setProperty("transport", "nio");
+        System.setProperty("transport.noTcpNoDelay", "true");
+        Transport nio = Transport.fromSystemProperties();
+        Assertions.assertFalse(nio.isEpoll());
+        Assertions.assertEquals("nio(tcpNoDelay=false)", nio.toString());
+
+        System.setProperty("transport", "kqueue");
+        Assertions.assertThrows(IllegalArgumentException.class, Transport::fromSystemProperties);
+
+        System.setProperty("transport", "nio");
+        System.setProperty("transport.reusePort", "0");
+        Assertions.assertThrows(IllegalArgumentException.class, Transport::fromSystemProperties);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Transport.nio().reusePort(-1));
+    }
+
+    @Test
+    void testNioBindsOneListenerOnPortZero() throws Exception {
+        // NIO 不支持 SO_REUSEPORT，reusePort 被忽略，照常绑定一个 listener
+        Transport transport = Transport.nio().reusePort(4);
+        EventLoopGroup bossGroup = transport.newBossGroup();
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(1);
+        try {
+            ServerBootstrap b = transport
+                    .configure(new ServerBootstrap().group(bossGroup, workerGroup))
+                    .childHandler(new ChannelInboundHandlerAdapter());
+            Channel listener = transport.bind(b, 0);
+            Assertions.assertTrue(listener instanceof NioServerSocketChannel);
+            Assertions.assertTrue(listener.isActive());
+            int port = ((InetSocketAddress) listener.localAddress()).getPort();
+            Assertions.assertTrue(port > 0);
+            try (Socket socket = new Socket("127.0.0.1", port)) {
+                Assertions.assertTrue(socket.isConnected());
+            }
+            listener.close().sync();
+        } finally {
+            workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+            bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        }
+    }
+}
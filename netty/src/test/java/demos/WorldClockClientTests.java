@@ -0,0 +1,144 @@
+package demos;
+
+import demos.handler.ProtobufFrameDecoder;
+import demos.handler.ProtobufFrameEncoder;
+import demos.worldclock.LocalTimeMemo;
+import demos.worldclock.WorldClockClientHandler;
+import demos.worldclock.WorldClockClientPool;
+import demos.worldclock.WorldClockProtocol.DayOfWeek;
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Locations;
+import demos.worldclock.WorldClockServerHandler;
+import demos.worldclock.WorldClockZones;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WorldClockClientTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class WorldClockClientTests {
+
+    private static final List<String> BERLIN = Collections.singletonList("Europe/Berlin");
+
+    @Test
+    void testAnswersOutOfOrderCompleteTheirOwnRequests() throws Exception {
+        WorldClockClientHandler handler = new WorldClockClientHandler();
+        EmbeddedChannel ch = new EmbeddedChannel(handler);
+        List<CompletableFuture<List<String>>> answers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            answers.add(handler.getLocalTimesAsync(BERLIN));
+        }
+        // 三个请求一起 flush 出去，id 依次是 0、1、2
+        ch.runPendingTasks();
+        for (int id = 0; id < 3; id++) {
+            Locations request = ch.readOutbound();
+            Assertions.assertEquals(id, request.getId());
+        }
+        // 倒着回答，用年份区分是哪个请求的回答
+        for (int id = 2; id >= 0; id--) {
+            ch.writeInbound(localTimes(id, 2000 + id));
+        }
+        for (int id = 0; id < 3; id++) {
+            String time = answers.get(id).getNow(null).get(0);
+            Assertions.assertTrue(time.startsWith((2000 + id) + "-"), time);
+        }
+        Assertions.assertFalse(ch.finish());
+    }
+
+    @Test
+    void testPendingRequestsFailOnClose() throws Exception {
+        WorldClockClientHandler handler = new WorldClockClientHandler();
+        EmbeddedChannel ch = new EmbeddedChannel(handler);
+        CompletableFuture<List<String>> first = handler.getLocalTimesAsync(BERLIN);
+        CompletableFuture<List<String>> second = handler.getLocalTimesAsync(BERLIN);
+        ch.runPendingTasks();
+        ch.writeInbound(localTimes(1, 2000));
+        ch.close();
+        Assertions.assertEquals(1, second.get().size());
+        assertClosed(first);
+        // 关闭以后的请求直接失败
+        assertClosed(handler.getLocalTimesAsync(BERLIN));
+        ch.finishAndReleaseAll();
+    }
+
+    @Test
+    void testPoolReplacesClosedConnection() throws Exception {
+        LocalAddress address = new LocalAddress("worldclock-client-tests");
+        EventLoopGroup group = new DefaultEventLoopGroup(2);
+        LocalTimeMemo localTimes = new LocalTimeMemo(new WorldClockZones());
+        List<Channel> connections = new CopyOnWriteArrayList<>();
+        Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        ch.pipeline().addLast(
+                                new ProtobufFrameDecoder<>(Locations.PARSER),
+                                new ProtobufFrameEncoder(),
+                                new WorldClockServerHandler(localTimes));
+                    }
+                })
+                .bind(address).sync().channel();
+        Bootstrap b = new Bootstrap()
+                .group(group)
+                .channel(LocalChannel.class)
+                .remoteAddress(address)
+                .handler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        connections.add(ch);
+                        ch.pipeline().addLast(
+                                new ProtobufFrameDecoder<>(LocalTimes.PARSER),
+                                new ProtobufFrameEncoder(),
+                                new WorldClockClientHandler());
+                    }
+                });
+        try (WorldClockClientPool pool = new WorldClockClientPool(b, 1)) {
+            Assertions.assertEquals(1, pool.getLocalTimes(BERLIN).get(5, TimeUnit.SECONDS).size());
+            // 连接断了，下一个请求换一条新的连接
+            connections.get(0).close().sync();
+            Assertions.assertEquals(1, pool.getLocalTimes(BERLIN).get(5, TimeUnit.SECONDS).size());
+            Assertions.assertEquals(2, connections.size());
+            Assertions.assertTrue(connections.get(1).isActive());
+        } finally {
+            server.close().sync();
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private static void assertClosed(CompletableFuture<List<String>> answer) {
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, answer::get);
+        Assertions.assertTrue(e.getCause() instanceof ClosedChannelException);
+    }
+
+    private static LocalTimes localTimes(long id, int year) {
+        return LocalTimes.newBuilder()
+                .setId(id)
+                .addLocalTime(LocalTime.newBuilder()
+                        .setYear(year).setMonth(1).setDayOfMonth(1).setDayOfWeek(DayOfWeek.MONDAY)
+                        .setHour(0).setMinute(0).setSecond(0))
+                .build();
+    }
+}
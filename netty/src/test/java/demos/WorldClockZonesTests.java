@@ -0,0 +1,104 @@
+package demos;
+
+import demos.worldclock.LocalTimeMemo;
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+import demos.worldclock.WorldClockZones;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WorldClockZonesTests class
+ *
+ * @author https://github.com/gukt
+ */
+public class WorldClockZonesTests {
+
+    @Test
+    void testSameFieldsAsCalendarAcrossTransitions() {
+        WorldClockZones zones = new WorldClockZones();
+        // 2020-03-28 .. 2020-04-06 and 2020-10-24 .. 2020-11-02, 每 15 分钟一次：跨过欧美的夏令时切换，
+        // 同一个 Zone 的缓存 offset 要跟着失效
+        long[] starts = {1585353600_000L, 1603497600_000L};
+        for (long start : starts) {
+            for (long t = start; t < start + 10 * 86400_000L; t += 15 * 60_000L) {
+                assertSameAsCalendar(zones, Continent.EUROPE, "Berlin", t);
+                assertSameAsCalendar(zones, Continent.AMERICA, "Los_Angeles", t);
+                assertSameAsCalendar(zones, Continent.AUSTRALIA, "Sydney", t);
+                assertSameAsCalendar(zones, Continent.ASIA, "Kolkata", t);
+            }
+        }
+        // 时间倒回去也要算对
+        assertSameAsCalendar(zones, Continent.EUROPE, "Berlin", -86400_000L * 365 * 30);
+        Assertions.assertEquals(4, zones.size());
+    }
+
+    @Test
+    void testUnknownZoneIsUtc() {
+        WorldClockZones zones = new WorldClockZones();
+        Assertions.assertEquals(ZoneOffset.UTC, zones.zone(Continent.MIDEAST, "Nowhere").id());
+        assertSameAsCalendar(zones, Continent.MIDEAST, "Nowhere", System.currentTimeMillis());
+        Assertions.assertSame(
+                zones.zone(Continent.MIDEAST, "Nowhere"), zones.zone(Continent.MIDEAST, "Nowhere"));
+    }
+
+    @Test
+    void testMemoReusesMessagesWithinTheSecond() {
+        LocalTimeMemo memo = new LocalTimeMemo(new WorldClockZones());
+        Locations locations = Locations.newBuilder()
+                .addLocation(location(Continent.EUROPE, "Berlin"))
+                .addLocation(location(Continent.ASIA, "Seoul"))
+                .addLocation(location(Continent.EUROPE, "Berlin"))
+                .build();
+        long now = 1603497600_000L;
+
+        LocalTimes first = answer(memo, locations, now);
+        // 同一个请求里重复的城市用同一个 message
+        Assertions.assertSame(first.getLocalTime(0), first.getLocalTime(2));
+        Assertions.assertEquals(1, memo.hits());
+
+        // 同一秒内的下一个请求全部命中，下一秒重新计算
+        LocalTimes second = answer(memo, locations, now + 999);
+        Assertions.assertSame(first.getLocalTime(1), second.getLocalTime(1));
+        LocalTimes third = answer(memo, locations, now + 1000);
+        Assertions.assertNotSame(first.getLocalTime(1), third.getLocalTime(1));
+        Assertions.assertEquals(
+                first.getLocalTime(1).getSecond() + 1, third.getLocalTime(1).getSecond());
+
+        Assertions.assertEquals(9, memo.lookups());
+        Assertions.assertEquals(5, memo.hits());
+    }
+
+    private static LocalTimes answer(LocalTimeMemo memo, Locations locations, long millis) {
+        LocalTimes.Builder builder = LocalTimes.newBuilder();
+        memo.addLocalTimes(locations, millis, builder);
+        return builder.build();
+    }
+
+    private static Location location(Continent continent, String city) {
+        return Location.newBuilder().setContinent(continent).setCity(city).build();
+    }
+
+    private static void assertSameAsCalendar(
+            WorldClockZones zones, Continent continent, String city, long millis) {
+        String name = continent.name().charAt(0) + continent.name().toLowerCase().substring(1);
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(name + '/' + city));
+        calendar.setTimeInMillis(millis);
+        LocalTime lt = zones.zone(continent, city).localTime(millis);
+        String message = city + " at " + millis;
+        Assertions.assertEquals(calendar.get(Calendar.YEAR), lt.getYear(), message);
+        Assertions.assertEquals(calendar.get(Calendar.MONTH) + 1, lt.getMonth(), message);
+        Assertions.assertEquals(calendar.get(Calendar.DAY_OF_MONTH), lt.getDayOfMonth(), message);
+        Assertions.assertEquals(
+                calendar.get(Calendar.DAY_OF_WEEK), lt.getDayOfWeek().getNumber(), message);
+        Assertions.assertEquals(calendar.get(Calendar.HOUR_OF_DAY), lt.getHour(), message);
+        Assertions.assertEquals(calendar.get(Calendar.MINUTE), lt.getMinute(), message);
+        Assertions.assertEquals(calendar.get(Calendar.SECOND), lt.getSecond(), message);
+    }
+}
@@ -0,0 +1,125 @@
+package demos.handler;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Messages per microsecond through {@code depth} stateless handlers, alternately inbound and
+ * outbound like the demos.discard pipeline, added one by one ({@code pipeline}) or as one {@link
+ * FusedHandler} ({@code fused}). Every message is read in, answered by the last handler and
+ * written back out through the outbound ones, so it crosses all of them once.
+ *
+ * @author https://github.com/gukt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedHandlerBenchmark {
+
+  @Param({"pipeline", "fused"})
+  public String mode;
+
+  @Param({"2", "4", "10", "16"})
+  public int depth;
+
+  private EmbeddedChannel channel;
+  private ChannelPipeline pipeline;
+  private Counter counter;
+
+  @Setup
+  public void setup() {
+    ChannelHandler[] handlers = new ChannelHandler[depth];
+    for (int i = 0; i < depth; i++) {
+      handlers[i] = i % 2 == 0 ? new PassInbound() : new PassOutbound();
+    }
+    counter = new Counter();
+    channel = new EmbeddedChannel();
+    pipeline = channel.pipeline();
+    pipeline.addLast(counter);
+    if ("fused".equals(mode)) {
+      pipeline.addLast(new FusedHandler(handlers));
+    } else {
+      pipeline.addLast(handlers);
+    }
+    pipeline.addLast(new Answer());
+  }
+
+  @TearDown
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public long message() {
+    pipeline.fireChannelRead(this);
+    return counter.written;
+  }
+
+  /** Counts the answers and drops them, nothing reaches the channel. */
+  private static final class Counter extends ChannelOutboundHandlerAdapter {
+    long written;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+      written++;
+    }
+  }
+
+  @Sharable
+  private static final class PassInbound extends ChannelInboundHandlerAdapter {
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  @Sharable
+  private static final class PassOutbound extends ChannelOutboundHandlerAdapter {
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+      ctx.write(msg, promise);
+    }
+  }
+
+  private static final class Answer extends ChannelInboundHandlerAdapter {
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ctx.write(msg, ctx.voidPromise());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Takes the JMH command line options, e.g. -prof gc.
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(FusedHandlerBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
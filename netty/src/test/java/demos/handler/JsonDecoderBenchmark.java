@@ -0,0 +1,110 @@
+package demos.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.json.JsonObjectDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * One read of newline-delimited JSON objects from a pooled direct buffer, split and parsed.
+ * {@code string} is netty's JsonObjectDecoder, then a {@code String} of every frame parsed by
+ * Jackson, the way the line server's JSON decoder used to; {@code slices} is {@link
+ * JsonFrameDecoder} alone and {@code tree} is JsonFrameDecoder parsing the bytes. Run with {@code
+ * -prof gc}, {@code gc.alloc.rate.norm} is the bytes allocated per read.
+ *
+ * @author https://github.com/gukt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecoderBenchmark {
+
+  @Param({"string", "slices", "tree"})
+  public String decoder;
+
+  @Param({"16"})
+  public int objects;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private EmbeddedChannel channel;
+  private ByteBuf input;
+
+  @Setup
+  public void setup() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < objects; i++) {
+      sb.append("{\"id\":").append(i)
+          .append(",\"city\":\"Los_Angeles\",\"tags\":[\"a\",\"{b}\"],\"ok\":true}\n");
+    }
+    channel = new EmbeddedChannel();
+    channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+    switch (decoder) {
+      case "string":
+        channel.pipeline().addLast(new JsonObjectDecoder());
+        break;
+      case "slices":
+        channel.pipeline().addLast(new JsonFrameDecoder());
+        break;
+      default:
+        channel.pipeline().addLast(new JsonFrameDecoder(mapper));
+    }
+    byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+    input = PooledByteBufAllocator.DEFAULT.directBuffer(bytes.length).writeBytes(bytes);
+  }
+
+  @TearDown
+  public void tearDown() {
+    input.release();
+    channel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public void read(Blackhole bh) throws Exception {
+    channel.writeInbound(input.retainedDuplicate());
+    Object msg;
+    while ((msg = channel.readInbound()) != null) {
+      if (msg instanceof ByteBuf) {
+        ByteBuf frame = (ByteBuf) msg;
+        bh.consume(
+            "string".equals(decoder)
+                ? mapper.readTree(frame.toString(StandardCharsets.UTF_8))
+                : frame.getByte(frame.readerIndex()));
+        frame.release();
+      } else {
+        bh.consume(msg);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Takes the JMH command line options, e.g. -prof gc.
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(JsonDecoderBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
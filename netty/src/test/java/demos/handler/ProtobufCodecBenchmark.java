@@ -0,0 +1,125 @@
+package demos.handler;
+
+import demos.worldclock.LocalTimeMemo;
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+import demos.worldclock.WorldClockZones;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.protobuf.ProtobufDecoder;
+import io.netty.handler.codec.protobuf.ProtobufEncoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
+import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * One WorldClock request through the server's codecs: decode a framed {@code Locations} from a
+ * pooled direct buffer, encode the {@code LocalTimes} answer. {@code netty} is the stock
+ * ProtobufVarint32FrameDecoder/ProtobufDecoder/ProtobufVarint32LengthFieldPrepender/ProtobufEncoder
+ * pipeline, {@code frame} is {@link ProtobufFrameDecoder} + {@link ProtobufFrameEncoder}. Run with
+ * {@code -prof gc}, {@code gc.alloc.rate.norm} is the bytes allocated per request.
+ *
+ * @author https://github.com/gukt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufCodecBenchmark {
+
+  @Param({"netty", "frame"})
+  public String codec;
+
+  @Param({"16"})
+  public int locations;
+
+  private EmbeddedChannel channel;
+  private ByteBuf request;
+  private LocalTimes answer;
+
+  @Setup
+  public void setup() {
+    Locations.Builder builder = Locations.newBuilder().setId(42);
+    String[][] cities = {
+      {"ASIA", "Seoul"}, {"EUROPE", "Berlin"}, {"AMERICA", "Los_Angeles"}, {"AUSTRALIA", "Sydney"}
+    };
+    for (int i = 0; i < locations; i++) {
+      String[] city = cities[i % cities.length];
+      builder.addLocation(
+          Location.newBuilder().setContinent(Continent.valueOf(city[0])).setCity(city[1]));
+    }
+    Locations locations = builder.build();
+    LocalTimes.Builder answer = LocalTimes.newBuilder().setId(42);
+    new LocalTimeMemo(new WorldClockZones())
+        .addLocalTimes(locations, System.currentTimeMillis(), answer);
+    this.answer = answer.build();
+
+    ChannelHandler[] handlers =
+        "netty".equals(codec)
+            ? new ChannelHandler[] {
+              new ProtobufVarint32FrameDecoder(),
+              new ProtobufDecoder(Locations.getDefaultInstance()),
+              new ProtobufVarint32LengthFieldPrepender(),
+              new ProtobufEncoder()
+            }
+            : new ChannelHandler[] {
+              new ProtobufFrameDecoder<>(Locations.PARSER), new ProtobufFrameEncoder()
+            };
+    channel = new EmbeddedChannel();
+    channel.config().setAllocator(PooledByteBufAllocator.DEFAULT);
+    channel.pipeline().addLast(handlers);
+
+    // The request as a socket read would hand it over: framed, in a pooled direct buffer.
+    EmbeddedChannel framer = new EmbeddedChannel(new ProtobufFrameEncoder());
+    ByteBuf framed = framer.writeOutbound(locations) ? framer.readOutbound() : null;
+    request = PooledByteBufAllocator.DEFAULT.directBuffer().writeBytes(framed);
+    framed.release();
+  }
+
+  @TearDown
+  public void tearDown() {
+    request.release();
+    channel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public Object request() {
+    channel.writeInbound(request.retainedDuplicate());
+    Locations locations = channel.readInbound();
+    channel.writeOutbound(answer);
+    ByteBuf out = channel.readOutbound();
+    out.release();
+    return locations;
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Takes the JMH command line options, e.g. -prof gc.
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ProtobufCodecBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,114 @@
+package demos.worldclock;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MINUTE;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.SECOND;
+import static java.util.Calendar.YEAR;
+
+import demos.worldclock.WorldClockProtocol.Continent;
+import demos.worldclock.WorldClockProtocol.DayOfWeek;
+import demos.worldclock.WorldClockProtocol.LocalTime;
+import demos.worldclock.WorldClockProtocol.LocalTimes;
+import demos.worldclock.WorldClockProtocol.Location;
+import demos.worldclock.WorldClockProtocol.Locations;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The local times of a request's locations, computed the way {@link WorldClockServerHandler} used
+ * to ({@code TimeZone.getTimeZone} and a {@code Calendar} per location), with {@link
+ * WorldClockZones}, and with {@link LocalTimeMemo} on top, building the whole answer. Run with {@code -prof gc} to see the allocation rates too.
+ *
+ * @author https://github.com/gukt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalTimeBenchmark {
+
+  private final Location[] locations = {
+    location(Continent.ASIA, "Seoul"),
+    location(Continent.EUROPE, "Berlin"),
+    location(Continent.AMERICA, "Los_Angeles"),
+    location(Continent.AUSTRALIA, "Sydney"),
+  };
+  private final WorldClockZones zones = new WorldClockZones();
+  private final LocalTimeMemo memo = new LocalTimeMemo(zones);
+  private final Locations request =
+      Locations.newBuilder().addAllLocation(Arrays.asList(locations)).build();
+
+  @Benchmark
+  public void calendar(Blackhole bh) {
+    long currentTime = System.currentTimeMillis();
+    for (Location l : locations) {
+      TimeZone tz = TimeZone.getTimeZone(toString(l.getContinent()) + '/' + l.getCity());
+      Calendar calendar = Calendar.getInstance(tz);
+      calendar.setTimeInMillis(currentTime);
+      bh.consume(
+          LocalTime.newBuilder()
+              .setYear(calendar.get(YEAR))
+              .setMonth(calendar.get(MONTH) + 1)
+              .setDayOfMonth(calendar.get(DAY_OF_MONTH))
+              .setDayOfWeek(DayOfWeek.valueOf(calendar.get(DAY_OF_WEEK)))
+              .setHour(calendar.get(HOUR_OF_DAY))
+              .setMinute(calendar.get(MINUTE))
+              .setSecond(calendar.get(SECOND))
+              .build());
+    }
+  }
+
+  @Benchmark
+  public void zoneCache(Blackhole bh) {
+    long currentTime = System.currentTimeMillis();
+    for (Location l : locations) {
+      bh.consume(zones.zone(l.getContinent(), l.getCity()).localTime(currentTime));
+    }
+  }
+
+  /** Hits from the second request of every second on. */
+  @Benchmark
+  public LocalTimes memo() {
+    LocalTimes.Builder builder = LocalTimes.newBuilder();
+    memo.addLocalTimes(request, System.currentTimeMillis(), builder);
+    return builder.build();
+  }
+
+  private static Location location(Continent continent, String city) {
+    return Location.newBuilder().setContinent(continent).setCity(city).build();
+  }
+
+  private static String toString(Continent c) {
+    return c.name().charAt(0) + c.name().toLowerCase().substring(1);
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Takes the JMH command line options, e.g. -prof gc.
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(LocalTimeBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}